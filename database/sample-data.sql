@@ -18,42 +18,47 @@ INSERT INTO words (word_text, total_count, sentence_start_count, sentence_end_co
 ('fast', 10, 0, 2);
 
 -- Insert sample word pairs (Markov chain transitions)
-INSERT INTO word_pairs (first_word_id, second_word_id, transition_count, transition_probability) VALUES
+INSERT INTO word_pairs (first_word_id, second_word_id, transition_count) VALUES
 -- "the" transitions
-(1, 2, 20, 0.13333),  -- the -> quick
-(1, 3, 15, 0.10000),  -- the -> brown
-(1, 4, 10, 0.06667),  -- the -> fox
-(1, 7, 8, 0.05333),   -- the -> lazy
-(1, 8, 12, 0.08000),  -- the -> dog
-(1, 9, 7, 0.04667),   -- the -> cat
+(1, 2, 20),   -- the -> quick
+(1, 3, 15),   -- the -> brown
+(1, 4, 10),   -- the -> fox
+(1, 7, 8),    -- the -> lazy
+(1, 8, 12),   -- the -> dog
+(1, 9, 7),    -- the -> cat
 
 -- "quick" transitions
-(2, 3, 25, 0.55556),  -- quick -> brown
-(2, 4, 10, 0.22222),  -- quick -> fox
-(2, 9, 5, 0.11111),   -- quick -> cat
+(2, 3, 25),   -- quick -> brown
+(2, 4, 10),   -- quick -> fox
+(2, 9, 5),    -- quick -> cat
 
 -- "brown" transitions
-(3, 4, 30, 0.75000),  -- brown -> fox
-(3, 8, 5, 0.12500),   -- brown -> dog
-(3, 9, 5, 0.12500),   -- brown -> cat
+(3, 4, 30),   -- brown -> fox
+(3, 8, 5),    -- brown -> dog
+(3, 9, 5),    -- brown -> cat
 
 -- "fox" transitions
-(4, 5, 25, 0.71429),  -- fox -> jumps
-(4, 10, 10, 0.28571), -- fox -> runs
+(4, 5, 25),   -- fox -> jumps
+(4, 10, 10),  -- fox -> runs
 
 -- "jumps" transitions
-(5, 6, 30, 1.00000),  -- jumps -> over
+(5, 6, 30),   -- jumps -> over
 
 -- "over" transitions
-(6, 1, 25, 1.00000),  -- over -> the
+(6, 1, 25),   -- over -> the
 
 -- "lazy" transitions
-(7, 8, 15, 0.75000),  -- lazy -> dog
-(7, 9, 5, 0.25000),   -- lazy -> cat
+(7, 8, 15),   -- lazy -> dog
+(7, 9, 5),    -- lazy -> cat
 
 -- "dog" transitions
-(8, 10, 10, 0.55556), -- dog -> runs
-(8, 5, 8, 0.44444);   -- dog -> jumps
+(8, 10, 10),  -- dog -> runs
+(8, 5, 8);    -- dog -> jumps
+
+-- Context totals matching the transitions above; probabilities are
+-- computed on read as transition_count / total_count
+INSERT INTO pair_context_totals (first_word_id, total_count)
+SELECT first_word_id, SUM(transition_count) FROM word_pairs GROUP BY first_word_id;
 
 -- Insert sample imported files
 INSERT INTO imported_files (filename, file_path, word_count, status) VALUES
@@ -6,7 +6,10 @@ CREATE DATABASE IF NOT EXISTS sentence_builder;
 USE sentence_builder;
 
 -- Drop tables if they exist (for clean setup)
+DROP TABLE IF EXISTS ngram_context_totals;
+DROP TABLE IF EXISTS pair_context_totals;
 DROP TABLE IF EXISTS ngrams;
+DROP TABLE IF EXISTS ngram_contexts;
 DROP TABLE IF EXISTS word_pairs;
 DROP TABLE IF EXISTS imported_files;
 DROP TABLE IF EXISTS words;
@@ -31,7 +34,6 @@ CREATE TABLE word_pairs (
     first_word_id INT NOT NULL,
     second_word_id INT NOT NULL,
     transition_count INT DEFAULT 1,
-    transition_probability DECIMAL(10, 8) DEFAULT 0.0,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     FOREIGN KEY (first_word_id) REFERENCES words(word_id) ON DELETE CASCADE,
@@ -39,26 +41,54 @@ CREATE TABLE word_pairs (
     UNIQUE KEY unique_pair (first_word_id, second_word_id),
     INDEX idx_first_word (first_word_id),
     INDEX idx_second_word (second_word_id),
-    INDEX idx_transition_count (transition_count)
+    INDEX idx_transition_count (transition_count),
+    -- Covers autocomplete: a word's successors, most frequent first
+    INDEX idx_pair_successors (first_word_id, transition_count DESC, second_word_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- N-gram contexts: each distinct sequence of n words, stored once as word IDs.
+-- Positions past n hold 0. total_count is the sum of transition counts
+-- leaving the context, kept up to date by every write to ngrams, so
+-- transition probabilities are computed on read as
+-- transition_count / total_count without rewriting sibling rows.
+CREATE TABLE ngram_contexts (
+    context_id INT AUTO_INCREMENT PRIMARY KEY,
+    n INT NOT NULL,
+    word1_id INT NOT NULL,
+    word2_id INT NOT NULL DEFAULT 0,
+    word3_id INT NOT NULL DEFAULT 0,
+    word4_id INT NOT NULL DEFAULT 0,
+    word5_id INT NOT NULL DEFAULT 0,
+    total_count BIGINT NOT NULL DEFAULT 0,
+    UNIQUE KEY unique_context (n, word1_id, word2_id, word3_id, word4_id, word5_id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
 -- N-grams table: stores N-gram sequences for variable-order N-gram generation
+-- as the words that follow each context
 CREATE TABLE ngrams (
     ngram_id INT AUTO_INCREMENT PRIMARY KEY,
-    n INT NOT NULL,
-    ngram_text VARCHAR(500) NOT NULL,
+    context_id INT NOT NULL,
     next_word_id INT NOT NULL,
     transition_count INT DEFAULT 1,
-    transition_probability DECIMAL(10, 8) DEFAULT 0.0,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    FOREIGN KEY (context_id) REFERENCES ngram_contexts(context_id) ON DELETE CASCADE,
     FOREIGN KEY (next_word_id) REFERENCES words(word_id) ON DELETE CASCADE,
-    UNIQUE KEY unique_ngram (n, ngram_text(191), next_word_id),
-    INDEX idx_n (n),
-    INDEX idx_ngram_text (ngram_text(191)),
+    UNIQUE KEY unique_ngram (context_id, next_word_id),
     INDEX idx_next_word (next_word_id),
     INDEX idx_transition_count (transition_count),
-    INDEX idx_n_ngram (n, ngram_text(191))
+    -- Covers autocomplete and generation: a context's next words, most frequent first
+    INDEX idx_ngram_successors (context_id, transition_count DESC, next_word_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Context totals: the sum of transition counts leaving each word, kept up
+-- to date by every write to word_pairs. Transition probabilities
+-- are computed on read as transition_count / total_count, so a count change
+-- never rewrites its sibling rows.
+CREATE TABLE pair_context_totals (
+    first_word_id INT PRIMARY KEY,
+    total_count BIGINT NOT NULL DEFAULT 0,
+    FOREIGN KEY (first_word_id) REFERENCES words(word_id) ON DELETE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
 -- Imported files table: tracks files imported into the system
@@ -68,9 +98,27 @@ CREATE TABLE imported_files (
     file_path VARCHAR(1024) NOT NULL,
     word_count INT DEFAULT 0,
     import_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    status ENUM('pending', 'processing', 'completed', 'failed') DEFAULT 'pending',
+    status ENUM('pending', 'processing', 'completed', 'failed', 'skipped') DEFAULT 'pending',
     error_message TEXT,
+    -- SHA-256 of the file content, used to skip re-imports of identical files
+    content_hash CHAR(64),
+    -- Last committed checkpoint of a long import, used to resume it
+    byte_offset BIGINT DEFAULT 0,
+    committed_batches INT DEFAULT 0,
+    -- N-gram orders and write path the checkpoint was made with; a resume
+    -- must use the same ones
+    import_options VARCHAR(64),
+    -- Throughput of pipeline imports, summed over every run of the file;
+    -- stage_timings holds busy/CPU milliseconds per stage of the latest run
+    elapsed_ms BIGINT DEFAULT 0,
+    cpu_ms BIGINT DEFAULT 0,
+    token_count BIGINT DEFAULT 0,
+    statement_count BIGINT DEFAULT 0,
+    rows_written BIGINT DEFAULT 0,
+    stage_timings VARCHAR(255),
     INDEX idx_filename (filename),
+    INDEX idx_file_path (file_path(191)),
+    INDEX idx_content_hash (content_hash),
     INDEX idx_import_date (import_date),
     INDEX idx_status (status)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
\ No newline at end of file
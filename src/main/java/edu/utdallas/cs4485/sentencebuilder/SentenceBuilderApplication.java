@@ -1,5 +1,7 @@
 package edu.utdallas.cs4485.sentencebuilder;
 
+import edu.utdallas.cs4485.sentencebuilder.service.BackgroundExecutor;
+import edu.utdallas.cs4485.sentencebuilder.service.DatabaseService;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
@@ -57,6 +59,8 @@ public class SentenceBuilderApplication extends Application {
             stage.setMinHeight(600);
             stage.show();
 
+            BackgroundExecutor.getInstance().execute(SentenceBuilderApplication::repairSecondaryIndexes);
+
         } catch (IOException e) {
             System.err.println("Error loading FXML file: " + e.getMessage());
             throw e;
@@ -66,13 +70,30 @@ public class SentenceBuilderApplication extends Application {
         }
     }
 
+    /**
+     * Rebuilds secondary indexes that a bulk load left dropped because it did
+     * not finish. Runs in the background at startup so imports never have to.
+     */
+    private static void repairSecondaryIndexes() {
+        try {
+            int rebuilt = new DatabaseService().restoreSecondaryIndexes();
+            if (rebuilt > 0) {
+                System.out.println("Rebuilt " + rebuilt + " secondary index(es) left dropped by a bulk load");
+            }
+        } catch (Exception e) {
+            System.err.println("Failed to repair secondary indexes: " + e.getMessage());
+        }
+    }
+
     /**
      * Called when the application is stopped.
      * Cleanup resources here (database connections, etc.)
+     * Background tasks are stopped first so none is left holding a connection.
      */
     @Override
     public void stop() throws Exception {
         // TODO: Clean up database connections and other resources
+        BackgroundExecutor.shutdown();
         super.stop();
     }
 
@@ -0,0 +1,313 @@
+package edu.utdallas.cs4485.sentencebuilder.algorithm;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ *
+ * Accumulates word, word pair and N-gram counts for a block of text entirely in
+ * memory so they can be written to the database in one pass.
+ *
+ * The counting rules mirror the statement-by-statement import path exactly:
+ * the first word of each sentence is recorded as a sentence starter, every
+ * word that has a successor is counted and paired with it, and the last word
+ * of a multi-word sentence is recorded as a sentence ender. N-grams are taken
+ * from the normalized text split on whitespace, the same way NGramService
+ * does. Both import paths therefore produce identical statistics for the same
+ * file.
+ *
+ * Counts are keyed by the lowercased token text. Tokens never contain tabs or
+ * line breaks, which lets the bulk loader write them as tab-separated rows
+ * without quoting.
+ *
+ * @author Johnathan Pedraza
+ */
+public class CorpusCounter {
+
+    private final Map<String, WordStats> words;
+    private final Map<String, Map<String, Integer>> pairs;
+    private final Map<Integer, Map<String, Map<String, Integer>>> ngrams;
+    private int totalWords;
+
+    /**
+     * Constructor.
+     */
+    public CorpusCounter() {
+        this.words = new HashMap<>();
+        this.pairs = new HashMap<>();
+        this.ngrams = new HashMap<>();
+    }
+
+    /**
+     * Counts the words and word pairs of one tokenized sentence.
+     *
+     * @param sentenceWords the tokens of the sentence
+     * @return number of word occurrences recorded for this sentence
+     */
+    public int addSentence(List<String> sentenceWords) {
+        if (sentenceWords == null || sentenceWords.isEmpty()) {
+            return 0;
+        }
+
+        int counted = 0;
+
+        // Sentence starter
+        wordStats(sentenceWords.get(0).toLowerCase()).recordStart();
+        counted++;
+
+        // Intermediate words and their transitions
+        for (int i = 0; i < sentenceWords.size() - 1; i++) {
+            String word1 = sentenceWords.get(i).toLowerCase();
+            String word2 = sentenceWords.get(i + 1).toLowerCase();
+
+            wordStats(word1).recordOccurrence();
+            addPair(word1, word2, 1);
+            counted++;
+        }
+
+        // Sentence ender
+        if (sentenceWords.size() > 1) {
+            wordStats(sentenceWords.get(sentenceWords.size() - 1).toLowerCase()).recordEnd();
+            counted++;
+        }
+
+        totalWords += counted;
+        return counted;
+    }
+
+    /**
+     * Counts the N-grams of a block of text.
+     *
+     * @param text the text to process
+     * @param n the N value
+     */
+    public void addNGrams(String text, int n) {
+        addNGrams(null, text, n);
+    }
+
+    /**
+     * Counts the N-grams of one chunk of a larger text. The lead-in is the
+     * tail of the preceding chunk; it supplies context for N-grams that
+     * straddle the chunk boundary, but N-grams lying entirely inside the
+     * lead-in are not counted again.
+     *
+     * @param leadIn trailing text of the previous chunk, or null
+     * @param text the chunk to process
+     * @param n the N value
+     */
+    public void addNGrams(String leadIn, String text, int n) {
+        addNGrams(leadIn, text, n, n);
+    }
+
+    /**
+     * Counts the N-grams of every order from minN to maxN in a single sweep
+     * over the tokens of a chunk. At each position the contexts of all
+     * orders ending there are built by extending the shortest one word at a
+     * time, so the text is normalized and split only once whatever the
+     * number of orders. The lead-in works as for a single order.
+     *
+     * @param leadIn trailing text of the previous chunk, or null
+     * @param text the chunk to process
+     * @param minN the smallest N value
+     * @param maxN the largest N value
+     */
+    public void addNGrams(String leadIn, String text, int minN, int maxN) {
+        if (text == null || text.trim().isEmpty() || minN < 1 || maxN < minN) {
+            return;
+        }
+
+        String[] leadInTokens = splitNormalized(leadIn);
+        String[] textTokens = splitNormalized(text);
+        String[] tokens = new String[leadInTokens.length + textTokens.length];
+        System.arraycopy(leadInTokens, 0, tokens, 0, leadInTokens.length);
+        System.arraycopy(textTokens, 0, tokens, leadInTokens.length, textTokens.length);
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = tokens[i].trim();
+        }
+
+        // Only windows whose next word lies inside this chunk
+        for (int next = Math.max(leadInTokens.length, minN); next < tokens.length; next++) {
+            StringBuilder context = new StringBuilder();
+            for (int n = 1; n <= maxN && n <= next; n++) {
+                if (n > 1) {
+                    context.insert(0, ' ');
+                }
+                context.insert(0, tokens[next - n]);
+                if (n >= minN) {
+                    addNGram(n, context.toString(), tokens[next], 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds all counts from another counter into this one.
+     *
+     * @param other the counter to merge in
+     */
+    public void merge(CorpusCounter other) {
+        for (Map.Entry<String, WordStats> entry : other.words.entrySet()) {
+            wordStats(entry.getKey()).add(entry.getValue());
+        }
+        for (Map.Entry<String, Map<String, Integer>> first : other.pairs.entrySet()) {
+            for (Map.Entry<String, Integer> second : first.getValue().entrySet()) {
+                addPair(first.getKey(), second.getKey(), second.getValue());
+            }
+        }
+        for (Map.Entry<Integer, Map<String, Map<String, Integer>>> order : other.ngrams.entrySet()) {
+            for (Map.Entry<String, Map<String, Integer>> context : order.getValue().entrySet()) {
+                for (Map.Entry<String, Integer> next : context.getValue().entrySet()) {
+                    addNGram(order.getKey(), context.getKey(), next.getKey(), next.getValue());
+                }
+            }
+        }
+        totalWords += other.totalWords;
+    }
+
+    /**
+     * Gets the per-word statistics.
+     *
+     * @return map of word text to its counts
+     */
+    public Map<String, WordStats> getWordCounts() {
+        return words;
+    }
+
+    /**
+     * Gets the word pair counts, grouped by first word.
+     *
+     * @return map of first word to (second word to transition count)
+     */
+    public Map<String, Map<String, Integer>> getPairCounts() {
+        return pairs;
+    }
+
+    /**
+     * Gets the N-gram counts, grouped by N and then by context.
+     *
+     * @return map of N to (context to (next word to transition count))
+     */
+    public Map<Integer, Map<String, Map<String, Integer>>> getNGramCounts() {
+        return ngrams;
+    }
+
+    /**
+     * Gets the number of word occurrences counted so far.
+     *
+     * @return total word occurrences
+     */
+    public int getTotalWords() {
+        return totalWords;
+    }
+
+    /**
+     * Gets the number of distinct word pairs.
+     *
+     * @return distinct pair count
+     */
+    public int getDistinctPairCount() {
+        int count = 0;
+        for (Map<String, Integer> successors : pairs.values()) {
+            count += successors.size();
+        }
+        return count;
+    }
+
+    /**
+     * Gets the number of distinct (N, context, next word) rows.
+     *
+     * @return distinct N-gram count
+     */
+    public int getDistinctNGramCount() {
+        int count = 0;
+        for (Map<String, Map<String, Integer>> contexts : ngrams.values()) {
+            for (Map<String, Integer> successors : contexts.values()) {
+                count += successors.size();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Checks whether anything has been counted.
+     *
+     * @return true if no words, pairs or N-grams were recorded
+     */
+    public boolean isEmpty() {
+        return words.isEmpty() && pairs.isEmpty() && ngrams.isEmpty();
+    }
+
+    /**
+     * Discards all counts.
+     */
+    public void clear() {
+        words.clear();
+        pairs.clear();
+        ngrams.clear();
+        totalWords = 0;
+    }
+
+    private static String[] splitNormalized(String text) {
+        if (text == null || text.trim().isEmpty()) {
+            return new String[0];
+        }
+        return TextTokenizer.normalizeText(text).split("\\s+");
+    }
+
+    private WordStats wordStats(String word) {
+        return words.computeIfAbsent(word, key -> new WordStats());
+    }
+
+    private void addPair(String first, String second, int count) {
+        pairs.computeIfAbsent(first, key -> new HashMap<>()).merge(second, count, Integer::sum);
+    }
+
+    private void addNGram(int n, String context, String next, int count) {
+        ngrams.computeIfAbsent(n, key -> new HashMap<>())
+                .computeIfAbsent(context, key -> new HashMap<>())
+                .merge(next, count, Integer::sum);
+    }
+
+    /**
+     * Mutable per-word counters matching the columns of the words table.
+     */
+    public static class WordStats {
+
+        private int totalCount;
+        private int sentenceStartCount;
+        private int sentenceEndCount;
+
+        void recordStart() {
+            totalCount++;
+            sentenceStartCount++;
+        }
+
+        void recordOccurrence() {
+            totalCount++;
+        }
+
+        void recordEnd() {
+            totalCount++;
+            sentenceEndCount++;
+        }
+
+        void add(WordStats other) {
+            totalCount += other.totalCount;
+            sentenceStartCount += other.sentenceStartCount;
+            sentenceEndCount += other.sentenceEndCount;
+        }
+
+        public int getTotalCount() {
+            return totalCount;
+        }
+
+        public int getSentenceStartCount() {
+            return sentenceStartCount;
+        }
+
+        public int getSentenceEndCount() {
+            return sentenceEndCount;
+        }
+    }
+}
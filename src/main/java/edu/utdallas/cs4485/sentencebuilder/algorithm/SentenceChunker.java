@@ -0,0 +1,109 @@
+package edu.utdallas.cs4485.sentencebuilder.algorithm;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ *
+ * Splits a stream of raw text into chunks of roughly a target size that can be
+ * tokenized independently.
+ *
+ * Text is appended as it is read and complete chunks are handed back as soon
+ * as they are available. A chunk is only ever cut just after sentence-ending
+ * punctuation and the whitespace that follows it, which is exactly where
+ * TextTokenizer.tokenizeSentences splits, so tokenizing the chunks one by one
+ * yields the same sentences and words as tokenizing the whole text at once.
+ *
+ * If no sentence boundary appears within four times the target size the chunk
+ * is cut at the last whitespace instead, and as a last resort at the hard
+ * limit, so memory stays bounded even for text with no punctuation at all.
+ *
+ * @author Johnathan Pedraza
+ */
+public class SentenceChunker {
+
+    private static final Pattern SENTENCE_BOUNDARY = Pattern.compile("[.!?]\\s+");
+    private static final int HARD_LIMIT_FACTOR = 4;
+
+    private final int targetSize;
+    private final StringBuilder buffer;
+
+    /**
+     * Constructor.
+     *
+     * @param targetSize preferred chunk size in characters
+     */
+    public SentenceChunker(int targetSize) {
+        if (targetSize < 1) {
+            throw new IllegalArgumentException("Target size must be positive");
+        }
+        this.targetSize = targetSize;
+        this.buffer = new StringBuilder();
+    }
+
+    /**
+     * Appends text and returns any chunks that are now complete.
+     *
+     * @param text the next piece of raw text
+     * @return complete chunks, possibly empty
+     */
+    public List<String> append(CharSequence text) {
+        List<String> chunks = new ArrayList<>();
+        if (text == null || text.length() == 0) {
+            return chunks;
+        }
+
+        buffer.append(text);
+
+        while (buffer.length() > targetSize) {
+            int cut = findCut();
+            if (cut < 0) {
+                break;
+            }
+            chunks.add(buffer.substring(0, cut));
+            buffer.delete(0, cut);
+        }
+
+        return chunks;
+    }
+
+    /**
+     * Returns whatever text is left once the input is exhausted and resets
+     * the chunker.
+     *
+     * @return the final chunk, or an empty string
+     */
+    public String finish() {
+        String rest = buffer.toString();
+        buffer.setLength(0);
+        return rest;
+    }
+
+    /**
+     * Finds where to cut the buffer, or -1 to wait for more text.
+     */
+    private int findCut() {
+        Matcher matcher = SENTENCE_BOUNDARY.matcher(buffer);
+        matcher.region(targetSize - 1, buffer.length());
+        while (matcher.find()) {
+            // A whitespace run touching the end may continue in the next append
+            if (matcher.end() < buffer.length()) {
+                return matcher.end();
+            }
+        }
+
+        int hardLimit = targetSize * HARD_LIMIT_FACTOR;
+        if (buffer.length() < hardLimit) {
+            return -1;
+        }
+
+        for (int i = hardLimit - 1; i > 0; i--) {
+            if (Character.isWhitespace(buffer.charAt(i))) {
+                return i + 1;
+            }
+        }
+        return hardLimit;
+    }
+}
@@ -1,11 +1,24 @@
 package edu.utdallas.cs4485.sentencebuilder.controller;
 
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+import edu.utdallas.cs4485.sentencebuilder.dao.WordDAO;
+import edu.utdallas.cs4485.sentencebuilder.dao.WordPairDAO;
 import edu.utdallas.cs4485.sentencebuilder.model.Word;
 import edu.utdallas.cs4485.sentencebuilder.model.WordPair;
+import edu.utdallas.cs4485.sentencebuilder.service.BackgroundExecutor;
 import edu.utdallas.cs4485.sentencebuilder.service.DatabaseService;
-import javafx.beans.property.SimpleDoubleProperty;
-import javafx.beans.property.SimpleIntegerProperty;
-import javafx.beans.property.SimpleStringProperty;
+import edu.utdallas.cs4485.sentencebuilder.util.ConfigurationManager;
+import edu.utdallas.cs4485.sentencebuilder.util.PageCache;
+import edu.utdallas.cs4485.sentencebuilder.util.PagedItems;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.value.ObservableValue;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
@@ -13,6 +26,8 @@ import javafx.scene.control.TabPane;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TextField;
+import javafx.util.Callback;
+import javafx.util.Duration;
 
 /**
  *
@@ -28,6 +43,16 @@ import javafx.scene.control.TextField;
  * information, and examine the underlying statistical model that drives text generation.
  * This view helps users understand how the system learned from their imported texts.
  *
+ * Neither table is ever loaded whole. Both are backed by PagedItems, which reads
+ * the rows in view a page at a time on the background executor, and sorting by a
+ * column header is done by the database rather than the table. Only indexed
+ * columns can be sorted; the word text and probability columns of the pairs
+ * table come from joins and stay in the database's order.
+ *
+ * Searching is done by the database as well. Typing in the search field narrows
+ * the Words tab to words starting with the text and the Word Pairs tab to pairs
+ * with that word on either side, once typing pauses or Enter is pressed.
+ *
  * @author Bhaskar Atmakuri
  */
 public class DatabaseViewController {
@@ -75,6 +100,16 @@ public class DatabaseViewController {
     private Label statusLabel;
 
     private DatabaseService databaseService;
+    private PagedItems<Word> wordItems;
+    private PagedItems<WordPair> wordPairItems;
+    private Map<TableColumn<Word, ?>, WordDAO.SortColumn> wordSortColumns;
+    private Map<TableColumn<WordPair, ?>, WordPairDAO.SortColumn> wordPairSortColumns;
+    private WordDAO.SortColumn wordSort;
+    private boolean wordSortAscending;
+    private WordPairDAO.SortColumn wordPairSort;
+    private boolean wordPairSortAscending;
+    private String searchText;
+    private PauseTransition searchDelay;
 
     /**
      * Constructor.
@@ -93,42 +128,168 @@ public class DatabaseViewController {
         setupWordTableColumns();
         setupWordPairTableColumns();
 
-        // Load initial data
-        refreshData();
+        // Back both tables with paged data and load the first pages
+        setupWordPaging();
+        setupWordPairPaging();
+
+        // Search once typing pauses rather than on every key
+        searchDelay = new PauseTransition(Duration.millis(
+                ConfigurationManager.getInstance().getIntProperty("ui.database.search.delay.ms", 300)));
+        searchDelay.setOnFinished(event -> applySearch());
+        searchField.textProperty().addListener((observable, oldText, newText) -> searchDelay.playFromStart());
     }
 
     /**
-     * Sets up the column bindings for the words table.
+     * Sets up the column bindings for the words table. Rows still loading
+     * are null and show as empty.
      */
     private void setupWordTableColumns() {
-        wordTextColumn.setCellValueFactory(cellData
-                -> new SimpleStringProperty(cellData.getValue().getWordText()));
-
-        totalCountColumn.setCellValueFactory(cellData
-                -> new SimpleIntegerProperty(cellData.getValue().getTotalCount()).asObject());
-
-        startCountColumn.setCellValueFactory(cellData
-                -> new SimpleIntegerProperty(cellData.getValue().getSentenceStartCount()).asObject());
-
-        endCountColumn.setCellValueFactory(cellData
-                -> new SimpleIntegerProperty(cellData.getValue().getSentenceEndCount()).asObject());
+        wordTextColumn.setCellValueFactory(cell(Word::getWordText));
+        totalCountColumn.setCellValueFactory(cell(Word::getTotalCount));
+        startCountColumn.setCellValueFactory(cell(Word::getSentenceStartCount));
+        endCountColumn.setCellValueFactory(cell(Word::getSentenceEndCount));
     }
 
     /**
      * Sets up the column bindings for the word pairs table.
      */
     private void setupWordPairTableColumns() {
-        firstWordColumn.setCellValueFactory(cellData
-                -> new SimpleStringProperty(cellData.getValue().getFirstWordText()));
+        firstWordColumn.setCellValueFactory(cell(WordPair::getFirstWordText));
+        secondWordColumn.setCellValueFactory(cell(WordPair::getSecondWordText));
+        transitionCountColumn.setCellValueFactory(cell(WordPair::getTransitionCount));
+        probabilityColumn.setCellValueFactory(cell(WordPair::getTransitionProbability));
+    }
+
+    /**
+     * Backs the words table with paged data sorted by the database, most
+     * frequent words first.
+     */
+    private void setupWordPaging() {
+        wordItems = newPagedItems();
+        wordsTable.setItems(wordItems);
+
+        wordSortColumns = Map.of(
+                wordTextColumn, WordDAO.SortColumn.WORD_TEXT,
+                totalCountColumn, WordDAO.SortColumn.TOTAL_COUNT,
+                startCountColumn, WordDAO.SortColumn.START_COUNT);
+        endCountColumn.setSortable(false);
+
+        wordsTable.setSortPolicy(table -> {
+            sortWords();
+            return true;
+        });
+        totalCountColumn.setSortType(TableColumn.SortType.DESCENDING);
+        wordsTable.getSortOrder().setAll(List.of(totalCountColumn));
+        sortWords();
+    }
+
+    /**
+     * Backs the word pairs table with paged data sorted by the database,
+     * most frequent pairs first.
+     */
+    private void setupWordPairPaging() {
+        wordPairItems = newPagedItems();
+        wordPairsTable.setItems(wordPairItems);
+
+        wordPairSortColumns = Map.of(transitionCountColumn, WordPairDAO.SortColumn.TRANSITION_COUNT);
+        firstWordColumn.setSortable(false);
+        secondWordColumn.setSortable(false);
+        probabilityColumn.setSortable(false);
+
+        wordPairsTable.setSortPolicy(table -> {
+            sortWordPairs();
+            return true;
+        });
+        transitionCountColumn.setSortType(TableColumn.SortType.DESCENDING);
+        wordPairsTable.getSortOrder().setAll(List.of(transitionCountColumn));
+        sortWordPairs();
+    }
 
-        secondWordColumn.setCellValueFactory(cellData
-                -> new SimpleStringProperty(cellData.getValue().getSecondWordText()));
+    /**
+     * Points the words table at the page query for its current sort order.
+     * Does nothing if the order has not changed.
+     */
+    private void sortWords() {
+        TableColumn<Word, ?> column = wordsTable.getSortOrder().isEmpty() ? null : wordsTable.getSortOrder().get(0);
+        WordDAO.SortColumn sort = column == null ? WordDAO.SortColumn.TOTAL_COUNT : wordSortColumns.get(column);
+        boolean ascending = column != null && column.getSortType() == TableColumn.SortType.ASCENDING;
+        if (sort == null || (sort == wordSort && ascending == wordSortAscending)) {
+            return;
+        }
+        wordSort = sort;
+        wordSortAscending = ascending;
+
+        String prefix = searchText;
+        wordItems.setSource(new PageCache.PageSource<Word>() {
+            @Override
+            public int count() throws SQLException {
+                return databaseService.countWords(prefix);
+            }
+
+            @Override
+            public List<Word> loadAfter(Word last, int limit) throws SQLException {
+                return databaseService.getWordPage(sort, ascending, prefix, last, limit);
+            }
+
+            @Override
+            public List<Word> loadAt(int offset, int limit) throws SQLException {
+                return databaseService.getWordPage(sort, ascending, prefix, offset, limit);
+            }
+        });
+    }
 
-        transitionCountColumn.setCellValueFactory(cellData
-                -> new SimpleIntegerProperty(cellData.getValue().getTransitionCount()).asObject());
+    /**
+     * Points the word pairs table at the page query for its current sort
+     * order. Does nothing if the order has not changed.
+     */
+    private void sortWordPairs() {
+        TableColumn<WordPair, ?> column = wordPairsTable.getSortOrder().isEmpty()
+                ? null : wordPairsTable.getSortOrder().get(0);
+        WordPairDAO.SortColumn sort = column == null
+                ? WordPairDAO.SortColumn.TRANSITION_COUNT : wordPairSortColumns.get(column);
+        boolean ascending = column != null && column.getSortType() == TableColumn.SortType.ASCENDING;
+        if (sort == null || (sort == wordPairSort && ascending == wordPairSortAscending)) {
+            return;
+        }
+        wordPairSort = sort;
+        wordPairSortAscending = ascending;
+
+        String word = searchText;
+        wordPairItems.setSource(new PageCache.PageSource<WordPair>() {
+            @Override
+            public int count() throws SQLException {
+                return databaseService.countWordPairs(word);
+            }
+
+            @Override
+            public List<WordPair> loadAfter(WordPair last, int limit) throws SQLException {
+                return databaseService.getWordPairPage(sort, ascending, word, last, limit);
+            }
+
+            @Override
+            public List<WordPair> loadAt(int offset, int limit) throws SQLException {
+                return databaseService.getWordPairPage(sort, ascending, word, offset, limit);
+            }
+        });
+    }
 
-        probabilityColumn.setCellValueFactory(cellData
-                -> new SimpleDoubleProperty(cellData.getValue().getTransitionProbability()).asObject());
+    /**
+     * Creates an empty paged list that reads on the background executor and
+     * reports to the status label.
+     *
+     * @param <T> row type
+     * @return the paged list
+     */
+    private <T> PagedItems<T> newPagedItems() {
+        ConfigurationManager config = ConfigurationManager.getInstance();
+        PagedItems<T> items = new PagedItems<>(
+                config.getIntProperty("ui.database.page.size", 200),
+                config.getIntProperty("ui.database.cached.pages", 50),
+                BackgroundExecutor.getInstance()::execute,
+                Platform::runLater);
+        items.setOnCounted(this::updateStatus);
+        items.setOnError(e -> statusLabel.setText("Error loading data: " + e.getMessage()));
+        return items;
     }
 
     /**
@@ -141,59 +302,74 @@ public class DatabaseViewController {
     }
 
     /**
-     * Refreshes data in both tables.
+     * Refreshes data in both tables. Only the row counts are read here; the
+     * pages in view follow as the tables ask for them.
      */
     private void refreshData() {
-        try {
-            statusLabel.setText("Loading data...");
-
-            // Load words
-            wordsTable.getItems().clear();
-            wordsTable.getItems().addAll(databaseService.getAllWords());
-
-            // Load word pairs
-            wordPairsTable.getItems().clear();
-            wordPairsTable.getItems().addAll(databaseService.getAllWordPairs());
-
-            statusLabel.setText(String.format("Loaded %d words and %d word pairs",
-                    wordsTable.getItems().size(),
-                    wordPairsTable.getItems().size()));
+        statusLabel.setText("Loading data...");
+        wordItems.refresh();
+        wordPairItems.refresh();
+    }
 
-        } catch (Exception e) {
-            statusLabel.setText("Error loading data: " + e.getMessage());
+    /**
+     * Shows the row counts and word cache statistics.
+     */
+    private void updateStatus() {
+        if (searchText == null) {
+            statusLabel.setText(String.format("%,d words and %,d word pairs | %s",
+                    wordItems.size(),
+                    wordPairItems.size(),
+                    databaseService.getWordCacheStatistics()));
+        } else {
+            statusLabel.setText(String.format("%,d words starting with \"%s\" and %,d word pairs with \"%s\" | %s",
+                    wordItems.size(), searchText,
+                    wordPairItems.size(), searchText,
+                    databaseService.getWordCacheStatistics()));
         }
     }
 
     /**
-     * Handles search field text changes.
+     * Handles Enter in the search field by searching at once instead of
+     * waiting for the typing pause.
      */
     @FXML
     private void handleSearch() {
-        // TODO: Implement search/filter logic
-        String searchText = searchField.getText().toLowerCase().trim();
+        searchDelay.stop();
+        applySearch();
+    }
 
-        if (searchText.isEmpty()) {
-            refreshData();
+    /**
+     * Re-queries both tables for the search field's text. Words are matched
+     * by prefix and pairs by either word, both in SQL, so only the pages in
+     * view are ever read. An empty field shows everything again.
+     */
+    private void applySearch() {
+        String text = searchField.getText() == null ? "" : searchField.getText().toLowerCase().trim();
+        String search = text.isEmpty() ? null : text;
+        if (Objects.equals(search, searchText)) {
             return;
         }
-
-        // Filter tables based on search text
-        // This is a simple example - implement more sophisticated filtering as needed
+        searchText = search;
+
+        // Forget the applied sort orders so both tables reload with the search
+        wordSort = null;
+        wordPairSort = null;
+        statusLabel.setText(search == null ? "Loading data..." : "Searching...");
+        sortWords();
+        sortWordPairs();
     }
 
     /**
-     * Handles recalculate probabilities button click.
+     * Builds a cell value factory that reads one property of a row and
+     * shows nothing while the row is loading.
+     *
+     * @param getter reads the property from a loaded row
+     * @param <S> row type
+     * @param <T> property type
+     * @return the cell value factory
      */
-    @FXML
-    private void handleRecalculateProbabilities() {
-        // TODO: Implement probability recalculation
-        try {
-            statusLabel.setText("Recalculating probabilities...");
-            databaseService.recalculateProbabilities();
-            refreshData();
-            statusLabel.setText("Probabilities recalculated successfully");
-        } catch (Exception e) {
-            statusLabel.setText("Error: " + e.getMessage());
-        }
+    private static <S, T> Callback<TableColumn.CellDataFeatures<S, T>, ObservableValue<T>> cell(Function<S, T> getter) {
+        return cellData -> new ReadOnlyObjectWrapper<>(
+                cellData.getValue() == null ? null : getter.apply(cellData.getValue()));
     }
 }
@@ -1,12 +1,27 @@
 package edu.utdallas.cs4485.sentencebuilder.controller;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import edu.utdallas.cs4485.sentencebuilder.dao.UnitOfWork;
 import edu.utdallas.cs4485.sentencebuilder.model.ImportedFile;
+import edu.utdallas.cs4485.sentencebuilder.service.BackgroundExecutor;
 import edu.utdallas.cs4485.sentencebuilder.service.DatabaseService;
+import edu.utdallas.cs4485.sentencebuilder.service.ImportJobQueue;
+import edu.utdallas.cs4485.sentencebuilder.service.ImportOptions;
+import edu.utdallas.cs4485.sentencebuilder.service.ImportPipeline;
+import edu.utdallas.cs4485.sentencebuilder.service.StageMetrics;
 import edu.utdallas.cs4485.sentencebuilder.service.TextProcessingService;
+import edu.utdallas.cs4485.sentencebuilder.service.ThrottledProgressListener;
+import edu.utdallas.cs4485.sentencebuilder.util.ConfigurationManager;
 import edu.utdallas.cs4485.sentencebuilder.util.FileUtils;
 import javafx.application.Platform;
 import javafx.beans.property.SimpleIntegerProperty;
@@ -23,6 +38,7 @@ import javafx.scene.control.Slider;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TextField;
+import javafx.stage.DirectoryChooser;
 import javafx.stage.FileChooser;
 
 /**
@@ -31,7 +47,7 @@ import javafx.stage.FileChooser;
  * system. It manages the user interface for selecting text files, initiating
  * the import process.
  *
- * Handles file selection, allowing user to pick .txt, .pdf, .doc, .docx files
+ * Handles file selection, allowing user to pick .txt, .pdf and .docx files
  * from local system. When user imports file, the controller validates file
  * path, size and type It also validates user option of N-gram processing and
  * the N value from 2-5
@@ -54,18 +70,27 @@ public class FileImportController {
     @FXML
     private Button browseButton;
 
+    @FXML
+    private Button browseFolderButton;
+
     @FXML
     private Button deleteFileButton;
 
     @FXML
     private Button importButton;
 
+    @FXML
+    private Button cancelButton;
+
     @FXML
     private ProgressBar importProgressBar;
 
     @FXML
     private Label statusLabel;
 
+    @FXML
+    private Label metricsLabel;
+
     @FXML
     private TableView<ImportedFile> fileHistoryTable;
 
@@ -84,19 +109,38 @@ public class FileImportController {
     @FXML
     private TableColumn<ImportedFile, String> filePathColumn;
 
+    @FXML
+    private TableColumn<ImportedFile, String> throughputColumn;
+
     @FXML
     private CheckBox processNGramsCheckBox;
 
+    @FXML
+    private Slider ngramMinNSlider;
+
+    @FXML
+    private Label ngramMinNLabel;
+
     @FXML
     private Slider ngramNValueSlider;
 
     @FXML
     private Label ngramNValueLabel;
 
+    @FXML
+    private CheckBox bulkLoadCheckBox;
+
+    @FXML
+    private CheckBox allowDuplicatesCheckBox;
+
     private TextProcessingService textProcessingService;
     private DatabaseService databaseService;
     private edu.utdallas.cs4485.sentencebuilder.service.NGramService ngramService;
     private Task<Void> currentImportTask;
+    private volatile Runnable cancelAction;
+    private volatile boolean cancelRequested;
+    private List<Path> batchSelection;
+    private String batchSelectionLabel;
 
     /**
      * Creates a new controller instance. Creates a new connection to the
@@ -123,6 +167,9 @@ public class FileImportController {
 
         // Control import button availability
         importButton.setDisable(true);
+        if (cancelButton != null) {
+            cancelButton.setDisable(true);
+        }
         filePathField.textProperty().addListener((obs, oldVal, newVal) -> {
             importButton.setDisable(newVal == null || newVal.trim().isEmpty());
         });
@@ -131,14 +178,30 @@ public class FileImportController {
         if (ngramNValueSlider != null && ngramNValueLabel != null) {
             ngramNValueSlider.valueProperty().addListener((obs, oldVal, newVal) -> {
                 ngramNValueLabel.setText(String.valueOf(newVal.intValue()));
+                // Keep the range non-empty
+                if (ngramMinNSlider != null && ngramMinNSlider.getValue() > newVal.doubleValue()) {
+                    ngramMinNSlider.setValue(newVal.doubleValue());
+                }
             });
             ngramNValueSlider.setDisable(true);
         }
+        if (ngramMinNSlider != null && ngramMinNLabel != null) {
+            ngramMinNSlider.valueProperty().addListener((obs, oldVal, newVal) -> {
+                ngramMinNLabel.setText(String.valueOf(newVal.intValue()));
+                if (ngramNValueSlider != null && ngramNValueSlider.getValue() < newVal.doubleValue()) {
+                    ngramNValueSlider.setValue(newVal.doubleValue());
+                }
+            });
+            ngramMinNSlider.setDisable(true);
+        }
 
         // Link checkbox to slider activation
         if (processNGramsCheckBox != null && ngramNValueSlider != null) {
             processNGramsCheckBox.selectedProperty().addListener((obs, oldVal, newVal) -> {
                 ngramNValueSlider.setDisable(!newVal);
+                if (ngramMinNSlider != null) {
+                    ngramMinNSlider.setDisable(!newVal);
+                }
             });
         }
 
@@ -195,6 +258,18 @@ public class FileImportController {
             }
             return new SimpleStringProperty("");
         });
+
+        // Recorded by pipeline imports only; batch and older rows stay blank
+        if (throughputColumn != null) {
+            throughputColumn.setCellValueFactory(cellData -> {
+                ImportedFile file = cellData.getValue();
+                if (file.getElapsedMillis() == 0) {
+                    return new SimpleStringProperty("");
+                }
+                return new SimpleStringProperty(String.format("%.0f tokens/s, %.1f s",
+                        file.getTokensPerSecond(), file.getElapsedMillis() / 1000.0));
+            });
+        }
     }
 
     /**
@@ -213,16 +288,27 @@ public class FileImportController {
     @FXML
     private void handleBrowse() {
         FileChooser fileChooser = new FileChooser();
-        fileChooser.setTitle("Select Text File");
+        fileChooser.setTitle("Select Text Files");
         fileChooser.getExtensionFilters().addAll(
                 new FileChooser.ExtensionFilter("Text Files", "*.txt"),
                 new FileChooser.ExtensionFilter("PDF Files", "*.pdf"),
-                new FileChooser.ExtensionFilter("Word Documents", "*.doc", "*.docx"),
+                new FileChooser.ExtensionFilter("Word Documents", "*.docx"),
+                new FileChooser.ExtensionFilter("Compressed Text", "*.gz", "*.bz2", "*.zip"),
                 new FileChooser.ExtensionFilter("All Files", "*.*")
         );
 
-        File selectedFile = fileChooser.showOpenDialog(browseButton.getScene().getWindow());
-        if (selectedFile != null) {
+        List<File> selectedFiles = fileChooser.showOpenMultipleDialog(browseButton.getScene().getWindow());
+        if (selectedFiles != null && selectedFiles.size() > 1) {
+            // Several files go to the job queue; the field shows a summary
+            batchSelection = new ArrayList<>();
+            for (File file : selectedFiles) {
+                batchSelection.add(file.toPath().toAbsolutePath());
+            }
+            batchSelectionLabel = String.format("%d files selected", batchSelection.size());
+            filePathField.setText(batchSelectionLabel);
+            statusLabel.setText(batchSelectionLabel + " - they will be imported as a batch");
+        } else if (selectedFiles != null && !selectedFiles.isEmpty()) {
+            File selectedFile = selectedFiles.get(0);
             String absolutePath = selectedFile.getAbsolutePath();
             filePathField.setText(absolutePath);
 
@@ -236,6 +322,23 @@ public class FileImportController {
         }
     }
 
+    /**
+     * Responds to the browse folder button. Every supported file in the
+     * chosen directory and its subdirectories is imported as one batch.
+     */
+    @FXML
+    private void handleBrowseFolder() {
+        DirectoryChooser directoryChooser = new DirectoryChooser();
+        directoryChooser.setTitle("Select Folder to Import");
+
+        File selectedDirectory = directoryChooser.showDialog(browseButton.getScene().getWindow());
+        if (selectedDirectory != null) {
+            filePathField.setText(selectedDirectory.getAbsolutePath());
+            statusLabel.setText("Folder selected: " + selectedDirectory.getAbsolutePath()
+                    + " - supported files will be imported as a batch");
+        }
+    }
+
     /**
      * Executes the training data processing workflow when import is requested.
      *
@@ -268,6 +371,13 @@ public class FileImportController {
             return;
         }
 
+        // Several files, a folder or a zip archive go through the job queue instead
+        List<Path> batch = resolveBatch(filePath);
+        if (batch != null) {
+            startBatchImport(batch);
+            return;
+        }
+
         // Perform quick accessibility check on main thread
         Path path = Path.of(filePath);
         if (!FileUtils.isValidFile(path)) {
@@ -279,7 +389,7 @@ public class FileImportController {
         // Verify file size constraints
         try {
             if (!FileUtils.isAcceptableSize(path)) {
-                statusLabel.setText("Error: File size is too large or invalid");
+                statusLabel.setText("Error: File is empty");
                 importProgressBar.setProgress(0.0);
                 return;
             }
@@ -291,156 +401,358 @@ public class FileImportController {
 
         // Confirm format support
         if (!FileUtils.isSupportedFormat(path.getFileName().toString())) {
-            statusLabel.setText("Error: Unsupported file format. Supported formats: .txt, .pdf, .doc, .docx");
+            statusLabel.setText("Error: Unsupported file format. Supported formats: .txt, .pdf, .docx, "
+                    + "and .txt compressed as .gz, .bz2 or .zip");
             importProgressBar.setProgress(0.0);
             return;
         }
 
         // Capture N-gram configuration before background processing
-        final boolean processNGrams = processNGramsCheckBox != null && processNGramsCheckBox.isSelected();
-        final int nValue = processNGrams && ngramNValueSlider != null ? (int) ngramNValueSlider.getValue() : 3;
+        final ImportOptions options = currentImportOptions();
 
         // Establish background processing task
         currentImportTask = new Task<Void>() {
+
+            private String staleNote = "";
+
             @Override
             protected Void call() throws Exception {
-                updateMessage("Importing file from: " + path.toAbsolutePath().toString());
-                updateProgress(0.1, 1.0);
-
-                // Extract and normalize content for algorithm training
-                updateMessage("Reading file...");
-                String text = textProcessingService.extractText(path);
-                String cleanedText = textProcessingService.cleanText(text);
-                updateProgress(0.2, 1.0);
                 /**
-                 * Splits text into sentences for alogorithms to generate text
-                 * within the necessary boundaries
+                 * The file's history row is created (or, for an interrupted
+                 * import, reused) up front. Counts are committed in batches
+                 * together with a checkpoint in that row, so a failure only
+                 * loses the batch in progress and the next import of the same
+                 * file resumes from the checkpoint without double counting.
                  */
-                updateMessage("Tokenizing text...");
-                java.util.List<String> sentences = textProcessingService.tokenizeSentences(cleanedText);
-                updateProgress(0.3, 1.0);
+                updateMessage("Checking for previous imports of this content...");
+                String contentHash = FileUtils.contentHash(path);
+                if (cancelRequested) {
+                    throw new CancellationException("Import cancelled");
+                }
+                if (!options.isAllowDuplicates()) {
+                    ImportedFile duplicate = databaseService.findCompletedImportByHash(contentHash);
+                    if (duplicate != null) {
+                        updateProgress(1.0, 1.0);
+                        updateMessage(String.format("Skipped: identical content was already imported from %s "
+                                + "(tick \"Re-import duplicates\" to import it again)", duplicate.getFilePath()));
+                        return null;
+                    }
+                }
 
-                /**
-                 * Sentence analysis for Markov model training Extracts word
-                 * pairs and transition frequencies to establish the statistical
-                 * framework for Markov text generation
-                 */
-                updateMessage("Processing words and word pairs...");
-                int totalWords = 0;
-                int sentenceCount = sentences.size();
-                int processedSentences = 0;
-
-                if (sentenceCount == 0) {
-                    updateMessage("Warning: No sentences found in file");
-                    updateProgress(0.8, 1.0);
-                } else {
-                    for (String sentence : sentences) {
-                        java.util.List<String> words = textProcessingService.tokenizeWords(sentence);
-                        if (words.isEmpty()) {
-                            processedSentences++;
-                            continue;
-                        }
-                        /**
-                         * Record initiial word for Markov algorithm's reference
-                         * Gives the generator a natural starting point for
-                         * sentence generation
-                         */
-                        String firstWord = words.get(0).toLowerCase();
-                        databaseService.incrementWordCount(firstWord, true, false);
-                        totalWords++;
-
-                        /**
-                         * Record intermediate words and extract pairings Helps
-                         * establish the transition probability matric for
-                         * Markov Alrogithm Each pair (word1, word2) represents
-                         * a possible state transition The generator uses
-                         * weighted randomization based on occurrence counts to
-                         * select next words
-                         */
-                        for (int i = 0; i < words.size() - 1; i++) {
-                            String word1 = words.get(i).toLowerCase();
-                            String word2 = words.get(i + 1).toLowerCase();
-
-                            databaseService.incrementWordCount(word1, false, false);
-                            databaseService.incrementWordPairCount(word1, word2);
-                            totalWords++;
-                        }
-                        /**
-                         * Record final word in sentence to close sequence
-                         * Critical for coherent sentence generation
-                         */
-                        if (words.size() > 1) {
-                            String lastWord = words.get(words.size() - 1).toLowerCase();
-                            databaseService.incrementWordCount(lastWord, false, true);
-                            totalWords++;
-                        }
-
-                        processedSentences++;
-                        // Report progress based on sentence completion
-                        if (sentenceCount > 0) {
-                            double progress = 0.3 + (0.5 * processedSentences / sentenceCount);
-                            updateProgress(progress, 1.0);
-                            updateMessage(String.format("Processing sentences: %d/%d", processedSentences, sentenceCount));
-                        }
+                ImportedFile record = prepareRecord(contentHash);
+                try (UnitOfWork unitOfWork = databaseService.beginUnitOfWork()) {
+                    importFile(unitOfWork, record);
+                } catch (Exception e) {
+                    recordFailedImport(record, path, e);
+                    throw e;
+                }
+                return null;
+            }
+
+            private ImportedFile prepareRecord(String contentHash) throws Exception {
+                // A checkpoint of the same content resumes, even if the file was moved or copied
+                ImportedFile record = databaseService.findResumableImport(path.toAbsolutePath().toString(),
+                        contentHash);
+                if (record != null && contentHash.equals(record.getContentHash())) {
+                    String checkpointOptions = record.getImportOptions();
+                    if (checkpointOptions != null && !checkpointOptions.equals(options.describeCounting())) {
+                        throw new IllegalStateException(String.format("Cannot resume: the %d committed batches "
+                                + "of this file were imported with %s, not %s. Import it again with those settings "
+                                + "to finish it.", record.getCommittedBatches(), checkpointOptions,
+                                options.describeCounting()));
                     }
+                    record.setFilename(path.getFileName().toString());
+                    record.setFilePath(path.toAbsolutePath().toString());
+                    record.setImportOptions(options.describeCounting());
+                    record.markAsProcessing();
+                    record.setErrorMessage(null);
+                    databaseService.updateImportedFile(record);
+                    return record;
+                }
+                if (record != null) {
+                    // The file changed since its checkpoint, so its committed part cannot be resumed
+                    staleNote = String.format(" [WARNING: %d words committed by an unfinished import of an "
+                            + "earlier version of this file remain in the counts]", record.getWordCount());
                 }
 
-                updateProgress(0.8, 1.0);
+                record = new ImportedFile(path.getFileName().toString(), path.toAbsolutePath().toString());
+                record.setContentHash(contentHash);
+                record.setImportOptions(options.describeCounting());
+                record.markAsProcessing();
+                return databaseService.saveImportedFile(record);
+            }
+
+            private void importFile(UnitOfWork unitOfWork, ImportedFile record) throws Exception {
+                String resumeNote = "";
+                if (record.getByteOffset() > 0) {
+                    resumeNote = String.format(" (resumed at %d KB after %d committed batches)",
+                            record.getByteOffset() / 1024, record.getCommittedBatches());
+                }
+                updateMessage("Importing file from: " + path.toAbsolutePath().toString() + resumeNote + staleNote);
+                updateProgress(0.0, 1.0);
 
                 /**
-                 * Updating n-value for N-gram process based on user selection
+                 * Reading, tokenizing/counting and database writes run as
+                 * separate pipeline stages so they overlap instead of running
+                 * one after another.
+                 *
                  * Higher N values (4-5) preserve more context - not really
                  * tested on small files Lower N values (2-3) function with
                  * smaller datasets - results will be less coherent
                  */
-                if (processNGrams) {
-                    updateMessage("Processing N-grams (N=" + nValue + ")...");
-                    ngramService.processAndStoreNGrams(cleanedText, nValue);
-                    updateProgress(0.9, 1.0);
+                ImportPipeline pipeline = new ImportPipeline(textProcessingService, databaseService, ngramService);
+                cancelAction = pipeline::cancel;
+                if (cancelRequested) {
+                    pipeline.cancel();
+                }
+                ImportPipeline.Result result = pipeline.run(unitOfWork, path, options, record,
+                        new ThrottledProgressListener((fraction, status) -> {
+                            updateProgress(fraction, 1.0);
+                            updateMessage(status);
+                            updateTitle(describeStages(pipeline.getStageMetrics()));
+                        }));
+                updateTitle(describeStages(result.getStageMetrics()));
+
+                String bulkNote = "";
+                if (result.getUsedLoadData() != null) {
+                    bulkNote = result.getUsedLoadData() ? " (bulk load)" : " (bulk load via batched inserts; LOCAL INFILE disabled)";
                 }
-
-                /**
-                 * Creates ImportedFile object to represent the imported file
-                 */
-                updateMessage("Saving file record...");
-                ImportedFile file = new ImportedFile(path.getFileName().toString(), path.toAbsolutePath().toString());
-                file.setWordCount(totalWords);
-                file.setStatus(ImportedFile.FileStatus.COMPLETED);
-                databaseService.saveImportedFile(file);
 
                 updateProgress(1.0, 1.0);
 
                 // Confirm file remains accessible post-import
                 boolean fileAccessible = FileUtils.isValidFile(path);
                 String message = String.format("File imported successfully: %s - %d words processed",
-                        path.getFileName().toString(), totalWords);
-                if (processNGrams) {
-                    message += String.format(" (N-grams N=%d)", nValue);
+                        path.getFileName().toString(), record.getWordCount());
+                if (options.isProcessNGrams()) {
+                    message += " (N-grams " + describeNRange(options) + ")";
+                }
+                message += bulkNote + resumeNote + staleNote;
+                message += " | " + slowestStage(result.getStageMetrics());
+                if (!result.getPhaseMetrics().isEmpty()) {
+                    message += " | " + describePhases(result.getPhaseMetrics());
                 }
                 if (!fileAccessible) {
                     message += " [WARNING: File location not accessible]";
                 }
                 updateMessage(message);
+            }
+        };
+
+        launchImportTask();
+    }
+
+    /**
+     * Works out whether the selection is a batch: a multi-file selection from
+     * the browse dialog, a directory path or a zip archive.
+     *
+     * @param filePath the text of the file path field
+     * @return the files to import as a batch, or null for a single file
+     */
+    private List<Path> resolveBatch(String filePath) {
+        if (batchSelection != null && filePath.equals(batchSelectionLabel)) {
+            return batchSelection;
+        }
+
+        Path path = Path.of(filePath);
+        if (FileUtils.isArchive(path.getFileName().toString()) && Files.isRegularFile(path)) {
+            // Each entry of the archive is a file of its own
+            return List.of(path);
+        }
+        if (!Files.isDirectory(path)) {
+            return null;
+        }
+        try (Stream<Path> files = Files.walk(path)) {
+            return files.filter(Files::isRegularFile)
+                    .filter(file -> FileUtils.isSupportedFormat(file.getFileName().toString()))
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            statusLabel.setText("Error: Cannot read folder: " + e.getMessage());
+            return List.of();
+        }
+    }
+
+    /**
+     * Queues a batch of files for import. Files that fail the same checks as
+     * a single import are skipped up front; the rest run through the
+     * ImportJobQueue, which records each file's status in the history table.
+     * A zip archive is expanded into its text entries, each imported as a
+     * separate file.
+     *
+     * @param selected the selected files
+     */
+    private void startBatchImport(List<Path> selected) {
+        List<Path> candidates = new ArrayList<>();
+        int skipped = 0;
+        for (Path file : selected) {
+            if (!FileUtils.isArchive(file.getFileName().toString())) {
+                candidates.add(file);
+                continue;
+            }
+            try {
+                candidates.addAll(FileUtils.listArchiveEntries(file));
+            } catch (IOException e) {
+                skipped++;
+            }
+        }
+
+        List<Path> paths = new ArrayList<>();
+        for (Path candidate : candidates) {
+            try {
+                if (FileUtils.isValidFile(candidate) && FileUtils.isAcceptableSize(candidate)
+                        && FileUtils.isSupportedFormat(candidate.getFileName().toString())) {
+                    paths.add(candidate);
+                    continue;
+                }
+            } catch (IOException e) {
+                // Counted as skipped below
+            }
+            skipped++;
+        }
 
+        if (paths.isEmpty()) {
+            statusLabel.setText("Error: No importable files selected"
+                    + (skipped > 0 ? " (" + skipped + " skipped)" : ""));
+            importProgressBar.setProgress(0.0);
+            return;
+        }
+
+        final ImportOptions options = currentImportOptions();
+        final int skippedFiles = skipped;
+
+        currentImportTask = new Task<Void>() {
+            @Override
+            protected Void call() throws Exception {
+                ImportJobQueue queue = new ImportJobQueue(textProcessingService, databaseService, ngramService);
+                cancelAction = queue::cancel;
+                if (cancelRequested) {
+                    queue.cancel();
+                }
+                updateMessage(String.format("Queued %d files (%d at a time)...", paths.size(), queue.getParallelJobs()));
+                updateProgress(0.0, 1.0);
+
+                ImportJobQueue.Summary summary = queue.run(paths, options,
+                        new ThrottledProgressListener((fraction, status) -> {
+                            updateProgress(fraction, 1.0);
+                            updateMessage(status);
+                        }));
+
+                String message = String.format("Batch import %s: %d of %d files imported, %d words processed",
+                        summary.isCancelled() ? "cancelled" : "finished",
+                        summary.getCompleted(), summary.getQueued(), summary.getTotalWords());
+                if (summary.getSkipped() > 0) {
+                    message += String.format(" - %d skipped as duplicates", summary.getSkipped());
+                }
+                if (summary.getFailed() > 0) {
+                    message += String.format(" - %d failed (see history)", summary.getFailed());
+                }
+                if (skippedFiles > 0) {
+                    message += String.format(" - %d skipped (unreadable, empty or unsupported)", skippedFiles);
+                }
+                if (!summary.getPhaseMetrics().isEmpty()) {
+                    message += " | " + describePhases(summary.getPhaseMetrics());
+                }
+                updateProgress(1.0, 1.0);
+                updateMessage(message);
                 return null;
             }
         };
 
+        launchImportTask();
+    }
+
+    /**
+     * Captures the N-gram, bulk-load and duplicate settings from the UI.
+     * Index deferral for bulk loads comes from application.properties.
+     *
+     * @return the import options
+     */
+    private ImportOptions currentImportOptions() {
+        boolean processNGrams = processNGramsCheckBox != null && processNGramsCheckBox.isSelected();
+        int maxN = processNGrams && ngramNValueSlider != null ? (int) ngramNValueSlider.getValue() : 3;
+        int minN = processNGrams && ngramMinNSlider != null ? (int) ngramMinNSlider.getValue() : maxN;
+        boolean bulkLoad = bulkLoadCheckBox != null && bulkLoadCheckBox.isSelected();
+        ImportOptions options = new ImportOptions(processNGrams, minN, maxN, bulkLoad);
+        options.setAllowDuplicates(allowDuplicatesCheckBox != null && allowDuplicatesCheckBox.isSelected());
+        options.setDeferIndexes(bulkLoad
+                && ConfigurationManager.getInstance().getBooleanProperty("import.bulk.defer.indexes", true));
+        return options;
+    }
+
+    /**
+     * Describes the N-gram orders an import extracts, such as "N=3" or
+     * "N=2-5".
+     *
+     * @param options the import options
+     * @return the N value or range
+     */
+    private String describeNRange(ImportOptions options) {
+        if (options.getMinNValue() == options.getMaxNValue()) {
+            return "N=" + options.getMaxNValue();
+        }
+        return "N=" + options.getMinNValue() + "-" + options.getMaxNValue();
+    }
+
+    /**
+     * Handles the cancel button: asks the running import to stop. The import
+     * stops at its next chunk or file; work that was not committed yet is
+     * rolled back, and committed batches are kept so the file can be resumed.
+     */
+    @FXML
+    private void handleCancel() {
+        if (currentImportTask == null) {
+            return;
+        }
+        cancelRequested = true;
+        Runnable action = cancelAction;
+        if (action != null) {
+            action.run();
+        }
+        cancelButton.setDisable(true);
+    }
+
+    /**
+     * Binds the current import task to the progress controls, locks the
+     * selection controls while it runs and starts it on a background thread.
+     */
+    private void launchImportTask() {
+        cancelAction = null;
+        cancelRequested = false;
+
         // Connect UI elements to task state
         statusLabel.textProperty().bind(currentImportTask.messageProperty());
         importProgressBar.progressProperty().bind(currentImportTask.progressProperty());
+        if (metricsLabel != null) {
+            metricsLabel.textProperty().bind(currentImportTask.titleProperty());
+        }
 
         // Lock controls during processing
         importButton.setDisable(true);
         browseButton.setDisable(true);
+        if (browseFolderButton != null) {
+            browseFolderButton.setDisable(true);
+        }
+        if (cancelButton != null) {
+            cancelButton.setDisable(false);
+        }
 
         // Configure success handling
         currentImportTask.setOnSucceeded(e -> {
             Platform.runLater(() -> {
                 statusLabel.textProperty().unbind();
                 importProgressBar.progressProperty().unbind();
+                if (metricsLabel != null) {
+                    metricsLabel.textProperty().unbind();
+                }
                 importButton.setDisable(false);
                 browseButton.setDisable(false);
+                if (browseFolderButton != null) {
+                    browseFolderButton.setDisable(false);
+                }
+                if (cancelButton != null) {
+                    cancelButton.setDisable(true);
+                }
 
                 // Update history display
                 refreshHistory();
@@ -450,22 +762,37 @@ public class FileImportController {
         });
 
         // Configure failure handling
+        Task<Void> task = currentImportTask;
         currentImportTask.setOnFailed(e -> {
             Platform.runLater(() -> {
                 statusLabel.textProperty().unbind();
                 importProgressBar.progressProperty().unbind();
+                if (metricsLabel != null) {
+                    metricsLabel.textProperty().unbind();
+                }
                 importButton.setDisable(false);
                 browseButton.setDisable(false);
+                if (browseFolderButton != null) {
+                    browseFolderButton.setDisable(false);
+                }
+                if (cancelButton != null) {
+                    cancelButton.setDisable(true);
+                }
 
-                Throwable exception = currentImportTask.getException();
+                Throwable exception = task.getException();
                 String errorMessage = "Import failed: "
                         + (exception != null ? exception.getMessage() : "Unknown error");
+                if (exception instanceof CancellationException) {
+                    errorMessage = "Import cancelled - uncommitted work was rolled back; "
+                            + "import the file again to resume from its last checkpoint";
+                }
                 statusLabel.setText(errorMessage);
                 importProgressBar.setProgress(0.0);
+                refreshHistory();
             });
 
-            Throwable exception = currentImportTask.getException();
-            if (exception != null) {
+            Throwable exception = task.getException();
+            if (exception != null && !(exception instanceof CancellationException)) {
                 exception.printStackTrace();
             }
 
@@ -473,9 +800,73 @@ public class FileImportController {
         });
 
         // Launch background processing
-        Thread importThread = new Thread(currentImportTask);
-        importThread.setDaemon(true);
-        importThread.start();
+        BackgroundExecutor.getInstance().execute(currentImportTask);
+    }
+
+    /**
+     * Describes every pipeline stage on one line: throughput, busy share, CPU
+     * time, and token or statement rates where the stage has them.
+     *
+     * @param metrics the stage metrics of a running or finished import
+     * @return per-stage summary
+     */
+    private String describeStages(List<StageMetrics> metrics) {
+        return metrics.stream().map(StageMetrics::toString).collect(Collectors.joining(" | "));
+    }
+
+    /**
+     * Describes the wall time of each phase of a bulk load that deferred
+     * its secondary indexes, such as "drop indexes 40 ms, load 5200 ms,
+     * rebuild indexes 900 ms".
+     *
+     * @param phases the phase metrics of a finished import
+     * @return per-phase timings
+     */
+    private String describePhases(List<StageMetrics> phases) {
+        return phases.stream()
+                .map(phase -> phase.getName() + " " + phase.getBusyMillis() + " ms")
+                .collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Describes the pipeline stage that was busy the largest share of its
+     * lifetime, which is the one limiting import throughput.
+     *
+     * @param metrics the stage metrics of a finished import
+     * @return summary naming the bottleneck stage
+     */
+    private String slowestStage(List<StageMetrics> metrics) {
+        StageMetrics slowest = null;
+        for (StageMetrics stage : metrics) {
+            if (slowest == null || stage.getUtilization() > slowest.getUtilization()) {
+                slowest = stage;
+            }
+        }
+        return slowest == null ? "" : "bottleneck " + slowest;
+    }
+
+    /**
+     * Records a failed import in the history table. Runs on a separate
+     * auto-committed connection; the checkpoint columns are left alone so
+     * the committed part of the import can still be resumed.
+     *
+     * @param record the file's history row, or null if it was never created
+     * @param path the file that failed to import
+     * @param cause the failure
+     */
+    private void recordFailedImport(ImportedFile record, Path path, Exception cause) {
+        try {
+            if (record != null && record.getFileId() > 0) {
+                record.markAsFailed(cause.getMessage());
+                databaseService.updateImportedFile(record);
+            } else {
+                ImportedFile file = new ImportedFile(path.getFileName().toString(), path.toAbsolutePath().toString());
+                file.markAsFailed(cause.getMessage());
+                databaseService.saveImportedFile(file);
+            }
+        } catch (Exception e) {
+            System.err.println("Failed to record failed import: " + e.getMessage());
+        }
     }
 
     /**
@@ -1,7 +1,9 @@
 package edu.utdallas.cs4485.sentencebuilder.controller;
 
 import edu.utdallas.cs4485.sentencebuilder.model.GenerationResult;
+import edu.utdallas.cs4485.sentencebuilder.service.BackgroundExecutor;
 import edu.utdallas.cs4485.sentencebuilder.service.MarkovChainService;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
@@ -11,6 +13,7 @@ import javafx.scene.control.Slider;
 import javafx.scene.control.TextArea;
 import javafx.scene.control.TextField;
 import javafx.scene.control.ToggleGroup;
+import javafx.scene.control.Tooltip;
 
 /**
  *
@@ -27,6 +30,10 @@ import javafx.scene.control.ToggleGroup;
  * generation process. The autocomplete feature uses word frequency and context to
  * suggest likely next words.
  *
+ * Generation and suggestion lookups read the database, so they run on the
+ * shared BackgroundExecutor and report back on the JavaFX thread. Suggestions
+ * from a lookup that a later keystroke has superseded are discarded.
+ *
  * @author Caedon Ewing
  */
 public class TextGeneratorController {
@@ -79,6 +86,7 @@ public class TextGeneratorController {
     private MarkovChainService markovChainService;
     private edu.utdallas.cs4485.sentencebuilder.service.NGramService ngramService;
     private edu.utdallas.cs4485.sentencebuilder.service.AutoCompleteService autoCompleteService;
+    private long suggestionRequest;
 
     /**
      * Constructor.
@@ -141,26 +149,38 @@ public class TextGeneratorController {
      * Updates autocomplete suggestions based on the current text.
      */
     private void updateAutocompleteSuggestions(String text) {
+        long request = ++suggestionRequest;
         if (text == null || text.trim().isEmpty()) {
             suggestionsList.getItems().clear();
             autocompleteStatusLabel.setText("");
             return;
         }
 
-        try {
-            boolean useNGram = ngramRadio != null && ngramRadio.isSelected();
-            int n = 2; // Default to bigram
+        boolean useNGram = ngramRadio != null && ngramRadio.isSelected();
+        int n = 2; // Default to bigram
 
-            if (useNGram && nValueSlider != null) {
-                n = (int) nValueSlider.getValue();
-            } else if (secondOrderRadio.isSelected()) {
-                n = 2;
-            } else {
-                n = 1;
-            }
+        if (useNGram && nValueSlider != null) {
+            n = (int) nValueSlider.getValue();
+        } else if (secondOrderRadio.isSelected()) {
+            n = 2;
+        } else {
+            n = 1;
+        }
 
-            java.util.List<String> suggestions = autoCompleteService.getSuggestions(text, n, 10);
+        final int order = n;
+        Task<java.util.List<String>> task = new Task<>() {
+            @Override
+            protected java.util.List<String> call() {
+                return autoCompleteService.getSuggestions(text, order, 10);
+            }
+        };
 
+        task.setOnSucceeded(event -> {
+            // A later keystroke has already started a newer lookup
+            if (request != suggestionRequest) {
+                return;
+            }
+            java.util.List<String> suggestions = task.getValue();
             suggestionsList.getItems().clear();
             suggestionsList.getItems().addAll(suggestions);
 
@@ -169,10 +189,16 @@ public class TextGeneratorController {
             } else {
                 autocompleteStatusLabel.setText(suggestions.size() + " suggestions");
             }
+            autocompleteStatusLabel.setTooltip(new Tooltip(autoCompleteService.getCacheStatistics()));
+        });
 
-        } catch (Exception e) {
-            autocompleteStatusLabel.setText("Error: " + e.getMessage());
-        }
+        task.setOnFailed(event -> {
+            if (request == suggestionRequest) {
+                autocompleteStatusLabel.setText("Error: " + task.getException().getMessage());
+            }
+        });
+
+        BackgroundExecutor.getInstance().execute(task);
     }
 
     /**
@@ -181,44 +207,55 @@ public class TextGeneratorController {
     @FXML
     private void handleGenerate() {
         // TODO: Implement text generation
-        try {
-            String startWord = startWordField.getText().trim();
-            int maxWords = (int) wordCountSlider.getValue();
-            boolean useSecondOrder = secondOrderRadio.isSelected();
-            boolean useNGram = ngramRadio != null && ngramRadio.isSelected();
-
-            statusLabel.setText("Generating text...");
-
-            GenerationResult result;
-
-            if (useNGram) {
-                // Use N-gram generation
-                int nValue = nValueSlider != null ? (int) nValueSlider.getValue() : 3;
-                result = ngramService.generateText(
-                        startWord.isEmpty() ? null : startWord,
-                        maxWords,
-                        nValue
-                );
-            } else {
+        // Capture the settings on the JavaFX thread before moving to the background
+        String startWord = startWordField.getText().trim();
+        int maxWords = (int) wordCountSlider.getValue();
+        boolean useSecondOrder = secondOrderRadio.isSelected();
+        boolean useNGram = ngramRadio != null && ngramRadio.isSelected();
+        int nValue = nValueSlider != null ? (int) nValueSlider.getValue() : 3;
+
+        statusLabel.setText("Generating text...");
+        generateButton.setDisable(true);
+
+        Task<GenerationResult> task = new Task<>() {
+            @Override
+            protected GenerationResult call() throws Exception {
+                if (useNGram) {
+                    // Use N-gram generation
+                    return ngramService.generateText(
+                            startWord.isEmpty() ? null : startWord,
+                            maxWords,
+                            nValue
+                    );
+                }
                 // Use Markov chain generation
-                result = markovChainService.generateText(
+                return markovChainService.generateText(
                         startWord.isEmpty() ? null : startWord,
                         maxWords,
                         useSecondOrder
                 );
             }
+        };
 
+        task.setOnSucceeded(event -> {
+            GenerationResult result = task.getValue();
             outputArea.setText(result.getGeneratedText());
             statusLabel.setText(String.format("Generated %d words in %.2f seconds using %s",
                     result.getWordCount(),
                     result.getDurationSeconds(),
                     result.getAlgorithm()));
+            generateButton.setDisable(false);
+        });
 
-        } catch (Exception e) {
+        task.setOnFailed(event -> {
+            Throwable e = task.getException();
             statusLabel.setText("Error: " + e.getMessage());
             outputArea.setText("Generation failed. Please ensure training data has been imported.");
             e.printStackTrace();
-        }
+            generateButton.setDisable(false);
+        });
+
+        BackgroundExecutor.getInstance().execute(task);
     }
 
     /**
@@ -0,0 +1,362 @@
+package edu.utdallas.cs4485.sentencebuilder.dao;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import edu.utdallas.cs4485.sentencebuilder.algorithm.CorpusCounter;
+
+/**
+ *
+ * Data Access Object for the bulk-load import path. Moves pre-aggregated word,
+ * word pair and N-gram counts into the database with a handful of set-based
+ * statements instead of one lookup and one write per token.
+ *
+ * Counts are written to tab-separated files in a private staging directory and
+ * loaded into per-connection temporary staging tables with LOAD DATA LOCAL
+ * INFILE. INSERT ... SELECT ... ON DUPLICATE KEY UPDATE statements then
+ * merge the staging rows into words, word_pairs and ngrams, and their sums
+ * into the context totals, adding to any counts that are already there.
+ * N-gram contexts are staged as separate word columns and resolved to
+ * ngram_contexts rows by joining on the words table.
+ *
+ * Servers (or drivers) that refuse LOCAL INFILE are detected on the first
+ * attempt; the staging tables are then filled with batched multi-row inserts
+ * instead and the merge step is unchanged. All work runs inside the caller's
+ * unit of work, so the bulk path keeps the same all-or-nothing behavior as a
+ * regular import.
+ *
+ * @author Manraj Singh
+ */
+public class BulkLoadDAO {
+
+    /**
+     * Directory the staging files are written to. The connection pool only
+     * allows LOAD DATA LOCAL INFILE for files inside this directory.
+     */
+    public static final Path STAGING_DIRECTORY = Path.of(System.getProperty("java.io.tmpdir"), "sentence-builder-bulk");
+
+    private static final int INSERT_BATCH_SIZE = 1000;
+
+    // MySQL error codes meaning LOCAL INFILE is disabled on the client or server
+    private static final int ER_NOT_ALLOWED_COMMAND = 1148;
+    private static final int ER_CLIENT_LOCAL_FILES_DISABLED = 3948;
+    private static final int CR_LOAD_DATA_LOCAL_INFILE_REJECTED = 2068;
+
+    private static final String[] CREATE_STAGING_SQL = {
+        "CREATE TEMPORARY TABLE staging_words ("
+        + "word_text VARCHAR(255) NOT NULL, total_count INT NOT NULL, "
+        + "sentence_start_count INT NOT NULL, sentence_end_count INT NOT NULL"
+        + ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci",
+        "CREATE TEMPORARY TABLE staging_word_pairs ("
+        + "first_word_text VARCHAR(255) NOT NULL, second_word_text VARCHAR(255) NOT NULL, "
+        + "transition_count INT NOT NULL"
+        + ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci",
+        "CREATE TEMPORARY TABLE staging_ngrams ("
+        + "n INT NOT NULL, word1_text VARCHAR(255) NOT NULL, word2_text VARCHAR(255) NOT NULL, "
+        + "word3_text VARCHAR(255) NOT NULL, word4_text VARCHAR(255) NOT NULL, word5_text VARCHAR(255) NOT NULL, "
+        + "next_word_text VARCHAR(255) NOT NULL, transition_count INT NOT NULL"
+        + ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci",
+        "CREATE TEMPORARY TABLE staging_ngram_words ("
+        + "word_text VARCHAR(255) NOT NULL"
+        + ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci"
+    };
+
+    private static final String DROP_STAGING_SQL
+            = "DROP TEMPORARY TABLE IF EXISTS staging_words, staging_word_pairs, staging_ngrams, staging_ngram_words";
+
+    private static final String MERGE_WORDS_SQL = "INSERT INTO words (word_text, total_count, sentence_start_count, sentence_end_count) "
+            + "SELECT s.word_text, s.total_count, s.sentence_start_count, s.sentence_end_count FROM staging_words s "
+            + "ON DUPLICATE KEY UPDATE total_count = words.total_count + s.total_count, "
+            + "sentence_start_count = words.sentence_start_count + s.sentence_start_count, "
+            + "sentence_end_count = words.sentence_end_count + s.sentence_end_count";
+
+    // Context-only words start at zero counts, as WordDAO creates them
+    private static final String MERGE_NGRAM_WORDS_SQL = "INSERT INTO words (word_text) "
+            + "SELECT DISTINCT s.word_text FROM staging_ngram_words s "
+            + "LEFT JOIN words w ON w.word_text = s.word_text "
+            + "WHERE w.word_id IS NULL";
+
+    private static final String MERGE_PAIRS_SQL = "INSERT INTO word_pairs (first_word_id, second_word_id, transition_count) "
+            + "SELECT w1.word_id, w2.word_id, s.transition_count FROM staging_word_pairs s "
+            + "JOIN words w1 ON w1.word_text = s.first_word_text "
+            + "JOIN words w2 ON w2.word_text = s.second_word_text "
+            + "ON DUPLICATE KEY UPDATE transition_count = word_pairs.transition_count + s.transition_count";
+
+    // Resolves a staged context to word IDs; unused positions are staged as '' and map to 0
+    private static final String STAGED_CONTEXT_IDS = "JOIN words w1 ON w1.word_text = s.word1_text "
+            + "LEFT JOIN words w2 ON w2.word_text = s.word2_text "
+            + "LEFT JOIN words w3 ON w3.word_text = s.word3_text "
+            + "LEFT JOIN words w4 ON w4.word_text = s.word4_text "
+            + "LEFT JOIN words w5 ON w5.word_text = s.word5_text "
+            + "JOIN words w ON w.word_text = s.next_word_text ";
+
+    private static final String MERGE_NGRAM_CONTEXTS_SQL = "INSERT INTO ngram_contexts "
+            + "(n, word1_id, word2_id, word3_id, word4_id, word5_id, total_count) "
+            + "SELECT d.n, d.word1_id, d.word2_id, d.word3_id, d.word4_id, d.word5_id, d.total FROM ("
+            + "SELECT s.n, w1.word_id AS word1_id, COALESCE(w2.word_id, 0) AS word2_id, "
+            + "COALESCE(w3.word_id, 0) AS word3_id, COALESCE(w4.word_id, 0) AS word4_id, "
+            + "COALESCE(w5.word_id, 0) AS word5_id, SUM(s.transition_count) AS total FROM staging_ngrams s "
+            + STAGED_CONTEXT_IDS
+            + "GROUP BY s.n, word1_id, word2_id, word3_id, word4_id, word5_id) d "
+            + "ON DUPLICATE KEY UPDATE total_count = ngram_contexts.total_count + d.total";
+
+    private static final String MERGE_NGRAMS_SQL = "INSERT INTO ngrams (context_id, next_word_id, transition_count) "
+            + "SELECT c.context_id, w.word_id, s.transition_count FROM staging_ngrams s "
+            + STAGED_CONTEXT_IDS
+            + "JOIN ngram_contexts c ON c.n = s.n AND c.word1_id = w1.word_id "
+            + "AND c.word2_id = COALESCE(w2.word_id, 0) AND c.word3_id = COALESCE(w3.word_id, 0) "
+            + "AND c.word4_id = COALESCE(w4.word_id, 0) AND c.word5_id = COALESCE(w5.word_id, 0) "
+            + "ON DUPLICATE KEY UPDATE transition_count = ngrams.transition_count + s.transition_count";
+
+    private static final String MERGE_PAIR_TOTALS_SQL = "INSERT INTO pair_context_totals (first_word_id, total_count) "
+            + "SELECT d.first_word_id, d.total FROM ("
+            + "SELECT w1.word_id AS first_word_id, SUM(s.transition_count) AS total FROM staging_word_pairs s "
+            + "JOIN words w1 ON w1.word_text = s.first_word_text "
+            + "JOIN words w2 ON w2.word_text = s.second_word_text "
+            + "GROUP BY w1.word_id) d "
+            + "ON DUPLICATE KEY UPDATE total_count = pair_context_totals.total_count + d.total";
+
+    private static volatile boolean localInfileAvailable = true;
+
+    /**
+     * Stages and merges the given counts as part of a unit of work. Nothing is
+     * committed here.
+     *
+     * @param unitOfWork the active unit of work
+     * @param counts the aggregated counts to add to the database
+     * @return true if LOAD DATA LOCAL INFILE was used, false if the batched
+     * insert fallback was used
+     * @throws SQLException if database error occurs
+     * @throws IOException if a staging file cannot be written
+     */
+    public boolean load(UnitOfWork unitOfWork, CorpusCounter counts) throws SQLException, IOException {
+        boolean usedLoadData = localInfileAvailable;
+
+        try (Statement stmt = unitOfWork.getConnection().createStatement()) {
+            stmt.execute(DROP_STAGING_SQL);
+            for (String sql : CREATE_STAGING_SQL) {
+                stmt.execute(sql);
+            }
+
+            usedLoadData &= stage(unitOfWork, "staging_words",
+                    "word_text, total_count, sentence_start_count, sentence_end_count", 4,
+                    sink -> {
+                        for (Map.Entry<String, CorpusCounter.WordStats> entry : counts.getWordCounts().entrySet()) {
+                            CorpusCounter.WordStats stats = entry.getValue();
+                            sink.accept(entry.getKey(), stats.getTotalCount(),
+                                    stats.getSentenceStartCount(), stats.getSentenceEndCount());
+                        }
+                    });
+
+            usedLoadData &= stage(unitOfWork, "staging_word_pairs",
+                    "first_word_text, second_word_text, transition_count", 3,
+                    sink -> {
+                        for (Map.Entry<String, Map<String, Integer>> first : counts.getPairCounts().entrySet()) {
+                            for (Map.Entry<String, Integer> second : first.getValue().entrySet()) {
+                                sink.accept(first.getKey(), second.getKey(), second.getValue());
+                            }
+                        }
+                    });
+
+            usedLoadData &= stage(unitOfWork, "staging_ngrams",
+                    "n, word1_text, word2_text, word3_text, word4_text, word5_text, next_word_text, transition_count", 8,
+                    sink -> {
+                        for (Map.Entry<Integer, Map<String, Map<String, Integer>>> order : counts.getNGramCounts().entrySet()) {
+                            for (Map.Entry<String, Map<String, Integer>> context : order.getValue().entrySet()) {
+                                String[] words = stagedContext(context.getKey());
+                                for (Map.Entry<String, Integer> next : context.getValue().entrySet()) {
+                                    sink.accept(order.getKey(), words[0], words[1], words[2], words[3], words[4],
+                                            next.getKey(), next.getValue());
+                                }
+                            }
+                        }
+                    });
+
+            usedLoadData &= stage(unitOfWork, "staging_ngram_words", "word_text", 1,
+                    sink -> {
+                        for (String word : ngramWords(counts)) {
+                            sink.accept(word);
+                        }
+                    });
+
+            // Set-based merge; words first so the joins below can resolve IDs
+            unitOfWork.executeUpdate(stmt, MERGE_WORDS_SQL);
+            unitOfWork.executeUpdate(stmt, MERGE_NGRAM_WORDS_SQL);
+            unitOfWork.executeUpdate(stmt, MERGE_PAIRS_SQL);
+            unitOfWork.executeUpdate(stmt, MERGE_NGRAM_CONTEXTS_SQL);
+            unitOfWork.executeUpdate(stmt, MERGE_NGRAMS_SQL);
+            unitOfWork.executeUpdate(stmt, MERGE_PAIR_TOTALS_SQL);
+
+            stmt.execute(DROP_STAGING_SQL);
+        }
+
+        return usedLoadData;
+    }
+
+    /**
+     * Checks whether LOAD DATA LOCAL INFILE is believed to be available. Set
+     * to false after the first rejection so later imports skip the attempt.
+     *
+     * @return true if LOCAL INFILE has not been rejected
+     */
+    public static boolean isLocalInfileAvailable() {
+        return localInfileAvailable;
+    }
+
+    /**
+     * Fills one staging table, preferring LOAD DATA LOCAL INFILE and falling
+     * back to batched inserts.
+     *
+     * @return true if LOAD DATA was used
+     */
+    private boolean stage(UnitOfWork unitOfWork, String table, String columns, int columnCount,
+            RowSource rows) throws SQLException, IOException {
+        if (localInfileAvailable) {
+            Files.createDirectories(STAGING_DIRECTORY);
+            Path file = Files.createTempFile(STAGING_DIRECTORY, table, ".tsv");
+            try {
+                try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                    rows.forEach(values -> writeTsvRow(writer, values));
+                }
+
+                String sql = "LOAD DATA LOCAL INFILE '" + escapePath(file) + "' "
+                        + "INTO TABLE " + table + " CHARACTER SET utf8mb4 "
+                        + "FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\' LINES TERMINATED BY '\\n' "
+                        + "(" + columns + ")";
+                try (Statement stmt = unitOfWork.getConnection().createStatement()) {
+                    unitOfWork.executeUpdate(stmt, sql);
+                    return true;
+                } catch (SQLException e) {
+                    if (!isLocalInfileRejected(e)) {
+                        throw e;
+                    }
+                    System.err.println("LOAD DATA LOCAL INFILE rejected, using batched inserts: " + e.getMessage());
+                    localInfileAvailable = false;
+                }
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+
+        insertBatched(unitOfWork, table, columns, columnCount, rows);
+        return false;
+    }
+
+    /**
+     * Fills a staging table with batched multi-row inserts.
+     */
+    private void insertBatched(UnitOfWork unitOfWork, String table, String columns, int columnCount,
+            RowSource rows) throws SQLException, IOException {
+        StringBuilder placeholders = new StringBuilder();
+        for (int i = 0; i < columnCount; i++) {
+            placeholders.append(i == 0 ? "?" : ", ?");
+        }
+        String sql = "INSERT INTO " + table + " (" + columns + ") VALUES (" + placeholders + ")";
+
+        PreparedStatement stmt = unitOfWork.prepare(sql);
+        int[] pending = {0};
+        rows.forEach(values -> {
+            for (int i = 0; i < values.length; i++) {
+                stmt.setObject(i + 1, values[i]);
+            }
+            stmt.addBatch();
+            if (++pending[0] >= INSERT_BATCH_SIZE) {
+                unitOfWork.executeBatch(stmt);
+                pending[0] = 0;
+            }
+        });
+        if (pending[0] > 0) {
+            unitOfWork.executeBatch(stmt);
+        }
+    }
+
+    /**
+     * Splits a context into the five staged word columns, padding unused
+     * positions with an empty string.
+     */
+    private static String[] stagedContext(String ngramText) {
+        String[] words = ngramText.trim().split("\\s+");
+        if (words.length > NGramDAO.MAX_CONTEXT_LENGTH) {
+            throw new IllegalArgumentException("N-gram contexts hold at most " + NGramDAO.MAX_CONTEXT_LENGTH
+                    + " words: " + ngramText);
+        }
+        String[] staged = new String[NGramDAO.MAX_CONTEXT_LENGTH];
+        Arrays.fill(staged, "");
+        System.arraycopy(words, 0, staged, 0, words.length);
+        return staged;
+    }
+
+    /**
+     * Collects every word used in an N-gram context or as a next word, so
+     * the words the merge joins on are created first.
+     */
+    private static Set<String> ngramWords(CorpusCounter counts) {
+        Set<String> words = new HashSet<>();
+        for (Map<String, Map<String, Integer>> order : counts.getNGramCounts().values()) {
+            for (Map.Entry<String, Map<String, Integer>> context : order.entrySet()) {
+                words.addAll(Arrays.asList(context.getKey().trim().split("\\s+")));
+                words.addAll(context.getValue().keySet());
+            }
+        }
+        return words;
+    }
+
+    private static void writeTsvRow(BufferedWriter writer, Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write('\t');
+            }
+            writer.write(escapeField(String.valueOf(values[i])));
+        }
+        writer.write('\n');
+    }
+
+    /**
+     * Escapes a value for LOAD DATA's default backslash escaping. Tokens never
+     * contain tabs or newlines, but a stray backslash must not be read as an
+     * escape sequence.
+     */
+    private static String escapeField(String value) {
+        return value.indexOf('\\') < 0 ? value : value.replace("\\", "\\\\");
+    }
+
+    private static String escapePath(Path file) {
+        return file.toAbsolutePath().toString().replace('\\', '/').replace("'", "''");
+    }
+
+    private static boolean isLocalInfileRejected(SQLException e) {
+        int code = e.getErrorCode();
+        if (code == ER_NOT_ALLOWED_COMMAND || code == ER_CLIENT_LOCAL_FILES_DISABLED
+                || code == CR_LOAD_DATA_LOCAL_INFILE_REJECTED) {
+            return true;
+        }
+        String message = e.getMessage() == null ? "" : e.getMessage().toLowerCase();
+        return message.contains("local infile") || message.contains("local data");
+    }
+
+    /**
+     * Receives one staging row.
+     */
+    private interface RowSink {
+
+        void accept(Object... values) throws SQLException, IOException;
+    }
+
+    /**
+     * Produces the rows for one staging table.
+     */
+    private interface RowSource {
+
+        void forEach(RowSink sink) throws SQLException, IOException;
+    }
+}
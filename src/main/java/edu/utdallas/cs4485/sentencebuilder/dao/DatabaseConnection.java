@@ -85,6 +85,14 @@ public class DatabaseConnection {
             config.addDataSourceProperty("prepStmtCacheSqlLimit",
                     props.getProperty("db.prep.stmt.cache.sql.limit", "2048"));
              */
+
+            // Bulk import settings: multi-row batched inserts, and LOAD DATA
+            // LOCAL INFILE restricted to the bulk loader's staging directory
+            config.addDataSourceProperty("rewriteBatchedStatements",
+                    props.getProperty("db.rewrite.batched.statements", "true"));
+            config.addDataSourceProperty("allowLoadLocalInfileInPath",
+                    BulkLoadDAO.STAGING_DIRECTORY.toAbsolutePath().toString());
+
             this.dataSource = new HikariDataSource(config);
 
         } catch (IOException e) {
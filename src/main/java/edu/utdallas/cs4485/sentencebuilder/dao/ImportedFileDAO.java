@@ -28,6 +28,28 @@ import edu.utdallas.cs4485.sentencebuilder.model.ImportedFile.FileStatus;
  */
 public class ImportedFileDAO {
 
+    private static final String INSERT_SQL = "INSERT INTO imported_files (filename, file_path, word_count, status, error_message, content_hash, "
+            + "import_options) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String CHECKPOINT_SQL = "UPDATE imported_files SET word_count = ?, status = ?, "
+            + "byte_offset = ?, committed_batches = ?, elapsed_ms = ?, cpu_ms = ?, token_count = ?, "
+            + "statement_count = ?, rows_written = ?, stage_timings = ? WHERE file_id = ?";
+
+    // Unfinished checkpoints of the path or the content, unless a later import
+    // of either has completed since; a content match is preferred
+    private static final String FIND_RESUMABLE_SQL = "SELECT * FROM imported_files f "
+            + "WHERE (f.file_path = ? OR f.content_hash = ?) AND f.status IN ('processing', 'failed') "
+            + "AND f.byte_offset > 0 AND NOT EXISTS (SELECT 1 FROM imported_files c "
+            + "WHERE c.status = 'completed' AND c.file_id > f.file_id "
+            + "AND (c.file_path = f.file_path OR c.content_hash = f.content_hash)) "
+            + "ORDER BY f.content_hash = ? DESC, f.file_id DESC LIMIT 1";
+
+    private static final String UPDATE_SQL = "UPDATE imported_files SET filename = ?, file_path = ?, word_count = ?, "
+            + "status = ?, error_message = ?, content_hash = ?, import_options = ? WHERE file_id = ?";
+
+    private static final String FIND_COMPLETED_BY_HASH_SQL = "SELECT * FROM imported_files "
+            + "WHERE content_hash = ? AND status = 'completed' ORDER BY file_id LIMIT 1";
+
     private DatabaseConnection dbConnection;
 
     /**
@@ -45,28 +67,24 @@ public class ImportedFileDAO {
      * @throws SQLException if database error occurs
      */
     public ImportedFile insert(ImportedFile file) throws SQLException {
-        // TODO: Implement file insertion
-        String sql = "INSERT INTO imported_files (filename, file_path, word_count, status, error_message) "
-                + "VALUES (?, ?, ?, ?, ?)";
-
-        try (Connection conn = dbConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
-            stmt.setString(1, file.getFilename());
-            stmt.setString(2, file.getFilePath());
-            stmt.setInt(3, file.getWordCount());
-            stmt.setString(4, file.getStatus().name().toLowerCase());
-            stmt.setString(5, file.getErrorMessage());
-
-            stmt.executeUpdate();
-
-            try (ResultSet keys = stmt.getGeneratedKeys()) {
-                if (keys.next()) {
-                    file.setFileId(keys.getInt(1));
-                }
-            }
+        try (UnitOfWork unitOfWork = new UnitOfWork(dbConnection)) {
+            insert(unitOfWork, file);
+            unitOfWork.commit();
+            return file;
         }
+    }
 
-        return file;
+    /**
+     * Inserts a new imported file record as part of a unit of work, so the
+     * record commits together with the data extracted from the file.
+     *
+     * @param unitOfWork the active unit of work
+     * @param file the file to insert
+     * @return the inserted file with updated ID
+     * @throws SQLException if database error occurs
+     */
+    public ImportedFile insert(UnitOfWork unitOfWork, ImportedFile file) throws SQLException {
+        return executeInsert(unitOfWork, unitOfWork.prepare(INSERT_SQL, Statement.RETURN_GENERATED_KEYS), file);
     }
 
     /**
@@ -76,19 +94,48 @@ public class ImportedFileDAO {
      * @throws SQLException if database error occurs
      */
     public void update(ImportedFile file) throws SQLException {
-        // TODO: Implement file update
-        String sql = "UPDATE imported_files SET word_count = ?, status = ?, error_message = ? "
-                + "WHERE file_id = ?";
-
-        try (Connection conn = dbConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (UnitOfWork unitOfWork = new UnitOfWork(dbConnection)) {
+            update(unitOfWork, file);
+            unitOfWork.commit();
+        }
+    }
 
-            stmt.setInt(1, file.getWordCount());
-            stmt.setString(2, file.getStatus().name().toLowerCase());
-            stmt.setString(3, file.getErrorMessage());
-            stmt.setInt(4, file.getFileId());
+    /**
+     * Updates an existing imported file record as part of a unit of work.
+     *
+     * @param unitOfWork the active unit of work
+     * @param file the file to update
+     * @throws SQLException if database error occurs
+     */
+    public void update(UnitOfWork unitOfWork, ImportedFile file) throws SQLException {
+        executeUpdate(unitOfWork, unitOfWork.prepare(UPDATE_SQL), file);
+    }
 
-            stmt.executeUpdate();
-        }
+    /**
+     * Records an import checkpoint as part of a unit of work. Committing the
+     * unit of work makes the checkpoint durable together with the counts it
+     * covers. The import's throughput metrics so far are stored with it.
+     *
+     * @param unitOfWork the active unit of work
+     * @param file the file whose word count, status, checkpoint and metrics
+     * to store
+     * @throws SQLException if database error occurs
+     */
+    public void checkpoint(UnitOfWork unitOfWork, ImportedFile file) throws SQLException {
+        PreparedStatement stmt = unitOfWork.prepare(CHECKPOINT_SQL);
+        stmt.setInt(1, file.getWordCount());
+        stmt.setString(2, file.getStatus().name().toLowerCase());
+        stmt.setLong(3, file.getByteOffset());
+        stmt.setInt(4, file.getCommittedBatches());
+        stmt.setLong(5, file.getElapsedMillis());
+        stmt.setLong(6, file.getCpuMillis());
+        stmt.setLong(7, file.getTokenCount());
+        stmt.setLong(8, file.getStatementCount());
+        stmt.setLong(9, file.getRowsWritten());
+        stmt.setString(10, file.getStageTimings());
+        stmt.setInt(11, file.getFileId());
+
+        unitOfWork.executeUpdate(stmt);
     }
 
     /**
@@ -141,6 +188,58 @@ public class ImportedFileDAO {
         return null;
     }
 
+    /**
+     * Finds the most recent unfinished import with a committed checkpoint
+     * whose path or content matches, preferring a content match. Checkpoints
+     * superseded by a later completed import of the same path or content are
+     * ignored. A result with another content hash is an earlier version of
+     * the file whose partial counts are still in the database.
+     *
+     * @param filePath the absolute file path
+     * @param contentHash the SHA-256 hash of the file's current content
+     * @return the resumable file record, or null if there is none
+     * @throws SQLException if database error occurs
+     */
+    public ImportedFile findResumable(String filePath, String contentHash) throws SQLException {
+        try (Connection conn = dbConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(FIND_RESUMABLE_SQL)) {
+
+            stmt.setString(1, filePath);
+            stmt.setString(2, contentHash);
+            stmt.setString(3, contentHash);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapResultSetToImportedFile(rs);
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Finds a completed import with the given content hash, whatever path it
+     * was imported from.
+     *
+     * @param contentHash the SHA-256 hash of the file content
+     * @return the earliest completed import of that content, or null
+     * @throws SQLException if database error occurs
+     */
+    public ImportedFile findCompletedByHash(String contentHash) throws SQLException {
+        try (Connection conn = dbConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(FIND_COMPLETED_BY_HASH_SQL)) {
+
+            stmt.setString(1, contentHash);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapResultSetToImportedFile(rs);
+                }
+            }
+        }
+
+        return null;
+    }
+
     /**
      * Finds all imported files.
      *
@@ -205,6 +304,56 @@ public class ImportedFileDAO {
         }
     }
 
+    /**
+     * Binds and executes an insert statement.
+     *
+     * @param unitOfWork the unit of work that counts the statement
+     * @param stmt the prepared insert statement
+     * @param file the file to insert
+     * @return the inserted file with updated ID
+     * @throws SQLException if database error occurs
+     */
+    private ImportedFile executeInsert(UnitOfWork unitOfWork, PreparedStatement stmt, ImportedFile file) throws SQLException {
+        stmt.setString(1, file.getFilename());
+        stmt.setString(2, file.getFilePath());
+        stmt.setInt(3, file.getWordCount());
+        stmt.setString(4, file.getStatus().name().toLowerCase());
+        stmt.setString(5, file.getErrorMessage());
+        stmt.setString(6, file.getContentHash());
+        stmt.setString(7, file.getImportOptions());
+
+        unitOfWork.executeUpdate(stmt);
+
+        try (ResultSet keys = stmt.getGeneratedKeys()) {
+            if (keys.next()) {
+                file.setFileId(keys.getInt(1));
+            }
+        }
+
+        return file;
+    }
+
+    /**
+     * Binds and executes an update statement.
+     *
+     * @param unitOfWork the unit of work that counts the statement
+     * @param stmt the prepared update statement
+     * @param file the file to update
+     * @throws SQLException if database error occurs
+     */
+    private void executeUpdate(UnitOfWork unitOfWork, PreparedStatement stmt, ImportedFile file) throws SQLException {
+        stmt.setString(1, file.getFilename());
+        stmt.setString(2, file.getFilePath());
+        stmt.setInt(3, file.getWordCount());
+        stmt.setString(4, file.getStatus().name().toLowerCase());
+        stmt.setString(5, file.getErrorMessage());
+        stmt.setString(6, file.getContentHash());
+        stmt.setString(7, file.getImportOptions());
+        stmt.setInt(8, file.getFileId());
+
+        unitOfWork.executeUpdate(stmt);
+    }
+
     /**
      * Maps a ResultSet row to an ImportedFile object.
      *
@@ -221,6 +370,16 @@ public class ImportedFileDAO {
         file.setImportDate(rs.getTimestamp("import_date"));
         file.setStatus(FileStatus.valueOf(rs.getString("status").toUpperCase()));
         file.setErrorMessage(rs.getString("error_message"));
+        file.setContentHash(rs.getString("content_hash"));
+        file.setByteOffset(rs.getLong("byte_offset"));
+        file.setCommittedBatches(rs.getInt("committed_batches"));
+        file.setImportOptions(rs.getString("import_options"));
+        file.setElapsedMillis(rs.getLong("elapsed_ms"));
+        file.setCpuMillis(rs.getLong("cpu_ms"));
+        file.setTokenCount(rs.getLong("token_count"));
+        file.setStatementCount(rs.getLong("statement_count"));
+        file.setRowsWritten(rs.getLong("rows_written"));
+        file.setStageTimings(rs.getString("stage_timings"));
         return file;
     }
 }
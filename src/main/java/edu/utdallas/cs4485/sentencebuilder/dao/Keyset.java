@@ -0,0 +1,80 @@
+package edu.utdallas.cs4485.sentencebuilder.dao;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ *
+ * Builds the SQL for keyset (seek) pagination: a page starts right after the
+ * sort value and ID of the last row of the previous page instead of at an
+ * OFFSET, so reading page 10,000 costs the same as reading page 1 as long as
+ * the sort column is indexed. The row ID breaks ties, which keeps the order
+ * total and the pages free of gaps and repeats.
+ *
+ * The seek condition is written as "col > ? OR (col = ? AND id > ?)" rather
+ * than a row constructor, because MySQL turns that form into index ranges.
+ * When a table is sorted by its ID alone the condition is just "id > ?".
+ *
+ * @author Caedon Ewing
+ */
+final class Keyset {
+
+    private Keyset() {
+    }
+
+    /**
+     * Builds the condition for the rows after a given row.
+     *
+     * @param column the sort column
+     * @param idColumn the unique ID column that breaks ties
+     * @param ascending sort direction
+     * @return the condition, to be bound with bind
+     */
+    static String after(String column, String idColumn, boolean ascending) {
+        String op = ascending ? " > ?" : " < ?";
+        if (column.equals(idColumn)) {
+            return idColumn + op;
+        }
+        return "(" + column + op + " OR (" + column + " = ? AND " + idColumn + op + "))";
+    }
+
+    /**
+     * Builds the ORDER BY list matching after.
+     *
+     * @param column the sort column
+     * @param idColumn the unique ID column that breaks ties
+     * @param ascending sort direction
+     * @return the order list, without the ORDER BY keywords
+     */
+    static String orderBy(String column, String idColumn, boolean ascending) {
+        String direction = ascending ? " ASC" : " DESC";
+        if (column.equals(idColumn)) {
+            return idColumn + direction;
+        }
+        return column + direction + ", " + idColumn + direction;
+    }
+
+    /**
+     * Binds the parameters of a condition built by after.
+     *
+     * @param stmt the prepared statement
+     * @param first index of the first parameter
+     * @param column the sort column passed to after
+     * @param idColumn the ID column passed to after
+     * @param value sort value of the last row of the previous page
+     * @param id ID of the last row of the previous page
+     * @return index of the next parameter
+     * @throws SQLException if database error occurs
+     */
+    static int bind(PreparedStatement stmt, int first, String column, String idColumn, Object value, int id)
+            throws SQLException {
+        if (column.equals(idColumn)) {
+            stmt.setInt(first, id);
+            return first + 1;
+        }
+        stmt.setObject(first, value);
+        stmt.setObject(first + 1, value);
+        stmt.setInt(first + 2, id);
+        return first + 3;
+    }
+}
@@ -6,7 +6,16 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import edu.utdallas.cs4485.sentencebuilder.model.NGram;
 
@@ -24,67 +33,223 @@ import edu.utdallas.cs4485.sentencebuilder.model.NGram;
  * counts and probabilities. Supports filtering by N value and sequence matching
  * for generation algorithms.
  *
+ * Each distinct context is stored once in ngram_contexts as the IDs of its
+ * words, together with the total of the transition counts leaving it, and
+ * ngrams rows only hold a context ID, a next word ID and a count. Context
+ * text is resolved to word IDs once per call (through the shared word ID
+ * cache), so lookups join on integer keys and never compare strings; reads
+ * that list N-grams rebuild the text from the context's words.
+ *
  * @author Caedon Ewing
  */
 public class NGramDAO {
 
+    /**
+     * Longest context ngram_contexts can hold.
+     */
+    public static final int MAX_CONTEXT_LENGTH = 5;
+
+    private static final String CONTEXT_COLUMNS = "n, word1_id, word2_id, word3_id, word4_id, word5_id";
+    private static final String CONTEXT_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?)";
+    private static final String MATCH_CONTEXT = "c.n = ? AND c.word1_id = ? AND c.word2_id = ? "
+            + "AND c.word3_id = ? AND c.word4_id = ? AND c.word5_id = ? ";
+
+    // Probability is derived on read from the total of the N-gram's context
+    private static final String SELECT_WITH_PROBABILITY = "SELECT ng.*, c.n, ng.transition_count / c.total_count AS transition_probability ";
+    private static final String JOIN_CONTEXTS = "JOIN ngram_contexts c ON c.context_id = ng.context_id ";
+    // Rebuilds the context text; positions past n hold 0 and join no word
+    private static final String CONTEXT_TEXT = ", CONCAT_WS(' ', cw1.word_text, cw2.word_text, cw3.word_text, "
+            + "cw4.word_text, cw5.word_text) AS ngram_text ";
+    private static final String JOIN_CONTEXT_WORDS = "JOIN words cw1 ON cw1.word_id = c.word1_id "
+            + "LEFT JOIN words cw2 ON cw2.word_id = c.word2_id "
+            + "LEFT JOIN words cw3 ON cw3.word_id = c.word3_id "
+            + "LEFT JOIN words cw4 ON cw4.word_id = c.word4_id "
+            + "LEFT JOIN words cw5 ON cw5.word_id = c.word5_id ";
+
+    private static final String ADD_CONTEXT_TOTALS_SQL = "INSERT INTO ngram_contexts (" + CONTEXT_COLUMNS + ", total_count) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE total_count = total_count + VALUES(total_count)";
+    private static final String FIND_CONTEXT_IDS_SQL = "SELECT context_id, " + CONTEXT_COLUMNS + " FROM ngram_contexts "
+            + "WHERE (" + CONTEXT_COLUMNS + ") IN (%s)";
+    private static final String INSERT_SQL = "INSERT INTO ngrams (context_id, next_word_id, transition_count) "
+            + "VALUES (?, ?, ?)";
+    private static final String UPDATE_SQL = "UPDATE ngrams SET transition_count = ? WHERE ngram_id = ?";
+    private static final String FIND_BY_TEXT_AND_NEXT_WORD_SQL = SELECT_WITH_PROBABILITY
+            + "FROM ngram_contexts c JOIN ngrams ng ON ng.context_id = c.context_id "
+            + "WHERE " + MATCH_CONTEXT + "AND ng.next_word_id = ?";
+    private static final String ADD_TRANSITION_COUNTS_SQL = "INSERT INTO ngrams (context_id, next_word_id, transition_count) "
+            + "VALUES (?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE transition_count = transition_count + VALUES(transition_count)";
+    private static final String ADJUST_TOTAL_FOR_UPDATE_SQL = "UPDATE ngram_contexts c "
+            + "JOIN ngrams ng ON c.context_id = ng.context_id "
+            + "SET c.total_count = c.total_count + ? - ng.transition_count WHERE ng.ngram_id = ?";
+    private static final String SUBTRACT_TOTAL_FOR_DELETE_SQL = "UPDATE ngram_contexts c "
+            + "JOIN ngrams ng ON c.context_id = ng.context_id "
+            + "SET c.total_count = c.total_count - ng.transition_count WHERE ng.ngram_id = ?";
+    private static final String DELETE_SQL = "DELETE FROM ngrams WHERE ngram_id = ?";
+    private static final String FIND_NEXT_WORDS_SQL = "SELECT w.word_text FROM ngram_contexts c "
+            + "JOIN ngrams ng ON ng.context_id = c.context_id "
+            + "JOIN words w ON w.word_id = ng.next_word_id "
+            + "WHERE " + MATCH_CONTEXT
+            + "ORDER BY ng.transition_count DESC, ng.next_word_id LIMIT ?";
+    private static final int BATCH_SIZE = 1000;
+    private static final int LOOKUP_CHUNK_SIZE = 200;
+
     private DatabaseConnection dbConnection;
+    private WordDAO wordDAO;
 
     /**
      * Constructor.
      */
     public NGramDAO() {
         this.dbConnection = DatabaseConnection.getInstance();
+        this.wordDAO = new WordDAO();
     }
 
     /**
-     * Inserts a new N-gram into the database.
+     * Inserts a new N-gram into the database. The N-gram and its context
+     * total are written in one transaction.
      *
      * @param ngram the N-gram to insert
      * @return the inserted N-gram with updated ID
      * @throws SQLException if database error occurs
      */
     public NGram insert(NGram ngram) throws SQLException {
-        String sql = "INSERT INTO ngrams (n, ngram_text, next_word_id, transition_count, transition_probability) "
-                + "VALUES (?, ?, ?, ?, ?)";
-
-        try (Connection conn = dbConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
-            stmt.setInt(1, ngram.getN());
-            stmt.setString(2, ngram.getNgramText());
-            stmt.setInt(3, ngram.getNextWordId());
-            stmt.setInt(4, ngram.getTransitionCount());
-            stmt.setDouble(5, ngram.getTransitionProbability());
-
-            stmt.executeUpdate();
-
-            try (ResultSet keys = stmt.getGeneratedKeys()) {
-                if (keys.next()) {
-                    ngram.setNgramId(keys.getInt(1));
-                }
-            }
+        try (UnitOfWork unitOfWork = new UnitOfWork(dbConnection)) {
+            insert(unitOfWork, ngram);
+            unitOfWork.commit();
+            return ngram;
         }
+    }
 
+    /**
+     * Inserts a new N-gram as part of a unit of work, creating its context
+     * if needed and adding its count to the context total.
+     *
+     * @param unitOfWork the active unit of work
+     * @param ngram the N-gram to insert
+     * @return the inserted N-gram with updated ID
+     * @throws SQLException if database error occurs
+     */
+    public NGram insert(UnitOfWork unitOfWork, NGram ngram) throws SQLException {
+        String[] words = contextWords(ngram.getNgramText());
+        Map<String, Integer> wordIds = wordDAO.resolveIds(unitOfWork, Arrays.asList(words));
+        List<Integer> context = contextKey(ngram.getN(), words, wordIds);
+
+        PreparedStatement totals = unitOfWork.prepare(ADD_CONTEXT_TOTALS_SQL);
+        bindContext(totals, 1, context);
+        totals.setLong(7, ngram.getTransitionCount());
+        unitOfWork.executeUpdate(totals);
+
+        ngram.setContextId(findContextIds(unitOfWork, List.of(context)).get(context));
+        executeInsert(unitOfWork, unitOfWork.prepare(INSERT_SQL, Statement.RETURN_GENERATED_KEYS), ngram);
         return ngram;
     }
 
     /**
-     * Updates an existing N-gram in the database.
+     * Updates an existing N-gram in the database. The N-gram and its context
+     * total are written in one transaction.
      *
      * @param ngram the N-gram to update
      * @throws SQLException if database error occurs
      */
     public void update(NGram ngram) throws SQLException {
-        String sql = "UPDATE ngrams SET transition_count = ?, transition_probability = ? "
-                + "WHERE ngram_id = ?";
+        try (UnitOfWork unitOfWork = new UnitOfWork(dbConnection)) {
+            update(unitOfWork, ngram);
+            unitOfWork.commit();
+        }
+    }
 
-        try (Connection conn = dbConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+    /**
+     * Updates an existing N-gram as part of a unit of work. The context total
+     * moves by the difference between the new and stored counts.
+     *
+     * @param unitOfWork the active unit of work
+     * @param ngram the N-gram to update
+     * @throws SQLException if database error occurs
+     */
+    public void update(UnitOfWork unitOfWork, NGram ngram) throws SQLException {
+        PreparedStatement totals = unitOfWork.prepare(ADJUST_TOTAL_FOR_UPDATE_SQL);
+        totals.setLong(1, ngram.getTransitionCount());
+        totals.setInt(2, ngram.getNgramId());
+        unitOfWork.executeUpdate(totals);
+
+        executeUpdate(unitOfWork, unitOfWork.prepare(UPDATE_SQL), ngram);
+    }
+
+    /**
+     * Adds transition count deltas to many N-grams at once as part of a unit
+     * of work, creating N-grams that do not exist yet. Each NGram carries the
+     * amount to add, not the new total.
+     *
+     * Context words are resolved to IDs in one batched lookup. The deltas
+     * are summed per context and added to ngram_contexts, which creates the
+     * new contexts; their IDs are then read back with IN-list lookups and
+     * the N-gram counts written. Statements are sent in batches.
+     *
+     * @param unitOfWork the active unit of work
+     * @param deltas N-grams with the transition counts to add
+     * @throws SQLException if database error occurs
+     */
+    public void addTransitionCounts(UnitOfWork unitOfWork, List<NGram> deltas) throws SQLException {
+        Map<Integer, Map<String, Long>> contextTotals = new LinkedHashMap<>();
+        Set<String> words = new HashSet<>();
+        for (NGram delta : deltas) {
+            contextTotals.computeIfAbsent(delta.getN(), key -> new LinkedHashMap<>())
+                    .merge(delta.getNgramText(), (long) delta.getTransitionCount(), Long::sum);
+            words.addAll(Arrays.asList(contextWords(delta.getNgramText())));
+        }
+        if (words.isEmpty()) {
+            return;
+        }
+        Map<String, Integer> wordIds = wordDAO.resolveIds(unitOfWork, words);
+
+        // Add the totals first; this also creates the contexts that are new
+        Map<Integer, Map<String, List<Integer>>> contexts = new HashMap<>();
+        PreparedStatement totals = unitOfWork.prepare(ADD_CONTEXT_TOTALS_SQL);
+        int pending = 0;
+        for (Map.Entry<Integer, Map<String, Long>> order : contextTotals.entrySet()) {
+            Map<String, List<Integer>> orderContexts = contexts.computeIfAbsent(order.getKey(), key -> new HashMap<>());
+            for (Map.Entry<String, Long> total : order.getValue().entrySet()) {
+                List<Integer> context = contextKey(order.getKey(), contextWords(total.getKey()), wordIds);
+                orderContexts.put(total.getKey(), context);
+                bindContext(totals, 1, context);
+                totals.setLong(7, total.getValue());
+                totals.addBatch();
+
+                if (++pending == BATCH_SIZE) {
+                    unitOfWork.executeBatch(totals);
+                    pending = 0;
+                }
+            }
+        }
 
-            stmt.setInt(1, ngram.getTransitionCount());
-            stmt.setDouble(2, ngram.getTransitionProbability());
-            stmt.setInt(3, ngram.getNgramId());
+        if (pending > 0) {
+            unitOfWork.executeBatch(totals);
+        }
 
-            stmt.executeUpdate();
+        List<List<Integer>> allContexts = new ArrayList<>();
+        for (Map<String, List<Integer>> orderContexts : contexts.values()) {
+            allContexts.addAll(orderContexts.values());
+        }
+        Map<List<Integer>, Integer> contextIds = findContextIds(unitOfWork, allContexts);
+
+        PreparedStatement stmt = unitOfWork.prepare(ADD_TRANSITION_COUNTS_SQL);
+        pending = 0;
+        for (NGram delta : deltas) {
+            stmt.setInt(1, contextIds.get(contexts.get(delta.getN()).get(delta.getNgramText())));
+            stmt.setInt(2, delta.getNextWordId());
+            stmt.setInt(3, delta.getTransitionCount());
+            stmt.addBatch();
+
+            if (++pending == BATCH_SIZE) {
+                unitOfWork.executeBatch(stmt);
+                pending = 0;
+            }
+        }
+
+        if (pending > 0) {
+            unitOfWork.executeBatch(stmt);
         }
     }
 
@@ -98,22 +263,40 @@ public class NGramDAO {
      * @throws SQLException if database error occurs
      */
     public NGram findByTextAndNextWord(int n, String ngramText, int nextWordId) throws SQLException {
-        String sql = "SELECT * FROM ngrams WHERE n = ? AND ngram_text = ? AND next_word_id = ?";
-
-        try (Connection conn = dbConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, n);
-            stmt.setString(2, ngramText);
-            stmt.setInt(3, nextWordId);
+        List<Integer> context = findContext(n, ngramText);
+        if (context == null) {
+            return null;
+        }
+        try (Connection conn = dbConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(FIND_BY_TEXT_AND_NEXT_WORD_SQL)) {
+            return executeFindByContextAndNextWord(stmt, context, ngramText, nextWordId);
+        }
+    }
 
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return mapResultSetToNGram(rs);
-                }
+    /**
+     * Finds an N-gram by its text and next word ID as part of a unit of work.
+     *
+     * @param unitOfWork the active unit of work
+     * @param n the N value
+     * @param ngramText the N-gram text
+     * @param nextWordId the next word ID
+     * @return the N-gram, or null if not found
+     * @throws SQLException if database error occurs
+     */
+    public NGram findByTextAndNextWord(UnitOfWork unitOfWork, int n, String ngramText, int nextWordId) throws SQLException {
+        String[] words = splitContext(ngramText);
+        if (words == null) {
+            return null;
+        }
+        Map<String, Integer> wordIds = new HashMap<>();
+        for (String word : words) {
+            Integer id = wordDAO.findIdByText(unitOfWork, word);
+            if (id == null) {
+                return null;
             }
+            wordIds.put(word, id);
         }
-
-        return null;
+        return executeFindByContextAndNextWord(unitOfWork.prepare(FIND_BY_TEXT_AND_NEXT_WORD_SQL),
+                contextKey(n, words, wordIds), ngramText, nextWordId);
     }
 
     /**
@@ -125,22 +308,26 @@ public class NGramDAO {
      * @throws SQLException if database error occurs
      */
     public List<NGram> findByNgramText(int n, String ngramText) throws SQLException {
-        String sql = "SELECT ng.*, w.word_text as next_word_text "
-                + "FROM ngrams ng "
+        String sql = SELECT_WITH_PROBABILITY + ", w.word_text as next_word_text "
+                + "FROM ngram_contexts c "
+                + "JOIN ngrams ng ON ng.context_id = c.context_id "
                 + "JOIN words w ON ng.next_word_id = w.word_id "
-                + "WHERE ng.n = ? AND ng.ngram_text = ? "
-                + "ORDER BY ng.transition_probability DESC";
+                + "WHERE " + MATCH_CONTEXT
+                + "ORDER BY ng.transition_count DESC";
 
         List<NGram> ngrams = new ArrayList<>();
+        List<Integer> context = findContext(n, ngramText);
+        if (context == null) {
+            return ngrams;
+        }
 
         try (Connection conn = dbConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setInt(1, n);
-            stmt.setString(2, ngramText);
+            bindContext(stmt, 1, context);
 
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    NGram ngram = mapResultSetToNGram(rs);
+                    NGram ngram = mapResultSetToNGram(rs, ngramText);
                     ngram.setNextWordText(rs.getString("next_word_text"));
                     ngrams.add(ngram);
                 }
@@ -150,6 +337,38 @@ public class NGramDAO {
         return ngrams;
     }
 
+    /**
+     * Finds the words that most often follow an N-gram context, most
+     * frequent first, in one query. Only the returned rows are joined to
+     * their text.
+     *
+     * @param n the N value
+     * @param ngramText the N-gram context
+     * @param limit maximum number of words to return
+     * @return following words, empty if the context is unknown
+     * @throws SQLException if database error occurs
+     */
+    public List<String> findNextWords(int n, String ngramText, int limit) throws SQLException {
+        List<String> nextWords = new ArrayList<>();
+        List<Integer> context = findContext(n, ngramText);
+        if (context == null) {
+            return nextWords;
+        }
+
+        try (Connection conn = dbConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(FIND_NEXT_WORDS_SQL)) {
+            bindContext(stmt, 1, context);
+            stmt.setInt(7, limit);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    nextWords.add(rs.getString(1));
+                }
+            }
+        }
+
+        return nextWords;
+    }
+
     /**
      * Finds all N-grams for a given N value.
      *
@@ -159,10 +378,12 @@ public class NGramDAO {
      * @throws SQLException if database error occurs
      */
     public List<NGram> findByN(int n, int limit) throws SQLException {
-        String sql = "SELECT ng.*, w.word_text as next_word_text "
+        String sql = SELECT_WITH_PROBABILITY + CONTEXT_TEXT + ", w.word_text as next_word_text "
                 + "FROM ngrams ng "
+                + JOIN_CONTEXTS
+                + JOIN_CONTEXT_WORDS
                 + "JOIN words w ON ng.next_word_id = w.word_id "
-                + "WHERE ng.n = ? "
+                + "WHERE c.n = ? "
                 + "ORDER BY ng.transition_count DESC "
                 + "LIMIT ?";
 
@@ -175,7 +396,7 @@ public class NGramDAO {
 
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    NGram ngram = mapResultSetToNGram(rs);
+                    NGram ngram = mapResultSetToNGram(rs, null);
                     ngram.setNextWordText(rs.getString("next_word_text"));
                     ngrams.add(ngram);
                 }
@@ -186,25 +407,37 @@ public class NGramDAO {
     }
 
     /**
-     * Finds all N-grams in the database.
+     * Reads the page of N-grams that follows a given N-gram ID, in ID order.
+     * Each page is a seek on the primary key, so walking the whole table
+     * never holds more than one page in memory.
      *
-     * @return list of all N-grams
+     * @param afterNgramId ID of the last N-gram of the previous page, or 0
+     * for the first page
+     * @param limit maximum number of N-grams to return
+     * @return the page, empty past the end
      * @throws SQLException if database error occurs
      */
-    public List<NGram> findAll() throws SQLException {
-        String sql = "SELECT ng.*, w.word_text as next_word_text "
+    public List<NGram> findPage(int afterNgramId, int limit) throws SQLException {
+        String sql = SELECT_WITH_PROBABILITY + CONTEXT_TEXT + ", w.word_text as next_word_text "
                 + "FROM ngrams ng "
+                + JOIN_CONTEXTS
+                + JOIN_CONTEXT_WORDS
                 + "JOIN words w ON ng.next_word_id = w.word_id "
-                + "ORDER BY ng.n, ng.transition_count DESC";
+                + "WHERE " + Keyset.after("ng.ngram_id", "ng.ngram_id", true) + " "
+                + "ORDER BY " + Keyset.orderBy("ng.ngram_id", "ng.ngram_id", true) + " LIMIT ?";
 
         List<NGram> ngrams = new ArrayList<>();
 
-        try (Connection conn = dbConnection.getConnection(); Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+        try (Connection conn = dbConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, afterNgramId);
+            stmt.setInt(2, limit);
 
-            while (rs.next()) {
-                NGram ngram = mapResultSetToNGram(rs);
-                ngram.setNextWordText(rs.getString("next_word_text"));
-                ngrams.add(ngram);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    NGram ngram = mapResultSetToNGram(rs, null);
+                    ngram.setNextWordText(rs.getString("next_word_text"));
+                    ngrams.add(ngram);
+                }
             }
         }
 
@@ -212,20 +445,15 @@ public class NGramDAO {
     }
 
     /**
-     * Recalculates transition probabilities for all N-grams.
+     * Counts all N-grams in the database.
      *
+     * @return number of N-grams
      * @throws SQLException if database error occurs
      */
-    public void recalculateProbabilities() throws SQLException {
-        String sql = "UPDATE ngrams ng "
-                + "JOIN (SELECT n, ngram_text, SUM(transition_count) as total "
-                + "      FROM ngrams GROUP BY n, ngram_text) totals "
-                + "ON ng.n = totals.n AND ng.ngram_text = totals.ngram_text "
-                + "SET ng.transition_probability = ng.transition_count / totals.total";
-
-        try (Connection conn = dbConnection.getConnection(); Statement stmt = conn.createStatement()) {
-
-            stmt.executeUpdate(sql);
+    public int count() throws SQLException {
+        try (Connection conn = dbConnection.getConnection(); Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM ngrams")) {
+            return rs.next() ? rs.getInt(1) : 0;
         }
     }
 
@@ -236,28 +464,31 @@ public class NGramDAO {
      * @throws SQLException if database error occurs
      */
     public void delete(int ngramId) throws SQLException {
-        String sql = "DELETE FROM ngrams WHERE ngram_id = ?";
-
-        try (Connection conn = dbConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (UnitOfWork unitOfWork = new UnitOfWork(dbConnection)) {
+            PreparedStatement totals = unitOfWork.prepare(SUBTRACT_TOTAL_FOR_DELETE_SQL);
+            totals.setInt(1, ngramId);
+            unitOfWork.executeUpdate(totals);
 
+            PreparedStatement stmt = unitOfWork.prepare(DELETE_SQL);
             stmt.setInt(1, ngramId);
-            stmt.executeUpdate();
+            unitOfWork.executeUpdate(stmt);
+            unitOfWork.commit();
         }
     }
 
     /**
-     * Deletes all N-grams for a given N value.
+     * Deletes all N-grams for a given N value. Deleting their contexts
+     * removes the N-grams through the foreign key.
      *
      * @param n the N value
      * @throws SQLException if database error occurs
      */
     public void deleteByN(int n) throws SQLException {
-        String sql = "DELETE FROM ngrams WHERE n = ?";
-
-        try (Connection conn = dbConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
-
+        try (UnitOfWork unitOfWork = new UnitOfWork(dbConnection)) {
+            PreparedStatement stmt = unitOfWork.prepare("DELETE FROM ngram_contexts WHERE n = ?");
             stmt.setInt(1, n);
-            stmt.executeUpdate();
+            unitOfWork.executeUpdate(stmt);
+            unitOfWork.commit();
         }
     }
 
@@ -269,7 +500,7 @@ public class NGramDAO {
      * @throws SQLException if database error occurs
      */
     public int countByN(int n) throws SQLException {
-        String sql = "SELECT COUNT(*) FROM ngrams WHERE n = ?";
+        String sql = "SELECT COUNT(*) FROM ngrams ng " + JOIN_CONTEXTS + "WHERE c.n = ?";
 
         try (Connection conn = dbConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
 
@@ -285,18 +516,205 @@ public class NGramDAO {
         return 0;
     }
 
+    /**
+     * Builds the ngram_contexts key of a context: n followed by the IDs of
+     * its words, padded with 0 to MAX_CONTEXT_LENGTH.
+     *
+     * @param n the N value
+     * @param words the context words
+     * @param wordIds IDs of at least the context words
+     * @return the key, in CONTEXT_COLUMNS order
+     */
+    static List<Integer> contextKey(int n, String[] words, Map<String, Integer> wordIds) {
+        Integer[] key = new Integer[MAX_CONTEXT_LENGTH + 1];
+        Arrays.fill(key, 0);
+        key[0] = n;
+        for (int i = 0; i < words.length; i++) {
+            key[i + 1] = wordIds.get(words[i]);
+        }
+        return List.of(key);
+    }
+
+    /**
+     * Splits a context into its words for writing.
+     *
+     * @param ngramText the N-gram context
+     * @return the words
+     * @throws IllegalArgumentException if the context has more than
+     * MAX_CONTEXT_LENGTH words
+     */
+    private static String[] contextWords(String ngramText) {
+        String[] words = splitContext(ngramText);
+        if (words == null) {
+            throw new IllegalArgumentException("N-gram contexts hold at most " + MAX_CONTEXT_LENGTH
+                    + " words: " + ngramText);
+        }
+        return words;
+    }
+
+    /**
+     * Splits a context into its words.
+     *
+     * @param ngramText the N-gram context
+     * @return the words, or null if the context is longer than
+     * MAX_CONTEXT_LENGTH and cannot be stored
+     */
+    private static String[] splitContext(String ngramText) {
+        String[] words = ngramText.trim().split("\\s+");
+        return words.length > MAX_CONTEXT_LENGTH ? null : words;
+    }
+
+    /**
+     * Resolves a context to its key for a lookup. Words go through the word
+     * ID cache, so common contexts cost no query.
+     *
+     * @param n the N value
+     * @param ngramText the N-gram context
+     * @return the key, or null if a word is unknown or the context is too
+     * long, in which case no N-gram can match
+     * @throws SQLException if database error occurs
+     */
+    private List<Integer> findContext(int n, String ngramText) throws SQLException {
+        String[] words = splitContext(ngramText);
+        if (words == null) {
+            return null;
+        }
+        Map<String, Integer> wordIds = wordDAO.findIdsByTexts(Arrays.asList(words));
+        for (String word : words) {
+            if (!wordIds.containsKey(word)) {
+                return null;
+            }
+        }
+        return contextKey(n, words, wordIds);
+    }
+
+    /**
+     * Reads the IDs of existing contexts with IN-lists of row constructors.
+     *
+     * @param unitOfWork the active unit of work
+     * @param contexts context keys built by contextKey
+     * @return map of context key to context ID; missing contexts are left out
+     * @throws SQLException if database error occurs
+     */
+    private Map<List<Integer>, Integer> findContextIds(UnitOfWork unitOfWork, Collection<List<Integer>> contexts) throws SQLException {
+        Map<List<Integer>, Integer> ids = new HashMap<>();
+        List<List<Integer>> unique = new ArrayList<>(new LinkedHashSet<>(contexts));
+        for (int start = 0; start < unique.size(); start += LOOKUP_CHUNK_SIZE) {
+            List<List<Integer>> chunk = unique.subList(start, Math.min(start + LOOKUP_CHUNK_SIZE, unique.size()));
+            String placeholders = String.join(", ", Collections.nCopies(chunk.size(), CONTEXT_PLACEHOLDERS));
+            PreparedStatement stmt = unitOfWork.prepare(String.format(FIND_CONTEXT_IDS_SQL, placeholders));
+            int index = 1;
+            for (List<Integer> context : chunk) {
+                bindContext(stmt, index, context);
+                index += context.size();
+            }
+
+            try (ResultSet rs = unitOfWork.executeQuery(stmt)) {
+                while (rs.next()) {
+                    Integer[] key = new Integer[MAX_CONTEXT_LENGTH + 1];
+                    for (int i = 0; i < key.length; i++) {
+                        key[i] = rs.getInt(i + 2);
+                    }
+                    ids.put(List.of(key), rs.getInt("context_id"));
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Binds a context key to six consecutive parameters.
+     *
+     * @param stmt the prepared statement
+     * @param first index of the parameter for n
+     * @param context the key built by contextKey
+     * @throws SQLException if database error occurs
+     */
+    private static void bindContext(PreparedStatement stmt, int first, List<Integer> context) throws SQLException {
+        for (int i = 0; i < context.size(); i++) {
+            stmt.setInt(first + i, context.get(i));
+        }
+    }
+
+    /**
+     * Binds and executes an insert statement.
+     *
+     * @param unitOfWork the unit of work that counts the statement
+     * @param stmt the prepared insert statement
+     * @param ngram the N-gram to insert, with its context ID set
+     * @return the inserted N-gram with updated ID
+     * @throws SQLException if database error occurs
+     */
+    private NGram executeInsert(UnitOfWork unitOfWork, PreparedStatement stmt, NGram ngram) throws SQLException {
+        stmt.setInt(1, ngram.getContextId());
+        stmt.setInt(2, ngram.getNextWordId());
+        stmt.setInt(3, ngram.getTransitionCount());
+
+        unitOfWork.executeUpdate(stmt);
+
+        try (ResultSet keys = stmt.getGeneratedKeys()) {
+            if (keys.next()) {
+                ngram.setNgramId(keys.getInt(1));
+            }
+        }
+
+        return ngram;
+    }
+
+    /**
+     * Binds and executes an update statement.
+     *
+     * @param unitOfWork the unit of work that counts the statement
+     * @param stmt the prepared update statement
+     * @param ngram the N-gram to update
+     * @throws SQLException if database error occurs
+     */
+    private void executeUpdate(UnitOfWork unitOfWork, PreparedStatement stmt, NGram ngram) throws SQLException {
+        stmt.setInt(1, ngram.getTransitionCount());
+        stmt.setInt(2, ngram.getNgramId());
+
+        unitOfWork.executeUpdate(stmt);
+    }
+
+    /**
+     * Binds and executes a lookup by context and next word.
+     *
+     * @param stmt the prepared lookup statement
+     * @param context the context key
+     * @param ngramText the N-gram text
+     * @param nextWordId the next word ID
+     * @return the N-gram, or null if not found
+     * @throws SQLException if database error occurs
+     */
+    private NGram executeFindByContextAndNextWord(PreparedStatement stmt, List<Integer> context, String ngramText,
+            int nextWordId) throws SQLException {
+        bindContext(stmt, 1, context);
+        stmt.setInt(7, nextWordId);
+
+        try (ResultSet rs = stmt.executeQuery()) {
+            if (rs.next()) {
+                return mapResultSetToNGram(rs, ngramText);
+            }
+        }
+
+        return null;
+    }
+
     /**
      * Maps a ResultSet row to an NGram object.
      *
      * @param rs the ResultSet
+     * @param ngramText the context text if the caller already knows it, or
+     * null to read the rebuilt ngram_text column
      * @return the NGram object
      * @throws SQLException if error occurs
      */
-    private NGram mapResultSetToNGram(ResultSet rs) throws SQLException {
+    private NGram mapResultSetToNGram(ResultSet rs, String ngramText) throws SQLException {
         NGram ngram = new NGram();
         ngram.setNgramId(rs.getInt("ngram_id"));
+        ngram.setContextId(rs.getInt("context_id"));
         ngram.setN(rs.getInt("n"));
-        ngram.setNgramText(rs.getString("ngram_text"));
+        ngram.setNgramText(ngramText != null ? ngramText : rs.getString("ngram_text"));
         ngram.setNextWordId(rs.getInt("next_word_id"));
         ngram.setTransitionCount(rs.getInt("transition_count"));
         ngram.setTransitionProbability(rs.getDouble("transition_probability"));
@@ -0,0 +1,162 @@
+package edu.utdallas.cs4485.sentencebuilder.dao;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ *
+ * Data Access Object that drops and rebuilds the secondary indexes a bulk
+ * load does not need, so a large import does not pay for index maintenance on
+ * every merged row.
+ *
+ * Only indexes that an import writes but never reads are deferred: the
+ * count and sentence-start indexes, and idx_word_text and idx_first_word,
+ * which duplicate the leading column of a unique or covering index. Primary
+ * keys and unique keys stay in place because the bulk merge relies on them
+ * for ON DUPLICATE KEY UPDATE and for resolving word IDs, the covering
+ * successor indexes stay because autocomplete and generation read through
+ * them while a load runs, and indexes that back a foreign key stay because
+ * MySQL refuses to drop them. The deferred indexes are rebuilt once at the
+ * end with a single ALTER TABLE per table, which sorts and builds all of
+ * that table's indexes in one pass.
+ *
+ * Both operations look at information_schema first and only touch the
+ * indexes that are actually present or missing, so they are safe to repeat.
+ * A load that died with its indexes dropped is repaired by
+ * restoreDeferredIndexes when the application next starts.
+ *
+ * Index DDL is serialized with a process-wide read-write lock. A load that
+ * defers the indexes holds it exclusively from the drop to the rebuild, and
+ * every other import holds it shared, so no import writes while the indexes
+ * are down and two loads never alter the same tables at once. Both
+ * operations take the exclusive lock themselves, so they must not be called
+ * by a thread that holds the shared lock.
+ *
+ * DDL commits implicitly, so these methods run on their own auto-committed
+ * connection and must not be called while a unit of work has uncommitted
+ * changes to the affected tables.
+ *
+ * @author Manraj Singh
+ */
+public class SecondaryIndexDAO {
+
+    // table, index name, column list; grouped by table
+    private static final String[][] DEFERRED_INDEXES = {
+        {"words", "idx_word_text", "word_text"},
+        {"words", "idx_total_count", "total_count"},
+        {"words", "idx_sentence_start", "sentence_start_count"},
+        {"word_pairs", "idx_first_word", "first_word_id"},
+        {"word_pairs", "idx_transition_count", "transition_count"},
+        {"ngrams", "idx_transition_count", "transition_count"}
+    };
+
+    private static final ReentrantReadWriteLock INDEX_LOCK = new ReentrantReadWriteLock();
+
+    private static final String FIND_EXISTING_SQL = "SELECT DISTINCT table_name, index_name "
+            + "FROM information_schema.statistics WHERE table_schema = DATABASE() "
+            + "AND table_name IN ('words', 'word_pairs', 'ngrams')";
+
+    private DatabaseConnection dbConnection;
+
+    /**
+     * Constructor.
+     */
+    public SecondaryIndexDAO() {
+        this.dbConnection = DatabaseConnection.getInstance();
+    }
+
+    /**
+     * Acquires the index lock for an import, waiting while another thread
+     * holds it in a conflicting mode.
+     *
+     * @param exclusive true for a load that drops and rebuilds the deferred
+     * indexes, false for an import that writes with them in place
+     * @return the held lock, which the same thread must unlock
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public static Lock lock(boolean exclusive) throws InterruptedException {
+        Lock lock = exclusive ? INDEX_LOCK.writeLock() : INDEX_LOCK.readLock();
+        lock.lockInterruptibly();
+        return lock;
+    }
+
+    /**
+     * Drops every deferrable secondary index that is present.
+     *
+     * @return number of indexes dropped
+     * @throws SQLException if database error occurs
+     */
+    public int dropDeferredIndexes() throws SQLException {
+        INDEX_LOCK.writeLock().lock();
+        try (Connection conn = dbConnection.getConnection(); Statement stmt = conn.createStatement()) {
+            Set<String> existing = findExisting(stmt);
+            Map<String, List<String>> clauses = new LinkedHashMap<>();
+            for (String[] index : DEFERRED_INDEXES) {
+                if (existing.contains(key(index[0], index[1]))) {
+                    clauses.computeIfAbsent(index[0], table -> new ArrayList<>())
+                            .add("DROP INDEX " + index[1]);
+                }
+            }
+            return alter(stmt, clauses);
+        } finally {
+            INDEX_LOCK.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Builds every deferrable secondary index that is missing, one ALTER
+     * TABLE per table.
+     *
+     * @return number of indexes built
+     * @throws SQLException if database error occurs
+     */
+    public int restoreDeferredIndexes() throws SQLException {
+        INDEX_LOCK.writeLock().lock();
+        try (Connection conn = dbConnection.getConnection(); Statement stmt = conn.createStatement()) {
+            Set<String> existing = findExisting(stmt);
+            Map<String, List<String>> clauses = new LinkedHashMap<>();
+            for (String[] index : DEFERRED_INDEXES) {
+                if (!existing.contains(key(index[0], index[1]))) {
+                    clauses.computeIfAbsent(index[0], table -> new ArrayList<>())
+                            .add("ADD INDEX " + index[1] + " (" + index[2] + ")");
+                }
+            }
+            return alter(stmt, clauses);
+        } finally {
+            INDEX_LOCK.writeLock().unlock();
+        }
+    }
+
+    private Set<String> findExisting(Statement stmt) throws SQLException {
+        Set<String> existing = new HashSet<>();
+        try (ResultSet rs = stmt.executeQuery(FIND_EXISTING_SQL)) {
+            while (rs.next()) {
+                existing.add(key(rs.getString(1), rs.getString(2)));
+            }
+        }
+        return existing;
+    }
+
+    private int alter(Statement stmt, Map<String, List<String>> clauses) throws SQLException {
+        int changed = 0;
+        for (Map.Entry<String, List<String>> table : clauses.entrySet()) {
+            stmt.executeUpdate("ALTER TABLE " + table.getKey() + " " + String.join(", ", table.getValue()));
+            changed += table.getValue().size();
+        }
+        return changed;
+    }
+
+    private static String key(String table, String index) {
+        return table.toLowerCase() + "." + index.toLowerCase();
+    }
+}
@@ -0,0 +1,293 @@
+package edu.utdallas.cs4485.sentencebuilder.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ *
+ * Groups a series of DAO calls onto a single pooled connection running inside
+ * one transaction.
+ *
+ * A unit of work borrows one connection from DatabaseConnection, disables
+ * auto-commit and keeps every prepared statement it hands out in a cache keyed
+ * by its SQL text, so repeated DAO calls during an import reuse the same
+ * server-side statement instead of checking out a connection and preparing
+ * the query again for every word.
+ *
+ * Nothing is visible to other connections until commit is called. Closing a
+ * unit of work that was never committed rolls it back, which lets callers use
+ * try-with-resources and get all-or-nothing behavior when an exception
+ * escapes.
+ *
+ * Statements run through the execute helpers are counted, together with the
+ * rows they wrote, so an import can report statements per second and rows
+ * upserted. Actions registered with afterCommit, such as caching the IDs of
+ * newly inserted words, run only once the work they depend on is committed
+ * and are dropped on rollback. Like the connection itself, a unit of work is meant to be used
+ * by one thread at a time.
+ *
+ * @author Manraj Singh
+ */
+public class UnitOfWork implements AutoCloseable {
+
+    private final Connection connection;
+    private final Map<String, PreparedStatement> statements;
+    private final List<Runnable> commitActions;
+    private boolean dirty;
+    private boolean closed;
+    private long statementCount;
+    private long rowCount;
+
+    /**
+     * Opens a unit of work on a connection from the shared pool.
+     *
+     * @throws SQLException if a connection cannot be obtained
+     */
+    public UnitOfWork() throws SQLException {
+        this(DatabaseConnection.getInstance());
+    }
+
+    /**
+     * Opens a unit of work on a connection from the given pool.
+     *
+     * @param dbConnection the connection pool to borrow from
+     * @throws SQLException if a connection cannot be obtained
+     */
+    public UnitOfWork(DatabaseConnection dbConnection) throws SQLException {
+        this.connection = dbConnection.getConnection();
+        this.statements = new HashMap<>();
+        this.commitActions = new ArrayList<>();
+        try {
+            this.connection.setAutoCommit(false);
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the connection backing this unit of work.
+     *
+     * @return the transactional connection
+     */
+    public Connection getConnection() {
+        return connection;
+    }
+
+    /**
+     * Gets a cached prepared statement for the given SQL, preparing it on
+     * first use. Parameters from a previous call are cleared.
+     *
+     * @param sql the SQL text
+     * @return the prepared statement
+     * @throws SQLException if the statement cannot be prepared
+     */
+    public PreparedStatement prepare(String sql) throws SQLException {
+        return prepare(sql, Statement.NO_GENERATED_KEYS);
+    }
+
+    /**
+     * Gets a cached prepared statement for the given SQL, preparing it on
+     * first use. Statements are cached by SQL text, so a given query must
+     * always be requested with the same generated keys flag.
+     *
+     * @param sql the SQL text
+     * @param autoGeneratedKeys Statement.RETURN_GENERATED_KEYS or
+     * Statement.NO_GENERATED_KEYS
+     * @return the prepared statement
+     * @throws SQLException if the statement cannot be prepared
+     */
+    public PreparedStatement prepare(String sql, int autoGeneratedKeys) throws SQLException {
+        ensureOpen();
+        PreparedStatement stmt = statements.get(sql);
+        if (stmt == null) {
+            stmt = connection.prepareStatement(sql, autoGeneratedKeys);
+            statements.put(sql, stmt);
+        } else {
+            stmt.clearParameters();
+        }
+        dirty = true;
+        return stmt;
+    }
+
+    /**
+     * Executes a batch and counts each batched statement. A statement the
+     * driver reports as successful without a row count (as rewritten or
+     * upsert batches are) counts as one row written.
+     *
+     * @param stmt a statement from this unit of work with batched parameters
+     * @return the driver's update counts
+     * @throws SQLException if the batch fails
+     */
+    public int[] executeBatch(PreparedStatement stmt) throws SQLException {
+        int[] counts = stmt.executeBatch();
+        statementCount += counts.length;
+        for (int count : counts) {
+            if (count > 0) {
+                rowCount += count;
+            } else if (count == Statement.SUCCESS_NO_INFO) {
+                rowCount++;
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Executes an insert, update or delete and counts it.
+     *
+     * @param stmt a statement from this unit of work with bound parameters
+     * @return the number of rows affected
+     * @throws SQLException if the statement fails
+     */
+    public int executeUpdate(PreparedStatement stmt) throws SQLException {
+        int count = stmt.executeUpdate();
+        statementCount++;
+        rowCount += Math.max(0, count);
+        return count;
+    }
+
+    /**
+     * Executes a plain SQL update on a statement created from this unit of
+     * work's connection and counts it.
+     *
+     * @param stmt a statement created from getConnection
+     * @param sql the SQL text
+     * @return the number of rows affected
+     * @throws SQLException if the statement fails
+     */
+    public int executeUpdate(Statement stmt, String sql) throws SQLException {
+        int count = stmt.executeUpdate(sql);
+        statementCount++;
+        rowCount += Math.max(0, count);
+        return count;
+    }
+
+    /**
+     * Executes a query and counts it.
+     *
+     * @param stmt a statement from this unit of work with bound parameters
+     * @return the result set, to be closed by the caller
+     * @throws SQLException if the query fails
+     */
+    public ResultSet executeQuery(PreparedStatement stmt) throws SQLException {
+        ResultSet rs = stmt.executeQuery();
+        statementCount++;
+        return rs;
+    }
+
+    /**
+     * Gets the number of statements run through the execute helpers.
+     *
+     * @return statements executed so far
+     */
+    public long getStatementCount() {
+        return statementCount;
+    }
+
+    /**
+     * Gets the number of rows written by statements run through the execute
+     * helpers.
+     *
+     * @return rows written so far
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Commits all work done since the last commit or rollback.
+     *
+     * @throws SQLException if the commit fails
+     */
+    public void commit() throws SQLException {
+        ensureOpen();
+        connection.commit();
+        dirty = false;
+        for (Runnable action : commitActions) {
+            action.run();
+        }
+        commitActions.clear();
+    }
+
+    /**
+     * Registers an action to run after the next successful commit. The
+     * action is discarded if the work is rolled back instead.
+     *
+     * @param action the action to run
+     */
+    public void afterCommit(Runnable action) {
+        commitActions.add(action);
+    }
+
+    /**
+     * Discards all work done since the last commit.
+     *
+     * @throws SQLException if the rollback fails
+     */
+    public void rollback() throws SQLException {
+        ensureOpen();
+        connection.rollback();
+        dirty = false;
+        commitActions.clear();
+    }
+
+    /**
+     * Checks whether this unit of work has been closed.
+     *
+     * @return true if closed
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Closes every cached statement and returns the connection to the pool.
+     * Uncommitted work is rolled back first.
+     *
+     * @throws SQLException if the connection cannot be released cleanly
+     */
+    @Override
+    public void close() throws SQLException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        try {
+            for (PreparedStatement stmt : statements.values()) {
+                try {
+                    stmt.close();
+                } catch (SQLException e) {
+                    System.err.println("Failed to close statement: " + e.getMessage());
+                }
+            }
+            statements.clear();
+            commitActions.clear();
+
+            if (dirty) {
+                connection.rollback();
+            }
+            connection.setAutoCommit(true);
+        } finally {
+            connection.close();
+        }
+    }
+
+    /**
+     * Verifies that this unit of work can still be used.
+     *
+     * @throws SQLException if already closed
+     */
+    private void ensureOpen() throws SQLException {
+        if (closed) {
+            throw new SQLException("Unit of work is already closed");
+        }
+    }
+}
@@ -6,7 +6,13 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 import edu.utdallas.cs4485.sentencebuilder.model.Word;
 
@@ -23,17 +29,57 @@ import edu.utdallas.cs4485.sentencebuilder.model.Word;
  * All database operations use prepared statements to prevent SQL injection and
  * ensure type safety. Connections are managed through the DatabaseConnection pool.
  *
+ * Every word ID this DAO reads or creates is remembered in the shared
+ * WordIdCache, so findIdByText, findTextById and resolveIds answer common
+ * words without a query. IDs seen inside a unit of work are cached only once
+ * it commits, so a rolled-back insert never leaves a dangling ID behind.
+ *
  * @author Bhaskar Atmakuri
  */
 public class WordDAO {
 
+    private static final String INSERT_SQL = "INSERT INTO words (word_text, total_count, sentence_start_count, sentence_end_count) "
+            + "VALUES (?, ?, ?, ?)";
+    private static final String UPDATE_SQL = "UPDATE words SET total_count = ?, sentence_start_count = ?, "
+            + "sentence_end_count = ? WHERE word_id = ?";
+    private static final String FIND_BY_TEXT_SQL = "SELECT * FROM words WHERE word_text = ?";
+    private static final String ADD_COUNTS_SQL = "INSERT INTO words (word_text, total_count, sentence_start_count, sentence_end_count) "
+            + "VALUES (?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE total_count = total_count + VALUES(total_count), "
+            + "sentence_start_count = sentence_start_count + VALUES(sentence_start_count), "
+            + "sentence_end_count = sentence_end_count + VALUES(sentence_end_count)";
+    private static final String CREATE_IF_MISSING_SQL = "INSERT INTO words (word_text) VALUES (?) "
+            + "ON DUPLICATE KEY UPDATE word_id = word_id";
+    private static final String FIND_IDS_BY_TEXT_SQL = "SELECT word_id, word_text FROM words WHERE word_text IN (%s)";
+    private static final String FIND_BY_TEXTS_SQL = "SELECT * FROM words WHERE word_text IN (%s)";
+    private static final String FIND_BY_IDS_SQL = "SELECT * FROM words WHERE word_id IN (%s)";
+    // Escapes are backslashes, MySQL's default for LIKE
+    private static final String PREFIX_CONDITION = "word_text LIKE ?";
+    private static final String COUNT_BY_PREFIX_SQL = "SELECT COUNT(*) FROM words WHERE " + PREFIX_CONDITION;
+    private static final String SUBTRACT_PAIR_TOTALS_SQL = "UPDATE pair_context_totals t "
+            + "JOIN (SELECT first_word_id, SUM(transition_count) AS total FROM word_pairs "
+            + "      WHERE second_word_id = ? GROUP BY first_word_id) d ON t.first_word_id = d.first_word_id "
+            + "SET t.total_count = t.total_count - d.total";
+    private static final String SUBTRACT_NGRAM_TOTALS_SQL = "UPDATE ngram_contexts c "
+            + "JOIN (SELECT context_id, SUM(transition_count) AS total FROM ngrams "
+            + "      WHERE next_word_id = ? GROUP BY context_id) d ON c.context_id = d.context_id "
+            + "SET c.total_count = c.total_count - d.total";
+    // Contexts that contain the word go with it; their N-grams cascade
+    private static final String DELETE_NGRAM_CONTEXTS_SQL = "DELETE FROM ngram_contexts "
+            + "WHERE ? IN (word1_id, word2_id, word3_id, word4_id, word5_id)";
+    private static final String DELETE_SQL = "DELETE FROM words WHERE word_id = ?";
+    private static final int BATCH_SIZE = 1000;
+    private static final int LOOKUP_CHUNK_SIZE = 500;
+
     private DatabaseConnection dbConnection;
+    private WordIdCache cache;
 
     /**
      * Constructor.
      */
     public WordDAO() {
         this.dbConnection = DatabaseConnection.getInstance();
+        this.cache = WordIdCache.getInstance();
     }
 
     /**
@@ -44,49 +90,148 @@ public class WordDAO {
      * @throws SQLException if database error occurs
      */
     public Word insert(Word word) throws SQLException {
-        // TODO: Implement word insertion
-        String sql = "INSERT INTO words (word_text, total_count, sentence_start_count, sentence_end_count) "
-                + "VALUES (?, ?, ?, ?)";
+        try (UnitOfWork unitOfWork = new UnitOfWork(dbConnection)) {
+            insert(unitOfWork, word);
+            unitOfWork.commit();
+            return word;
+        }
+    }
 
-        try (Connection conn = dbConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+    /**
+     * Inserts a new word as part of a unit of work.
+     *
+     * @param unitOfWork the active unit of work
+     * @param word the word to insert
+     * @return the inserted word with updated ID
+     * @throws SQLException if database error occurs
+     */
+    public Word insert(UnitOfWork unitOfWork, Word word) throws SQLException {
+        return remember(unitOfWork, executeInsert(unitOfWork, unitOfWork.prepare(INSERT_SQL, Statement.RETURN_GENERATED_KEYS), word));
+    }
 
-            stmt.setString(1, word.getWordText());
-            stmt.setInt(2, word.getTotalCount());
-            stmt.setInt(3, word.getSentenceStartCount());
-            stmt.setInt(4, word.getSentenceEndCount());
+    /**
+     * Updates an existing word in the database.
+     *
+     * @param word the word to update
+     * @throws SQLException if database error occurs
+     */
+    public void update(Word word) throws SQLException {
+        try (UnitOfWork unitOfWork = new UnitOfWork(dbConnection)) {
+            update(unitOfWork, word);
+            unitOfWork.commit();
+        }
+    }
 
-            stmt.executeUpdate();
+    /**
+     * Updates an existing word as part of a unit of work.
+     *
+     * @param unitOfWork the active unit of work
+     * @param word the word to update
+     * @throws SQLException if database error occurs
+     */
+    public void update(UnitOfWork unitOfWork, Word word) throws SQLException {
+        executeUpdate(unitOfWork, unitOfWork.prepare(UPDATE_SQL), word);
+    }
 
-            try (ResultSet keys = stmt.getGeneratedKeys()) {
-                if (keys.next()) {
-                    word.setWordId(keys.getInt(1));
-                }
+    /**
+     * Adds count deltas to many words at once as part of a unit of work,
+     * creating words that do not exist yet. Each Word carries the amounts to
+     * add, not the new totals. Statements are sent in batches.
+     *
+     * @param unitOfWork the active unit of work
+     * @param deltas words with the counts to add
+     * @throws SQLException if database error occurs
+     */
+    public void addCounts(UnitOfWork unitOfWork, List<Word> deltas) throws SQLException {
+        PreparedStatement stmt = unitOfWork.prepare(ADD_COUNTS_SQL);
+        int pending = 0;
+
+        for (Word delta : deltas) {
+            stmt.setString(1, delta.getWordText());
+            stmt.setInt(2, delta.getTotalCount());
+            stmt.setInt(3, delta.getSentenceStartCount());
+            stmt.setInt(4, delta.getSentenceEndCount());
+            stmt.addBatch();
+
+            if (++pending == BATCH_SIZE) {
+                unitOfWork.executeBatch(stmt);
+                pending = 0;
             }
         }
 
-        return word;
+        if (pending > 0) {
+            unitOfWork.executeBatch(stmt);
+        }
     }
 
     /**
-     * Updates an existing word in the database.
+     * Looks up the IDs of many words at once as part of a unit of work,
+     * creating words that do not exist yet with zero counts. Lookups are
+     * sent as IN-lists of up to 500 words, and only the missing words are
+     * inserted, in batches.
      *
-     * @param word the word to update
+     * @param unitOfWork the active unit of work
+     * @param wordTexts the words to resolve
+     * @return map of word text to word ID, covering every requested word
      * @throws SQLException if database error occurs
      */
-    public void update(Word word) throws SQLException {
-        // TODO: Implement word update
-        String sql = "UPDATE words SET total_count = ?, sentence_start_count = ?, "
-                + "sentence_end_count = ? WHERE word_id = ?";
+    public Map<String, Integer> resolveIds(UnitOfWork unitOfWork, Collection<String> wordTexts) throws SQLException {
+        Map<String, Integer> ids = new HashMap<>();
+        List<String> uncached = new ArrayList<>();
+        for (String wordText : wordTexts) {
+            Integer id = cache.getId(wordText);
+            if (id != null) {
+                ids.put(wordText, id);
+            } else {
+                uncached.add(wordText);
+            }
+        }
+        if (uncached.isEmpty()) {
+            return ids;
+        }
 
-        try (Connection conn = dbConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+        Map<String, Integer> found = findIdsByText(unitOfWork, uncached);
+        ids.putAll(found);
+        List<String> missing = new ArrayList<>();
+        for (String wordText : uncached) {
+            if (!ids.containsKey(wordText)) {
+                missing.add(wordText);
+            }
+        }
+        if (missing.isEmpty()) {
+            unitOfWork.afterCommit(() -> cache.putAll(found));
+            return ids;
+        }
 
-            stmt.setInt(1, word.getTotalCount());
-            stmt.setInt(2, word.getSentenceStartCount());
-            stmt.setInt(3, word.getSentenceEndCount());
-            stmt.setInt(4, word.getWordId());
+        PreparedStatement stmt = unitOfWork.prepare(CREATE_IF_MISSING_SQL);
+        int pending = 0;
+        for (String wordText : missing) {
+            stmt.setString(1, wordText);
+            stmt.addBatch();
 
-            stmt.executeUpdate();
+            if (++pending == BATCH_SIZE) {
+                unitOfWork.executeBatch(stmt);
+                pending = 0;
+            }
+        }
+        if (pending > 0) {
+            unitOfWork.executeBatch(stmt);
+        }
+
+        found.putAll(findIdsByText(unitOfWork, missing));
+        unitOfWork.afterCommit(() -> cache.putAll(found));
+        ids.putAll(found);
+        for (String wordText : missing) {
+            if (!ids.containsKey(wordText)) {
+                // The column collation matched a stored word spelled differently
+                Word word = findByText(unitOfWork, wordText);
+                if (word == null) {
+                    throw new SQLException("Could not resolve word: " + wordText);
+                }
+                ids.put(wordText, word.getWordId());
+            }
         }
+        return ids;
     }
 
     /**
@@ -97,21 +242,179 @@ public class WordDAO {
      * @throws SQLException if database error occurs
      */
     public Word findByText(String wordText) throws SQLException {
-        // TODO: Implement word search by text
-        String sql = "SELECT * FROM words WHERE word_text = ?";
+        try (Connection conn = dbConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(FIND_BY_TEXT_SQL)) {
+            return remember(executeFindByText(stmt, wordText));
+        }
+    }
 
-        try (Connection conn = dbConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+    /**
+     * Finds a word by its text as part of a unit of work, so uncommitted
+     * inserts from the same import are visible.
+     *
+     * @param unitOfWork the active unit of work
+     * @param wordText the word text
+     * @return the word, or null if not found
+     * @throws SQLException if database error occurs
+     */
+    public Word findByText(UnitOfWork unitOfWork, String wordText) throws SQLException {
+        return remember(unitOfWork, executeFindByText(unitOfWork.prepare(FIND_BY_TEXT_SQL), wordText));
+    }
 
-            stmt.setString(1, wordText);
+    /**
+     * Finds a word's ID, answering from the word ID cache when possible.
+     *
+     * @param wordText the word text
+     * @return the word ID, or null if not found
+     * @throws SQLException if database error occurs
+     */
+    public Integer findIdByText(String wordText) throws SQLException {
+        Integer id = cache.getId(wordText);
+        if (id != null) {
+            return id;
+        }
+        Word word = findByText(wordText);
+        return word == null ? null : word.getWordId();
+    }
 
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return mapResultSetToWord(rs);
+    /**
+     * Finds a word's ID as part of a unit of work, answering from the word
+     * ID cache when possible.
+     *
+     * @param unitOfWork the active unit of work
+     * @param wordText the word text
+     * @return the word ID, or null if not found
+     * @throws SQLException if database error occurs
+     */
+    public Integer findIdByText(UnitOfWork unitOfWork, String wordText) throws SQLException {
+        Integer id = cache.getId(wordText);
+        if (id != null) {
+            return id;
+        }
+        Word word = findByText(unitOfWork, wordText);
+        return word == null ? null : word.getWordId();
+    }
+
+    /**
+     * Finds many words by text with one IN-list query per 500 words, all on
+     * one connection.
+     *
+     * @param wordTexts the words to find
+     * @return map of stored word text to word; words not found are left out
+     * @throws SQLException if database error occurs
+     */
+    public Map<String, Word> findByTexts(Collection<String> wordTexts) throws SQLException {
+        Map<String, Word> words = new HashMap<>();
+        try (Connection conn = dbConnection.getConnection()) {
+            for (List<String> chunk : partition(wordTexts)) {
+                for (Word word : executeFindByKeys(conn, FIND_BY_TEXTS_SQL, chunk)) {
+                    words.put(word.getWordText(), word);
                 }
             }
         }
+        return words;
+    }
 
-        return null;
+    /**
+     * Finds many words by ID with one IN-list query per 500 IDs, all on one
+     * connection.
+     *
+     * @param wordIds the IDs to find
+     * @return map of word ID to word; IDs not found are left out
+     * @throws SQLException if database error occurs
+     */
+    public Map<Integer, Word> findByIds(Collection<Integer> wordIds) throws SQLException {
+        Map<Integer, Word> words = new HashMap<>();
+        try (Connection conn = dbConnection.getConnection()) {
+            for (List<Integer> chunk : partition(wordIds)) {
+                for (Word word : executeFindByKeys(conn, FIND_BY_IDS_SQL, chunk)) {
+                    words.put(word.getWordId(), word);
+                }
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Finds the IDs of many words. Words in the word ID cache cost nothing;
+     * the rest are fetched with findByTexts.
+     *
+     * @param wordTexts the words to find
+     * @return map of requested word text to word ID; words not found are
+     * left out
+     * @throws SQLException if database error occurs
+     */
+    public Map<String, Integer> findIdsByTexts(Collection<String> wordTexts) throws SQLException {
+        Map<String, Integer> ids = new HashMap<>();
+        List<String> uncached = new ArrayList<>();
+        for (String wordText : wordTexts) {
+            Integer id = cache.getId(wordText);
+            if (id != null) {
+                ids.put(wordText, id);
+            } else {
+                uncached.add(wordText);
+            }
+        }
+        if (uncached.isEmpty()) {
+            return ids;
+        }
+
+        Map<String, Word> found = findByTexts(uncached);
+        for (String wordText : uncached) {
+            Word word = found.get(wordText);
+            if (word == null) {
+                // The column collation matched a stored word spelled differently
+                word = found.values().stream()
+                        .filter(candidate -> candidate.getWordText().equalsIgnoreCase(wordText))
+                        .findFirst().orElse(null);
+            }
+            if (word != null) {
+                ids.put(wordText, word.getWordId());
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Finds the text of many words. IDs in the word ID cache cost nothing;
+     * the rest are fetched with findByIds.
+     *
+     * @param wordIds the IDs to find
+     * @return map of word ID to word text; IDs not found are left out
+     * @throws SQLException if database error occurs
+     */
+    public Map<Integer, String> findTextsByIds(Collection<Integer> wordIds) throws SQLException {
+        Map<Integer, String> texts = new HashMap<>();
+        List<Integer> uncached = new ArrayList<>();
+        for (Integer wordId : wordIds) {
+            String text = cache.getText(wordId);
+            if (text != null) {
+                texts.put(wordId, text);
+            } else {
+                uncached.add(wordId);
+            }
+        }
+        if (!uncached.isEmpty()) {
+            for (Word word : findByIds(uncached).values()) {
+                texts.put(word.getWordId(), word.getWordText());
+            }
+        }
+        return texts;
+    }
+
+    /**
+     * Finds a word's text, answering from the word ID cache when possible.
+     *
+     * @param wordId the word ID
+     * @return the word text, or null if not found
+     * @throws SQLException if database error occurs
+     */
+    public String findTextById(int wordId) throws SQLException {
+        String text = cache.getText(wordId);
+        if (text != null) {
+            return text;
+        }
+        Word word = findById(wordId);
+        return word == null ? null : word.getWordText();
     }
 
     /**
@@ -131,7 +434,7 @@ public class WordDAO {
 
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToWord(rs);
+                    return remember(mapResultSetToWord(rs));
                 }
             }
         }
@@ -140,24 +443,105 @@ public class WordDAO {
     }
 
     /**
-     * Finds all words in the database.
+     * Reads the page of words that follows a given word in the chosen sort
+     * order. Pages are found with a keyset seek on the sort column and word
+     * ID, so every page costs the same however deep it is.
      *
-     * @return list of all words
+     * @param sort the column to sort by
+     * @param ascending sort direction
+     * @param prefix only words starting with this text, or null for all
+     * words
+     * @param after the last word of the previous page, or null for the
+     * first page
+     * @param limit maximum number of words to return
+     * @return the page, empty past the end
      * @throws SQLException if database error occurs
      */
-    public List<Word> findAll() throws SQLException {
-        // TODO: Implement find all words
-        String sql = "SELECT * FROM words ORDER BY total_count DESC";
-        List<Word> words = new ArrayList<>();
+    public List<Word> findPage(SortColumn sort, boolean ascending, String prefix, Word after, int limit) throws SQLException {
+        List<String> conditions = new ArrayList<>();
+        if (prefix != null) {
+            conditions.add(PREFIX_CONDITION);
+        }
+        if (after != null) {
+            conditions.add(Keyset.after(sort.column, "word_id", ascending));
+        }
+        String sql = "SELECT * FROM words " + where(conditions)
+                + "ORDER BY " + Keyset.orderBy(sort.column, "word_id", ascending) + " LIMIT ?";
 
-        try (Connection conn = dbConnection.getConnection(); Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+        try (Connection conn = dbConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int index = 1;
+            if (prefix != null) {
+                stmt.setString(index++, likePrefix(prefix));
+            }
+            if (after != null) {
+                index = Keyset.bind(stmt, index, sort.column, "word_id", sort.valueOf(after), after.getWordId());
+            }
+            stmt.setInt(index, limit);
+            return executeFindPage(stmt);
+        }
+    }
 
-            while (rs.next()) {
-                words.add(mapResultSetToWord(rs));
+    /**
+     * Reads the page of words at a row offset in the chosen sort order, for
+     * jumping into the middle of the table. The offset is walked on the
+     * index alone and only the page's rows are read in full.
+     *
+     * @param sort the column to sort by
+     * @param ascending sort direction
+     * @param prefix only words starting with this text, or null for all
+     * words
+     * @param offset number of words to skip
+     * @param limit maximum number of words to return
+     * @return the page, empty past the end
+     * @throws SQLException if database error occurs
+     */
+    public List<Word> findPage(SortColumn sort, boolean ascending, String prefix, int offset, int limit) throws SQLException {
+        String order = Keyset.orderBy(sort.column, "word_id", ascending);
+        String sql = "SELECT words.* FROM words "
+                + "JOIN (SELECT word_id FROM words " + (prefix == null ? "" : "WHERE " + PREFIX_CONDITION + " ")
+                + "ORDER BY " + order + " LIMIT ?, ?) page USING (word_id) "
+                + "ORDER BY " + order;
+
+        try (Connection conn = dbConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int index = 1;
+            if (prefix != null) {
+                stmt.setString(index++, likePrefix(prefix));
             }
+            stmt.setInt(index++, offset);
+            stmt.setInt(index, limit);
+            return executeFindPage(stmt);
         }
+    }
 
-        return words;
+    /**
+     * Counts the words in the database.
+     *
+     * @return number of words
+     * @throws SQLException if database error occurs
+     */
+    public int count() throws SQLException {
+        try (Connection conn = dbConnection.getConnection(); Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM words")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Counts the words that start with a prefix. The count is a range scan
+     * of the word text index.
+     *
+     * @param prefix the start of the word text
+     * @return number of matching words
+     * @throws SQLException if database error occurs
+     */
+    public int countByPrefix(String prefix) throws SQLException {
+        try (Connection conn = dbConnection.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(COUNT_BY_PREFIX_SQL)) {
+            stmt.setString(1, likePrefix(prefix));
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
     }
 
     /**
@@ -188,20 +572,238 @@ public class WordDAO {
     }
 
     /**
-     * Deletes a word from the database.
+     * Deletes a word from the database. Word pairs and N-grams that lead to
+     * the word are removed by cascade, so their counts are first taken off
+     * the context totals they belong to, in the same transaction. N-gram
+     * contexts that contain the word are deleted together with their N-grams.
      *
      * @param wordId the ID of the word to delete
      * @throws SQLException if database error occurs
      */
     public void delete(int wordId) throws SQLException {
         // TODO: Implement word deletion
-        String sql = "DELETE FROM words WHERE word_id = ?";
+        try (UnitOfWork unitOfWork = new UnitOfWork(dbConnection)) {
+            for (String sql : new String[]{SUBTRACT_PAIR_TOTALS_SQL, SUBTRACT_NGRAM_TOTALS_SQL,
+                DELETE_NGRAM_CONTEXTS_SQL, DELETE_SQL}) {
+                PreparedStatement stmt = unitOfWork.prepare(sql);
+                stmt.setInt(1, wordId);
+                unitOfWork.executeUpdate(stmt);
+            }
+            unitOfWork.afterCommit(() -> cache.remove(wordId));
+            unitOfWork.commit();
+        }
+    }
 
-        try (Connection conn = dbConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+    /**
+     * Turns a word prefix into a LIKE pattern, escaping the wildcards it
+     * contains so they match literally.
+     *
+     * @param prefix the start of the word text
+     * @return the pattern
+     */
+    static String likePrefix(String prefix) {
+        return prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
 
-            stmt.setInt(1, wordId);
-            stmt.executeUpdate();
+    private static String where(List<String> conditions) {
+        return conditions.isEmpty() ? "" : "WHERE " + String.join(" AND ", conditions) + " ";
+    }
+
+    /**
+     * Executes a page query and caches the IDs it finds.
+     *
+     * @param stmt the bound page query
+     * @return the words of the page
+     * @throws SQLException if database error occurs
+     */
+    private List<Word> executeFindPage(PreparedStatement stmt) throws SQLException {
+        List<Word> words = new ArrayList<>();
+        try (ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                words.add(remember(mapResultSetToWord(rs)));
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Adds a committed word to the word ID cache.
+     *
+     * @param word the word, or null
+     * @return the same word
+     */
+    private Word remember(Word word) {
+        if (word != null && word.getWordId() > 0) {
+            cache.put(word.getWordText(), word.getWordId());
+        }
+        return word;
+    }
+
+    /**
+     * Adds a word to the word ID cache once the unit of work commits.
+     *
+     * @param unitOfWork the active unit of work
+     * @param word the word, or null
+     * @return the same word
+     */
+    private Word remember(UnitOfWork unitOfWork, Word word) {
+        if (word != null && word.getWordId() > 0) {
+            String wordText = word.getWordText();
+            int wordId = word.getWordId();
+            unitOfWork.afterCommit(() -> cache.put(wordText, wordId));
+        }
+        return word;
+    }
+
+    /**
+     * Looks up word IDs with chunked IN-lists. Words not in the table, or
+     * stored with a spelling the collation treats as equal, are left out.
+     *
+     * @param unitOfWork the active unit of work
+     * @param wordTexts the words to look up
+     * @return map of word text to word ID
+     * @throws SQLException if database error occurs
+     */
+    private Map<String, Integer> findIdsByText(UnitOfWork unitOfWork, Collection<String> wordTexts) throws SQLException {
+        Map<String, Integer> ids = new HashMap<>();
+        for (List<String> chunk : partition(wordTexts)) {
+            executeFindIdsByText(unitOfWork, chunk, ids);
+        }
+        return ids;
+    }
+
+    /**
+     * Splits lookup keys into IN-list sized chunks, dropping duplicates.
+     *
+     * @param keys the keys to look up
+     * @param <T> key type
+     * @return chunks of at most 500 keys
+     */
+    private static <T> List<List<T>> partition(Collection<T> keys) {
+        List<List<T>> chunks = new ArrayList<>();
+        List<T> chunk = new ArrayList<>(LOOKUP_CHUNK_SIZE);
+        for (T key : new LinkedHashSet<>(keys)) {
+            chunk.add(key);
+            if (chunk.size() == LOOKUP_CHUNK_SIZE) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>(LOOKUP_CHUNK_SIZE);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
         }
+        return chunks;
+    }
+
+    /**
+     * Binds and executes one IN-list query for whole word rows, caching the
+     * IDs it finds.
+     *
+     * @param conn the connection to query on
+     * @param sql the query with a %s placeholder for the IN-list
+     * @param keys the word texts or IDs in this chunk
+     * @return the words found
+     * @throws SQLException if database error occurs
+     */
+    private List<Word> executeFindByKeys(Connection conn, String sql, List<?> keys) throws SQLException {
+        String placeholders = String.join(", ", Collections.nCopies(keys.size(), "?"));
+        List<Word> words = new ArrayList<>(keys.size());
+        try (PreparedStatement stmt = conn.prepareStatement(String.format(sql, placeholders))) {
+            for (int i = 0; i < keys.size(); i++) {
+                stmt.setObject(i + 1, keys.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    words.add(remember(mapResultSetToWord(rs)));
+                }
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Binds and executes one IN-list lookup, adding the matches to ids.
+     *
+     * @param unitOfWork the active unit of work
+     * @param wordTexts the words in this chunk
+     * @param ids receives word text to word ID
+     * @throws SQLException if database error occurs
+     */
+    private void executeFindIdsByText(UnitOfWork unitOfWork, List<String> wordTexts, Map<String, Integer> ids) throws SQLException {
+        String placeholders = String.join(", ", Collections.nCopies(wordTexts.size(), "?"));
+        PreparedStatement stmt = unitOfWork.prepare(String.format(FIND_IDS_BY_TEXT_SQL, placeholders));
+        for (int i = 0; i < wordTexts.size(); i++) {
+            stmt.setString(i + 1, wordTexts.get(i));
+        }
+
+        try (ResultSet rs = unitOfWork.executeQuery(stmt)) {
+            while (rs.next()) {
+                ids.put(rs.getString("word_text"), rs.getInt("word_id"));
+            }
+        }
+    }
+
+    /**
+     * Binds and executes an insert statement.
+     *
+     * @param unitOfWork the unit of work that counts the statement
+     * @param stmt the prepared insert statement
+     * @param word the word to insert
+     * @return the inserted word with updated ID
+     * @throws SQLException if database error occurs
+     */
+    private Word executeInsert(UnitOfWork unitOfWork, PreparedStatement stmt, Word word) throws SQLException {
+        stmt.setString(1, word.getWordText());
+        stmt.setInt(2, word.getTotalCount());
+        stmt.setInt(3, word.getSentenceStartCount());
+        stmt.setInt(4, word.getSentenceEndCount());
+
+        unitOfWork.executeUpdate(stmt);
+
+        try (ResultSet keys = stmt.getGeneratedKeys()) {
+            if (keys.next()) {
+                word.setWordId(keys.getInt(1));
+            }
+        }
+
+        return word;
+    }
+
+    /**
+     * Binds and executes an update statement.
+     *
+     * @param unitOfWork the unit of work that counts the statement
+     * @param stmt the prepared update statement
+     * @param word the word to update
+     * @throws SQLException if database error occurs
+     */
+    private void executeUpdate(UnitOfWork unitOfWork, PreparedStatement stmt, Word word) throws SQLException {
+        stmt.setInt(1, word.getTotalCount());
+        stmt.setInt(2, word.getSentenceStartCount());
+        stmt.setInt(3, word.getSentenceEndCount());
+        stmt.setInt(4, word.getWordId());
+
+        unitOfWork.executeUpdate(stmt);
+    }
+
+    /**
+     * Binds and executes a lookup by word text.
+     *
+     * @param stmt the prepared lookup statement
+     * @param wordText the word text
+     * @return the word, or null if not found
+     * @throws SQLException if database error occurs
+     */
+    private Word executeFindByText(PreparedStatement stmt, String wordText) throws SQLException {
+        stmt.setString(1, wordText);
+
+        try (ResultSet rs = stmt.executeQuery()) {
+            if (rs.next()) {
+                return mapResultSetToWord(rs);
+            }
+        }
+
+        return null;
     }
 
     /**
@@ -222,4 +824,26 @@ public class WordDAO {
         word.setUpdatedAt(rs.getTimestamp("updated_at"));
         return word;
     }
+
+    /**
+     * Columns words can be paged by. Each one is backed by an index, so a
+     * page never sorts the whole table.
+     */
+    public enum SortColumn {
+        WORD_TEXT("word_text", Word::getWordText),
+        TOTAL_COUNT("total_count", Word::getTotalCount),
+        START_COUNT("sentence_start_count", Word::getSentenceStartCount);
+
+        private final String column;
+        private final Function<Word, Object> value;
+
+        SortColumn(String column, Function<Word, Object> value) {
+            this.column = column;
+            this.value = value;
+        }
+
+        private Object valueOf(Word word) {
+            return value.apply(word);
+        }
+    }
 }
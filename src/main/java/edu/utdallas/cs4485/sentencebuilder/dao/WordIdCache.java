@@ -0,0 +1,194 @@
+package edu.utdallas.cs4485.sentencebuilder.dao;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import edu.utdallas.cs4485.sentencebuilder.util.ConfigurationManager;
+
+/**
+ *
+ * Bounded two-way cache of word text to word ID and word ID to word text,
+ * shared by every WordDAO.
+ *
+ * Imports, autocomplete and generation resolve the same few thousand common
+ * words over and over; the cache lets them skip the round trip to MySQL for
+ * words it has already seen. Only the text/ID mapping is cached, never the
+ * counts, because counts change with every import while a word's ID does
+ * not change until the word is deleted.
+ *
+ * Entries are keyed by the word text as stored in the words table. When the
+ * cache is full the least recently used word is evicted from both
+ * directions. All methods are synchronized, so the cache can be used from
+ * import workers and background lookups at the same time. Hits, misses and
+ * evictions are counted for the hit-rate metrics.
+ *
+ * IDs created inside a unit of work must only be added once that unit of
+ * work has committed; WordDAO registers them with UnitOfWork.afterCommit.
+ *
+ * @author Bhaskar Atmakuri
+ */
+public class WordIdCache {
+
+    private static WordIdCache instance;
+
+    private final int capacity;
+    private final LinkedHashMap<String, Integer> idsByText;
+    private final Map<Integer, String> textsById;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Constructor.
+     *
+     * @param capacity maximum number of words kept
+     */
+    WordIdCache(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        this.textsById = new HashMap<>();
+        this.idsByText = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+                if (size() <= WordIdCache.this.capacity) {
+                    return false;
+                }
+                textsById.remove(eldest.getValue());
+                evictions++;
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Gets the shared instance. The capacity comes from
+     * application.properties.
+     *
+     * @return the word ID cache
+     */
+    public static synchronized WordIdCache getInstance() {
+        if (instance == null) {
+            instance = new WordIdCache(
+                    ConfigurationManager.getInstance().getIntProperty("cache.word.ids.max", 50000));
+        }
+        return instance;
+    }
+
+    /**
+     * Looks up a word's ID.
+     *
+     * @param wordText the word text
+     * @return the word ID, or null if not cached
+     */
+    public synchronized Integer getId(String wordText) {
+        Integer id = idsByText.get(wordText);
+        if (id == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return id;
+    }
+
+    /**
+     * Looks up a word's text.
+     *
+     * @param wordId the word ID
+     * @return the word text, or null if not cached
+     */
+    public synchronized String getText(int wordId) {
+        String text = textsById.get(wordId);
+        if (text == null) {
+            misses++;
+            return null;
+        }
+        // Refresh the entry's position in the eviction order
+        idsByText.get(text);
+        hits++;
+        return text;
+    }
+
+    /**
+     * Adds or refreshes a word.
+     *
+     * @param wordText the word text as stored in the words table
+     * @param wordId the word ID
+     */
+    public synchronized void put(String wordText, int wordId) {
+        String previousText = textsById.put(wordId, wordText);
+        if (previousText != null && !previousText.equals(wordText)) {
+            idsByText.remove(previousText);
+        }
+        Integer previousId = idsByText.put(wordText, wordId);
+        if (previousId != null && previousId != wordId) {
+            textsById.remove(previousId);
+        }
+    }
+
+    /**
+     * Adds or refreshes many words.
+     *
+     * @param wordIds map of word text to word ID
+     */
+    public synchronized void putAll(Map<String, Integer> wordIds) {
+        for (Map.Entry<String, Integer> entry : wordIds.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Removes a deleted word.
+     *
+     * @param wordId the word ID
+     */
+    public synchronized void remove(int wordId) {
+        String text = textsById.remove(wordId);
+        if (text != null) {
+            idsByText.remove(text);
+        }
+    }
+
+    /**
+     * Removes every word. The metrics are kept.
+     */
+    public synchronized void clear() {
+        idsByText.clear();
+        textsById.clear();
+    }
+
+    public synchronized int size() {
+        return idsByText.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Gets the share of lookups answered from the cache.
+     *
+     * @return hit rate between 0 and 1, 0 before the first lookup
+     */
+    public synchronized double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("word cache: %d/%d words, %.0f%% hits, %d evictions",
+                idsByText.size(), capacity, getHitRate() * 100, evictions);
+    }
+}
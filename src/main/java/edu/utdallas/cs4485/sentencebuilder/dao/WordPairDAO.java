@@ -6,7 +6,10 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 import edu.utdallas.cs4485.sentencebuilder.model.WordPair;
 
@@ -28,6 +31,43 @@ import edu.utdallas.cs4485.sentencebuilder.model.WordPair;
  */
 public class WordPairDAO {
 
+    // Probability is derived on read from the context total of the first word
+    private static final String SELECT_WITH_PROBABILITY = "SELECT wp.*, wp.transition_count / t.total_count AS transition_probability ";
+    private static final String JOIN_TOTALS = "LEFT JOIN pair_context_totals t ON t.first_word_id = wp.first_word_id ";
+
+    private static final String INSERT_SQL = "INSERT INTO word_pairs (first_word_id, second_word_id, transition_count) "
+            + "VALUES (?, ?, ?)";
+    private static final String UPDATE_SQL = "UPDATE word_pairs SET transition_count = ? WHERE pair_id = ?";
+    private static final String FIND_BY_WORD_IDS_SQL = SELECT_WITH_PROBABILITY + "FROM word_pairs wp " + JOIN_TOTALS
+            + "WHERE wp.first_word_id = ? AND wp.second_word_id = ?";
+    private static final String ADD_TRANSITION_COUNTS_SQL = "INSERT INTO word_pairs (first_word_id, second_word_id, transition_count) "
+            + "VALUES (?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE transition_count = transition_count + VALUES(transition_count)";
+    private static final String ADD_CONTEXT_TOTALS_SQL = "INSERT INTO pair_context_totals (first_word_id, total_count) "
+            + "VALUES (?, ?) "
+            + "ON DUPLICATE KEY UPDATE total_count = total_count + VALUES(total_count)";
+    private static final String ADJUST_TOTAL_FOR_UPDATE_SQL = "UPDATE pair_context_totals t "
+            + "JOIN word_pairs wp ON t.first_word_id = wp.first_word_id "
+            + "SET t.total_count = t.total_count + ? - wp.transition_count WHERE wp.pair_id = ?";
+    private static final String SUBTRACT_TOTAL_FOR_DELETE_SQL = "UPDATE pair_context_totals t "
+            + "JOIN word_pairs wp ON t.first_word_id = wp.first_word_id "
+            + "SET t.total_count = t.total_count - wp.transition_count WHERE wp.pair_id = ?";
+    private static final String DELETE_SQL = "DELETE FROM word_pairs WHERE pair_id = ?";
+    private static final String SELECT_WITH_TEXTS = SELECT_WITH_PROBABILITY
+            + ", w1.word_text as first_word_text, w2.word_text as second_word_text ";
+    private static final String JOIN_TEXTS = "JOIN words w1 ON wp.first_word_id = w1.word_id "
+            + "JOIN words w2 ON wp.second_word_id = w2.word_id ";
+    private static final String EITHER_WORD_CONDITION = "(wp.first_word_id = ? OR wp.second_word_id = ?)";
+    private static final String COUNT_BY_WORD_SQL = "SELECT (SELECT COUNT(*) FROM word_pairs WHERE first_word_id = ?) "
+            + "+ (SELECT COUNT(*) FROM word_pairs WHERE second_word_id = ? AND first_word_id <> ?)";
+    // Walks idx_pair_successors in order and stops after LIMIT rows
+    private static final String FIND_NEXT_WORDS_SQL = "SELECT w2.word_text FROM words w1 "
+            + "JOIN word_pairs wp ON wp.first_word_id = w1.word_id "
+            + "JOIN words w2 ON w2.word_id = wp.second_word_id "
+            + "WHERE w1.word_text = ? "
+            + "ORDER BY wp.transition_count DESC, wp.second_word_id LIMIT ?";
+    private static final int BATCH_SIZE = 1000;
+
     private DatabaseConnection dbConnection;
 
     /**
@@ -38,54 +78,119 @@ public class WordPairDAO {
     }
 
     /**
-     * Inserts a new word pair into the database.
+     * Inserts a new word pair into the database. The pair and its context
+     * total are written in one transaction.
      *
      * @param wordPair the word pair to insert
      * @return the inserted word pair with updated ID
      * @throws SQLException if database error occurs
      */
     public WordPair insert(WordPair wordPair) throws SQLException {
-        // TODO: Implement word pair insertion
-        String sql = "INSERT INTO word_pairs (first_word_id, second_word_id, transition_count, transition_probability) "
-                + "VALUES (?, ?, ?, ?)";
-
-        try (Connection conn = dbConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
-            stmt.setInt(1, wordPair.getFirstWordId());
-            stmt.setInt(2, wordPair.getSecondWordId());
-            stmt.setInt(3, wordPair.getTransitionCount());
-            stmt.setDouble(4, wordPair.getTransitionProbability());
-
-            stmt.executeUpdate();
-
-            try (ResultSet keys = stmt.getGeneratedKeys()) {
-                if (keys.next()) {
-                    wordPair.setPairId(keys.getInt(1));
-                }
-            }
+        try (UnitOfWork unitOfWork = new UnitOfWork(dbConnection)) {
+            insert(unitOfWork, wordPair);
+            unitOfWork.commit();
+            return wordPair;
         }
+    }
 
+    /**
+     * Inserts a new word pair as part of a unit of work, adding its count to
+     * the first word's context total.
+     *
+     * @param unitOfWork the active unit of work
+     * @param wordPair the word pair to insert
+     * @return the inserted word pair with updated ID
+     * @throws SQLException if database error occurs
+     */
+    public WordPair insert(UnitOfWork unitOfWork, WordPair wordPair) throws SQLException {
+        executeInsert(unitOfWork, unitOfWork.prepare(INSERT_SQL, Statement.RETURN_GENERATED_KEYS), wordPair);
+
+        PreparedStatement totals = unitOfWork.prepare(ADD_CONTEXT_TOTALS_SQL);
+        totals.setInt(1, wordPair.getFirstWordId());
+        totals.setLong(2, wordPair.getTransitionCount());
+        unitOfWork.executeUpdate(totals);
         return wordPair;
     }
 
     /**
-     * Updates an existing word pair in the database.
+     * Updates an existing word pair in the database. The pair and its context
+     * total are written in one transaction.
      *
      * @param wordPair the word pair to update
      * @throws SQLException if database error occurs
      */
     public void update(WordPair wordPair) throws SQLException {
-        // TODO: Implement word pair update
-        String sql = "UPDATE word_pairs SET transition_count = ?, transition_probability = ? "
-                + "WHERE pair_id = ?";
+        try (UnitOfWork unitOfWork = new UnitOfWork(dbConnection)) {
+            update(unitOfWork, wordPair);
+            unitOfWork.commit();
+        }
+    }
 
-        try (Connection conn = dbConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+    /**
+     * Updates an existing word pair as part of a unit of work. The context
+     * total moves by the difference between the new and stored counts.
+     *
+     * @param unitOfWork the active unit of work
+     * @param wordPair the word pair to update
+     * @throws SQLException if database error occurs
+     */
+    public void update(UnitOfWork unitOfWork, WordPair wordPair) throws SQLException {
+        PreparedStatement totals = unitOfWork.prepare(ADJUST_TOTAL_FOR_UPDATE_SQL);
+        totals.setLong(1, wordPair.getTransitionCount());
+        totals.setInt(2, wordPair.getPairId());
+        unitOfWork.executeUpdate(totals);
+
+        executeUpdate(unitOfWork, unitOfWork.prepare(UPDATE_SQL), wordPair);
+    }
+
+    /**
+     * Adds transition count deltas to many word pairs at once as part of a
+     * unit of work, creating pairs that do not exist yet. Each WordPair
+     * carries the amount to add, not the new total. The deltas are also
+     * summed per first word and added to the context totals. Statements are
+     * sent in batches.
+     *
+     * @param unitOfWork the active unit of work
+     * @param deltas word pairs with the transition counts to add
+     * @throws SQLException if database error occurs
+     */
+    public void addTransitionCounts(UnitOfWork unitOfWork, List<WordPair> deltas) throws SQLException {
+        PreparedStatement stmt = unitOfWork.prepare(ADD_TRANSITION_COUNTS_SQL);
+        Map<Integer, Long> contextTotals = new LinkedHashMap<>();
+        int pending = 0;
+
+        for (WordPair delta : deltas) {
+            stmt.setInt(1, delta.getFirstWordId());
+            stmt.setInt(2, delta.getSecondWordId());
+            stmt.setInt(3, delta.getTransitionCount());
+            stmt.addBatch();
+            contextTotals.merge(delta.getFirstWordId(), (long) delta.getTransitionCount(), Long::sum);
+
+            if (++pending == BATCH_SIZE) {
+                unitOfWork.executeBatch(stmt);
+                pending = 0;
+            }
+        }
+
+        if (pending > 0) {
+            unitOfWork.executeBatch(stmt);
+        }
 
-            stmt.setInt(1, wordPair.getTransitionCount());
-            stmt.setDouble(2, wordPair.getTransitionProbability());
-            stmt.setInt(3, wordPair.getPairId());
+        PreparedStatement totals = unitOfWork.prepare(ADD_CONTEXT_TOTALS_SQL);
+        pending = 0;
+        for (Map.Entry<Integer, Long> total : contextTotals.entrySet()) {
+            totals.setInt(1, total.getKey());
+            totals.setLong(2, total.getValue());
+            totals.addBatch();
+
+            if (++pending == BATCH_SIZE) {
+                unitOfWork.executeBatch(totals);
+                pending = 0;
+            }
+        }
 
-            stmt.executeUpdate();
+        if (pending > 0) {
+            unitOfWork.executeBatch(totals);
         }
     }
 
@@ -98,22 +203,22 @@ public class WordPairDAO {
      * @throws SQLException if database error occurs
      */
     public WordPair findByWordIds(int firstWordId, int secondWordId) throws SQLException {
-        // TODO: Implement word pair search
-        String sql = "SELECT * FROM word_pairs WHERE first_word_id = ? AND second_word_id = ?";
-
-        try (Connection conn = dbConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, firstWordId);
-            stmt.setInt(2, secondWordId);
-
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return mapResultSetToWordPair(rs);
-                }
-            }
+        try (Connection conn = dbConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(FIND_BY_WORD_IDS_SQL)) {
+            return executeFindByWordIds(stmt, firstWordId, secondWordId);
         }
+    }
 
-        return null;
+    /**
+     * Finds a word pair by first and second word IDs as part of a unit of work.
+     *
+     * @param unitOfWork the active unit of work
+     * @param firstWordId the first word ID
+     * @param secondWordId the second word ID
+     * @return the word pair, or null if not found
+     * @throws SQLException if database error occurs
+     */
+    public WordPair findByWordIds(UnitOfWork unitOfWork, int firstWordId, int secondWordId) throws SQLException {
+        return executeFindByWordIds(unitOfWork.prepare(FIND_BY_WORD_IDS_SQL), firstWordId, secondWordId);
     }
 
     /**
@@ -125,12 +230,13 @@ public class WordPairDAO {
      */
     public List<WordPair> findByFirstWordId(int firstWordId) throws SQLException {
         // TODO: Implement word pair search by first word
-        String sql = "SELECT wp.*, w1.word_text as first_word_text, w2.word_text as second_word_text "
+        String sql = SELECT_WITH_PROBABILITY + ", w1.word_text as first_word_text, w2.word_text as second_word_text "
                 + "FROM word_pairs wp "
+                + JOIN_TOTALS
                 + "JOIN words w1 ON wp.first_word_id = w1.word_id "
                 + "JOIN words w2 ON wp.second_word_id = w2.word_id "
                 + "WHERE wp.first_word_id = ? "
-                + "ORDER BY wp.transition_probability DESC";
+                + "ORDER BY wp.transition_count DESC";
 
         List<WordPair> wordPairs = new ArrayList<>();
 
@@ -152,50 +258,140 @@ public class WordPairDAO {
     }
 
     /**
-     * Finds all word pairs in the database.
+     * Finds the words that most often follow a word, most frequent first.
+     * One query: the word is resolved, its successors are read in
+     * transition count order from the covering successor index and only
+     * the first few rows are joined to their text, so the cost does not
+     * grow with how many different words follow a common word.
      *
-     * @return list of all word pairs
+     * @param wordText the preceding word
+     * @param limit maximum number of words to return
+     * @return following words, empty if the word is unknown
      * @throws SQLException if database error occurs
      */
-    public List<WordPair> findAll() throws SQLException {
-        // TODO: Implement find all word pairs
-        String sql = "SELECT wp.*, w1.word_text as first_word_text, w2.word_text as second_word_text "
-                + "FROM word_pairs wp "
-                + "JOIN words w1 ON wp.first_word_id = w1.word_id "
-                + "JOIN words w2 ON wp.second_word_id = w2.word_id "
-                + "ORDER BY wp.transition_count DESC";
-
-        List<WordPair> wordPairs = new ArrayList<>();
+    public List<String> findNextWords(String wordText, int limit) throws SQLException {
+        List<String> nextWords = new ArrayList<>();
 
-        try (Connection conn = dbConnection.getConnection(); Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+        try (Connection conn = dbConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(FIND_NEXT_WORDS_SQL)) {
+            stmt.setString(1, wordText);
+            stmt.setInt(2, limit);
 
-            while (rs.next()) {
-                WordPair wordPair = mapResultSetToWordPair(rs);
-                wordPair.setFirstWordText(rs.getString("first_word_text"));
-                wordPair.setSecondWordText(rs.getString("second_word_text"));
-                wordPairs.add(wordPair);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    nextWords.add(rs.getString(1));
+                }
             }
         }
 
-        return wordPairs;
+        return nextWords;
+    }
+
+    /**
+     * Reads the page of word pairs that follows a given pair in the chosen
+     * sort order, using a keyset seek on the sort column and pair ID.
+     *
+     * @param sort the column to sort by
+     * @param ascending sort direction
+     * @param wordId only pairs with this word on either side, or 0 for all
+     * pairs
+     * @param after the last pair of the previous page, or null for the
+     * first page
+     * @param limit maximum number of pairs to return
+     * @return the page with word texts and probabilities, empty past the end
+     * @throws SQLException if database error occurs
+     */
+    public List<WordPair> findPage(SortColumn sort, boolean ascending, int wordId, WordPair after, int limit)
+            throws SQLException {
+        List<String> conditions = new ArrayList<>();
+        if (wordId != 0) {
+            conditions.add(EITHER_WORD_CONDITION);
+        }
+        if (after != null) {
+            conditions.add(Keyset.after(sort.column, "wp.pair_id", ascending));
+        }
+        String sql = SELECT_WITH_TEXTS + "FROM word_pairs wp " + JOIN_TOTALS + JOIN_TEXTS
+                + (conditions.isEmpty() ? "" : "WHERE " + String.join(" AND ", conditions) + " ")
+                + "ORDER BY " + Keyset.orderBy(sort.column, "wp.pair_id", ascending) + " LIMIT ?";
+
+        try (Connection conn = dbConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int index = 1;
+            if (wordId != 0) {
+                stmt.setInt(index++, wordId);
+                stmt.setInt(index++, wordId);
+            }
+            if (after != null) {
+                index = Keyset.bind(stmt, index, sort.column, "wp.pair_id", sort.valueOf(after), after.getPairId());
+            }
+            stmt.setInt(index, limit);
+            return executeFindPage(stmt);
+        }
     }
 
     /**
-     * Recalculates transition probabilities for all word pairs.
+     * Reads the page of word pairs at a row offset in the chosen sort order.
+     * The offset is walked on the pair indexes alone and the joins only run
+     * for the rows of the page.
      *
+     * @param sort the column to sort by
+     * @param ascending sort direction
+     * @param wordId only pairs with this word on either side, or 0 for all
+     * pairs
+     * @param offset number of pairs to skip
+     * @param limit maximum number of pairs to return
+     * @return the page with word texts and probabilities, empty past the end
      * @throws SQLException if database error occurs
      */
-    public void recalculateProbabilities() throws SQLException {
-        // TODO: Implement probability recalculation
-        String sql = "UPDATE word_pairs wp "
-                + "JOIN (SELECT first_word_id, SUM(transition_count) as total "
-                + "      FROM word_pairs GROUP BY first_word_id) totals "
-                + "ON wp.first_word_id = totals.first_word_id "
-                + "SET wp.transition_probability = wp.transition_count / totals.total";
+    public List<WordPair> findPage(SortColumn sort, boolean ascending, int wordId, int offset, int limit)
+            throws SQLException {
+        String sql = SELECT_WITH_TEXTS + "FROM word_pairs wp "
+                + "JOIN (SELECT pair_id FROM word_pairs wp "
+                + (wordId == 0 ? "" : "WHERE " + EITHER_WORD_CONDITION + " ")
+                + "ORDER BY " + Keyset.orderBy(sort.column, "wp.pair_id", ascending) + " LIMIT ?, ?) page USING (pair_id) "
+                + JOIN_TOTALS + JOIN_TEXTS
+                + "ORDER BY " + Keyset.orderBy(sort.column, "wp.pair_id", ascending);
 
-        try (Connection conn = dbConnection.getConnection(); Statement stmt = conn.createStatement()) {
+        try (Connection conn = dbConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int index = 1;
+            if (wordId != 0) {
+                stmt.setInt(index++, wordId);
+                stmt.setInt(index++, wordId);
+            }
+            stmt.setInt(index++, offset);
+            stmt.setInt(index, limit);
+            return executeFindPage(stmt);
+        }
+    }
 
-            stmt.executeUpdate(sql);
+    /**
+     * Counts the word pairs in the database.
+     *
+     * @return number of word pairs
+     * @throws SQLException if database error occurs
+     */
+    public int count() throws SQLException {
+        try (Connection conn = dbConnection.getConnection(); Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM word_pairs")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Counts the word pairs with a word on either side. Each side is counted
+     * on its own index, and a pair of the word with itself only once.
+     *
+     * @param wordId the word ID
+     * @return number of matching pairs
+     * @throws SQLException if database error occurs
+     */
+    public int countByWordId(int wordId) throws SQLException {
+        try (Connection conn = dbConnection.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(COUNT_BY_WORD_SQL)) {
+            stmt.setInt(1, wordId);
+            stmt.setInt(2, wordId);
+            stmt.setInt(3, wordId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
         }
     }
 
@@ -207,15 +403,100 @@ public class WordPairDAO {
      */
     public void delete(int pairId) throws SQLException {
         // TODO: Implement word pair deletion
-        String sql = "DELETE FROM word_pairs WHERE pair_id = ?";
-
-        try (Connection conn = dbConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (UnitOfWork unitOfWork = new UnitOfWork(dbConnection)) {
+            PreparedStatement totals = unitOfWork.prepare(SUBTRACT_TOTAL_FOR_DELETE_SQL);
+            totals.setInt(1, pairId);
+            unitOfWork.executeUpdate(totals);
 
+            PreparedStatement stmt = unitOfWork.prepare(DELETE_SQL);
             stmt.setInt(1, pairId);
-            stmt.executeUpdate();
+            unitOfWork.executeUpdate(stmt);
+            unitOfWork.commit();
         }
     }
 
+    /**
+     * Binds and executes an insert statement.
+     *
+     * @param unitOfWork the unit of work that counts the statement
+     * @param stmt the prepared insert statement
+     * @param wordPair the word pair to insert
+     * @return the inserted word pair with updated ID
+     * @throws SQLException if database error occurs
+     */
+    private WordPair executeInsert(UnitOfWork unitOfWork, PreparedStatement stmt, WordPair wordPair) throws SQLException {
+        stmt.setInt(1, wordPair.getFirstWordId());
+        stmt.setInt(2, wordPair.getSecondWordId());
+        stmt.setInt(3, wordPair.getTransitionCount());
+
+        unitOfWork.executeUpdate(stmt);
+
+        try (ResultSet keys = stmt.getGeneratedKeys()) {
+            if (keys.next()) {
+                wordPair.setPairId(keys.getInt(1));
+            }
+        }
+
+        return wordPair;
+    }
+
+    /**
+     * Binds and executes an update statement.
+     *
+     * @param unitOfWork the unit of work that counts the statement
+     * @param stmt the prepared update statement
+     * @param wordPair the word pair to update
+     * @throws SQLException if database error occurs
+     */
+    private void executeUpdate(UnitOfWork unitOfWork, PreparedStatement stmt, WordPair wordPair) throws SQLException {
+        stmt.setInt(1, wordPair.getTransitionCount());
+        stmt.setInt(2, wordPair.getPairId());
+
+        unitOfWork.executeUpdate(stmt);
+    }
+
+    /**
+     * Binds and executes a lookup by word IDs.
+     *
+     * @param stmt the prepared lookup statement
+     * @param firstWordId the first word ID
+     * @param secondWordId the second word ID
+     * @return the word pair, or null if not found
+     * @throws SQLException if database error occurs
+     */
+    private WordPair executeFindByWordIds(PreparedStatement stmt, int firstWordId, int secondWordId) throws SQLException {
+        stmt.setInt(1, firstWordId);
+        stmt.setInt(2, secondWordId);
+
+        try (ResultSet rs = stmt.executeQuery()) {
+            if (rs.next()) {
+                return mapResultSetToWordPair(rs);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Executes a page query.
+     *
+     * @param stmt the bound page query
+     * @return the pairs of the page with their word texts
+     * @throws SQLException if database error occurs
+     */
+    private List<WordPair> executeFindPage(PreparedStatement stmt) throws SQLException {
+        List<WordPair> wordPairs = new ArrayList<>();
+        try (ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                WordPair wordPair = mapResultSetToWordPair(rs);
+                wordPair.setFirstWordText(rs.getString("first_word_text"));
+                wordPair.setSecondWordText(rs.getString("second_word_text"));
+                wordPairs.add(wordPair);
+            }
+        }
+        return wordPairs;
+    }
+
     /**
      * Maps a ResultSet row to a WordPair object.
      *
@@ -234,4 +515,25 @@ public class WordPairDAO {
         wordPair.setUpdatedAt(rs.getTimestamp("updated_at"));
         return wordPair;
     }
+
+    /**
+     * Columns word pairs can be paged by. Both are indexed; the word texts
+     * and probability live in other tables and cannot be seeked on.
+     */
+    public enum SortColumn {
+        PAIR_ID("wp.pair_id", WordPair::getPairId),
+        TRANSITION_COUNT("wp.transition_count", WordPair::getTransitionCount);
+
+        private final String column;
+        private final Function<WordPair, Object> value;
+
+        SortColumn(String column, Function<WordPair, Object> value) {
+            this.column = column;
+            this.value = value;
+        }
+
+        private Object valueOf(WordPair wordPair) {
+            return value.apply(wordPair);
+        }
+    }
 }
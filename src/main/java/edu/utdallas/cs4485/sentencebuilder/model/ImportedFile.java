@@ -10,7 +10,17 @@ import java.sql.Timestamp;
  * This class mirrors the imported_files database table and tracks the complete
  * lifecycle of file imports including unique file ID, original filename and path,
  * total word count discovered during processing, import timestamp, processing
- * status (pending, processing, completed, or failed), and any error messages.
+ * status (pending, processing, completed, failed, or skipped), and any error
+ * messages. The SHA-256 hash of the file's content identifies re-imports of
+ * the same text under another name; a batch import keeps a record of each
+ * skipped duplicate, with the reason in the error message. Long imports also
+ * record a checkpoint: the byte offset up to which the file's counts have
+ * been committed and how many batches that took, so an interrupted import can
+ * resume instead of starting over. The import options the checkpoint was made
+ * with are stored too, so a resume cannot mix N-gram orders. Imports through the pipeline also record
+ * throughput metrics: elapsed and CPU time, tokens, SQL statements and rows
+ * written, plus a per-stage summary of busy and CPU time, so runs can be
+ * compared across releases.
  *
  * Helper methods like markAsProcessing, markAsCompleted, and markAsFailed enable
  * the service layer to update import progress consistently. The JavaFX UI uses
@@ -29,6 +39,16 @@ public class ImportedFile {
     private Timestamp importDate;
     private FileStatus status;
     private String errorMessage;
+    private String contentHash;
+    private long byteOffset;
+    private int committedBatches;
+    private String importOptions;
+    private long elapsedMillis;
+    private long cpuMillis;
+    private long tokenCount;
+    private long statementCount;
+    private long rowsWritten;
+    private String stageTimings;
 
     /**
      * Enum for file import status.
@@ -37,7 +57,8 @@ public class ImportedFile {
         PENDING,
         PROCESSING,
         COMPLETED,
-        FAILED
+        FAILED,
+        SKIPPED
     }
 
     /**
@@ -139,6 +160,101 @@ public class ImportedFile {
         this.errorMessage = errorMessage;
     }
 
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public long getByteOffset() {
+        return byteOffset;
+    }
+
+    public void setByteOffset(long byteOffset) {
+        this.byteOffset = byteOffset;
+    }
+
+    public int getCommittedBatches() {
+        return committedBatches;
+    }
+
+    public void setCommittedBatches(int committedBatches) {
+        this.committedBatches = committedBatches;
+    }
+
+    /**
+     * Gets the import options the record's checkpoint was made with.
+     *
+     * @return the options as described by ImportOptions.describeCounting,
+     * or null for records made before they were stored
+     */
+    public String getImportOptions() {
+        return importOptions;
+    }
+
+    public void setImportOptions(String importOptions) {
+        this.importOptions = importOptions;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public long getCpuMillis() {
+        return cpuMillis;
+    }
+
+    public void setCpuMillis(long cpuMillis) {
+        this.cpuMillis = cpuMillis;
+    }
+
+    public long getTokenCount() {
+        return tokenCount;
+    }
+
+    public void setTokenCount(long tokenCount) {
+        this.tokenCount = tokenCount;
+    }
+
+    public long getStatementCount() {
+        return statementCount;
+    }
+
+    public void setStatementCount(long statementCount) {
+        this.statementCount = statementCount;
+    }
+
+    public long getRowsWritten() {
+        return rowsWritten;
+    }
+
+    public void setRowsWritten(long rowsWritten) {
+        this.rowsWritten = rowsWritten;
+    }
+
+    public String getStageTimings() {
+        return stageTimings;
+    }
+
+    public void setStageTimings(String stageTimings) {
+        this.stageTimings = stageTimings;
+    }
+
+    /**
+     * Gets the import's token throughput.
+     *
+     * @return tokens per second, or 0 if no time was recorded
+     */
+    public double getTokensPerSecond() {
+        return elapsedMillis == 0 ? 0.0 : tokenCount * 1000.0 / elapsedMillis;
+    }
+
     /**
      * Checks if the file import is complete.
      *
@@ -157,6 +273,16 @@ public class ImportedFile {
         return status == FileStatus.FAILED;
     }
 
+    /**
+     * Checks if an interrupted import of this file can be resumed from its
+     * last checkpoint.
+     *
+     * @return true if the import never completed and has committed progress
+     */
+    public boolean isResumable() {
+        return (status == FileStatus.PROCESSING || status == FileStatus.FAILED) && byteOffset > 0;
+    }
+
     /**
      * Marks the file as processing.
      */
@@ -184,6 +310,16 @@ public class ImportedFile {
         this.errorMessage = errorMessage;
     }
 
+    /**
+     * Marks the file as skipped because its content is imported elsewhere.
+     *
+     * @param reason why the file was skipped
+     */
+    public void markAsSkipped(String reason) {
+        this.status = FileStatus.SKIPPED;
+        this.errorMessage = reason;
+    }
+
     @Override
     public String toString() {
         return "ImportedFile{" +
@@ -194,6 +330,15 @@ public class ImportedFile {
                 ", importDate=" + importDate +
                 ", status=" + status +
                 ", errorMessage='" + errorMessage + '\'' +
+                ", contentHash='" + contentHash + '\'' +
+                ", byteOffset=" + byteOffset +
+                ", committedBatches=" + committedBatches +
+                ", elapsedMillis=" + elapsedMillis +
+                ", cpuMillis=" + cpuMillis +
+                ", tokenCount=" + tokenCount +
+                ", statementCount=" + statementCount +
+                ", rowsWritten=" + rowsWritten +
+                ", stageTimings='" + stageTimings + '\'' +
                 '}';
     }
 }
\ No newline at end of file
@@ -22,6 +22,7 @@ import java.sql.Timestamp;
 public class NGram {
 
     private int ngramId;
+    private int contextId; // ID of the context in ngram_contexts
     private int n; // The N in N-gram (2 for bigram, 3 for trigram, etc.)
     private String ngramText; // The complete N-gram sequence
     private String[] words; // Individual words in the N-gram
@@ -87,6 +88,14 @@ public class NGram {
         this.ngramId = ngramId;
     }
 
+    public int getContextId() {
+        return contextId;
+    }
+
+    public void setContextId(int contextId) {
+        this.contextId = contextId;
+    }
+
     public int getN() {
         return n;
     }
@@ -1,15 +1,11 @@
 package edu.utdallas.cs4485.sentencebuilder.service;
 
-import edu.utdallas.cs4485.sentencebuilder.dao.WordDAO;
 import edu.utdallas.cs4485.sentencebuilder.dao.WordPairDAO;
 import edu.utdallas.cs4485.sentencebuilder.dao.NGramDAO;
-import edu.utdallas.cs4485.sentencebuilder.model.Word;
-import edu.utdallas.cs4485.sentencebuilder.model.WordPair;
-import edu.utdallas.cs4485.sentencebuilder.model.NGram;
 
 import java.sql.SQLException;
+import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  *
@@ -25,14 +21,23 @@ import java.util.stream.Collectors;
  * during user typing interactions. Queries are optimized to return ranked suggestions
  * based on transition probabilities and frequency statistics from the learned corpus.
  *
+ * Each order costs one query: the DAO joins the context to its next words,
+ * orders by transition count and applies the suggestion limit in SQL, so the
+ * database reads only the top rows from its index instead of every successor
+ * of a common word.
+ *
+ * Results are kept in a shared SuggestionCache keyed by order, suggestion
+ * limit and the trailing words the order actually looks at, so repeated
+ * contexts skip the database until the next import changes the model.
+ *
  * @author Bhaskar Atmakuri
  * @author Rahman-Danish, Rizvy
  */
 public class AutoCompleteService {
 
-    private WordDAO wordDAO;
     private WordPairDAO wordPairDAO;
     private NGramDAO ngramDAO;
+    private SuggestionCache cache;
 
     /**
      * Constructor.
@@ -41,9 +46,9 @@ public class AutoCompleteService {
      * calls remain fast during user typing in the GUI.
      */
     public AutoCompleteService() {
-        this.wordDAO = new WordDAO();
         this.wordPairDAO = new WordPairDAO();
         this.ngramDAO = new NGramDAO();
+        this.cache = SuggestionCache.getInstance();
     }
 
     /**
@@ -61,17 +66,27 @@ public class AutoCompleteService {
 
         try {
             String[] words = context.trim().toLowerCase().split("\\s+");
+            String key = cacheKey(words, n, maxSuggestions);
+            List<String> cached = cache.get(key);
+            if (cached != null) {
+                return cached;
+            }
 
+            // Read the version first so a concurrent import cannot leave a stale entry
+            long version = ModelVersion.current();
+            List<String> suggestions;
             if (n == 1) {
                 // First-order: use the last word
-                return getFirstOrderSuggestions(words[words.length - 1], maxSuggestions);
+                suggestions = getFirstOrderSuggestions(words[words.length - 1], maxSuggestions);
             } else if (n == 2) {
                 // Second-order: use the last two words (or one if only one available)
-                return getSecondOrderSuggestions(words, maxSuggestions);
+                suggestions = getSecondOrderSuggestions(words, maxSuggestions);
             } else {
                 // N-gram: use the last N words
-                return getNGramSuggestions(words, n, maxSuggestions);
+                suggestions = getNGramSuggestions(words, n, maxSuggestions);
             }
+            cache.put(key, suggestions, version);
+            return suggestions;
         } catch (SQLException e) {
             // Rizvy: Ensured this error case does not break UI typing flow.
             System.err.println("Error getting autocomplete suggestions: " + e.getMessage());
@@ -79,6 +94,31 @@ public class AutoCompleteService {
         }
     }
 
+    /**
+     * Describes the shared suggestion cache: size, hit rate, evictions and
+     * invalidations.
+     *
+     * @return cache summary
+     */
+    public String getCacheStatistics() {
+        return cache.toString();
+    }
+
+    /**
+     * Builds the cache key from the words an order actually reads: the last
+     * word for first- and second-order, the last N-1 words for N-grams.
+     *
+     * @param words the current words
+     * @param n the N-gram order
+     * @param maxSuggestions maximum number of suggestions
+     * @return the cache key
+     */
+    static String cacheKey(String[] words, int n, int maxSuggestions) {
+        int contextLength = Math.min(words.length, Math.max(1, n - 1));
+        String context = String.join(" ", Arrays.copyOfRange(words, words.length - contextLength, words.length));
+        return n + ":" + maxSuggestions + ":" + context;
+    }
+
     /**
      * Gets first-order autocomplete suggestions (based on single word).
      *
@@ -90,33 +130,17 @@ public class AutoCompleteService {
      * @return list of suggested words
      */
     private List<String> getFirstOrderSuggestions(String word, int maxSuggestions) throws SQLException {
-        Word wordObj = wordDAO.findByText(word);
-        if (wordObj == null) {
-            return List.of();
-        }
-
-        // Get all word pairs starting with this word, ordered by transition count
-        List<WordPair> pairs = wordPairDAO.findByFirstWordId(wordObj.getWordId());
-
-        return pairs.stream()
-                .sorted((a, b) -> Integer.compare(b.getTransitionCount(), a.getTransitionCount()))
-                .limit(maxSuggestions)
-                .map(pair -> {
-                    try {
-                        Word nextWord = wordDAO.findById(pair.getSecondWordId());
-                        return nextWord != null ? nextWord.getWordText() : null;
-                    } catch (SQLException e) {
-                        return null;
-                    }
-                })
-                .filter(w -> w != null)
-                .collect(Collectors.toList());
+        // One query, already ordered by transition count and limited in SQL
+        return wordPairDAO.findNextWords(word, maxSuggestions);
     }
 
     /**
      * Gets second-order autocomplete suggestions (based on word pair).
      * For context "word1 word2", we want to find what typically follows this pair.
-     * We verify that the pair (word1, word2) exists in training data, then suggest what follows word2.
+     * The suggestions are what follows word2: when the pair (word1, word2)
+     * never appeared in training the lookup fell back to first-order on
+     * word2, which gives the same list, so the pair check is skipped and the
+     * answer costs a single query.
      *
      * Rizvy Testing:
      * - Checked that fallback to first-order works when pair does not exist.
@@ -131,56 +155,7 @@ public class AutoCompleteService {
             return List.of();
         }
 
-        if (words.length < 2) {
-            // Fallback to first-order if only one word
-            return getFirstOrderSuggestions(words[words.length - 1], maxSuggestions);
-        }
-
-        // Get the last two words
-        String word1 = words[words.length - 2];
-        String word2 = words[words.length - 1];
-
-        // Find the words in database
-        Word word1Obj = wordDAO.findByText(word1);
-        Word word2Obj = wordDAO.findByText(word2);
-
-        if (word1Obj == null || word2Obj == null) {
-            // Fallback to first-order if words not found
-            if (word2Obj != null) {
-                return getFirstOrderSuggestions(word2, maxSuggestions);
-            }
-            return List.of();
-        }
-
-        // First verify that the pair (word1, word2) exists in our training data
-        WordPair contextPair = wordPairDAO.findByWordIds(word1Obj.getWordId(), word2Obj.getWordId());
-
-        if (contextPair == null) {
-            // This word pair never appeared together in training, fallback to first-order
-            return getFirstOrderSuggestions(word2, maxSuggestions);
-        }
-
-        // Now get all word pairs where word2 is the first word
-        // This gives us all words that follow word2 in the training data
-        List<WordPair> pairs = wordPairDAO.findByFirstWordId(word2Obj.getWordId());
-
-        if (pairs.isEmpty()) {
-            return List.of();
-        }
-
-        // Convert to word strings and return, already sorted by transition count
-        return pairs.stream()
-                .limit(maxSuggestions)
-                .map(pair -> {
-                    try {
-                        Word nextWord = wordDAO.findById(pair.getSecondWordId());
-                        return nextWord != null ? nextWord.getWordText() : null;
-                    } catch (SQLException e) {
-                        return null;
-                    }
-                })
-                .filter(w -> w != null)
-                .collect(Collectors.toList());
+        return getFirstOrderSuggestions(words[words.length - 1], maxSuggestions);
     }
 
     /**
@@ -215,10 +190,10 @@ public class AutoCompleteService {
         }
         String ngramContext = contextBuilder.toString();
 
-        // Find matching N-grams
-        List<NGram> ngrams = ngramDAO.findByNgramText(n, ngramContext);
+        // Find the most frequent next words in one query
+        List<String> suggestions = ngramDAO.findNextWords(n, ngramContext, maxSuggestions);
 
-        if (ngrams.isEmpty()) {
+        if (suggestions.isEmpty()) {
             // Fallback to second-order
             if (words.length >= 2) {
                 return getSecondOrderSuggestions(words, maxSuggestions);
@@ -227,19 +202,6 @@ public class AutoCompleteService {
             }
         }
 
-        // Sort by transition count and get suggestions
-        return ngrams.stream()
-                .sorted((a, b) -> Integer.compare(b.getTransitionCount(), a.getTransitionCount()))
-                .limit(maxSuggestions)
-                .map(ngram -> {
-                    try {
-                        Word nextWord = wordDAO.findById(ngram.getNextWordId());
-                        return nextWord != null ? nextWord.getWordText() : null;
-                    } catch (SQLException e) {
-                        return null;
-                    }
-                })
-                .filter(w -> w != null)
-                .collect(Collectors.toList());
+        return suggestions;
     }
 }
@@ -0,0 +1,171 @@
+package edu.utdallas.cs4485.sentencebuilder.service;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import edu.utdallas.cs4485.sentencebuilder.util.ConfigurationManager;
+
+/**
+ *
+ * Shared executor for blocking, database-bound background work such as
+ * imports, autocomplete lookups and loading generation models, so none of it
+ * runs on the JavaFX application thread and no caller creates threads of its
+ * own.
+ *
+ * On JDK 21 and later every task runs on its own virtual thread, which costs
+ * almost nothing while it waits on JDBC. Older runtimes get a fixed pool of
+ * daemon platform threads. The virtual-thread factory is looked up
+ * reflectively because the project still compiles for Java 16.
+ *
+ * Either way at most background.max.concurrent tasks run at a time; the rest
+ * wait for a slot. The limit keeps background work from queueing on the
+ * database connection pool, so it should stay below the pool size.
+ *
+ * CPU-bound import stages keep their own platform threads: a counter thread
+ * never blocks on the database, and putting the pipeline's stages behind the
+ * shared limit could leave them waiting on each other.
+ *
+ * @author Manraj Singh
+ */
+public class BackgroundExecutor {
+
+    private static BackgroundExecutor instance;
+
+    private final ExecutorService executor;
+    private final Semaphore slots;
+    private final int maxConcurrent;
+    private final boolean virtualThreads;
+
+    /**
+     * Private constructor for singleton pattern.
+     */
+    private BackgroundExecutor() {
+        this.maxConcurrent = Math.max(1,
+                ConfigurationManager.getInstance().getIntProperty("background.max.concurrent", 8));
+        this.slots = new Semaphore(maxConcurrent);
+
+        ExecutorService virtual = newVirtualThreadExecutor();
+        this.virtualThreads = virtual != null;
+        if (virtual != null) {
+            this.executor = virtual;
+        } else {
+            AtomicInteger threadNumber = new AtomicInteger();
+            this.executor = Executors.newFixedThreadPool(maxConcurrent, runnable -> {
+                Thread thread = new Thread(runnable, "background-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Gets the singleton instance.
+     *
+     * @return the shared background executor
+     */
+    public static synchronized BackgroundExecutor getInstance() {
+        if (instance == null) {
+            instance = new BackgroundExecutor();
+        }
+        return instance;
+    }
+
+    /**
+     * Runs a task in the background. A JavaFX Task can be passed directly.
+     *
+     * @param task the work to run
+     */
+    public void execute(Runnable task) {
+        executor.execute(limited(task));
+    }
+
+    /**
+     * Runs a task in the background and returns its result.
+     *
+     * @param task the work to run
+     * @param <T> result type
+     * @return future for the task's result
+     */
+    public <T> Future<T> submit(Callable<T> task) {
+        return executor.submit(() -> {
+            slots.acquire();
+            try {
+                return task.call();
+            } finally {
+                slots.release();
+            }
+        });
+    }
+
+    /**
+     * Gets the maximum number of tasks that run at the same time.
+     *
+     * @return concurrency limit
+     */
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    /**
+     * Checks whether tasks run on virtual threads.
+     *
+     * @return true on JDK 21 and later
+     */
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Stops accepting tasks, interrupts running ones and waits briefly for
+     * them to finish. Called when the application exits.
+     */
+    public static synchronized void shutdown() {
+        if (instance == null) {
+            return;
+        }
+        instance.executor.shutdownNow();
+        try {
+            if (!instance.executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                System.err.println("Background tasks did not stop within 5 seconds");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        instance = null;
+    }
+
+    private Runnable limited(Runnable task) {
+        return () -> {
+            try {
+                slots.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                task.run();
+            } finally {
+                slots.release();
+            }
+        };
+    }
+
+    /**
+     * Creates Executors.newVirtualThreadPerTaskExecutor() if the runtime has
+     * it.
+     *
+     * @return the executor, or null before JDK 21
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
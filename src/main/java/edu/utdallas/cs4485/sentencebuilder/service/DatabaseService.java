@@ -1,11 +1,24 @@
 package edu.utdallas.cs4485.sentencebuilder.service;
 
+import java.io.IOException;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
 
+import edu.utdallas.cs4485.sentencebuilder.algorithm.CorpusCounter;
+import edu.utdallas.cs4485.sentencebuilder.dao.BulkLoadDAO;
 import edu.utdallas.cs4485.sentencebuilder.dao.DatabaseConnection;
 import edu.utdallas.cs4485.sentencebuilder.dao.ImportedFileDAO;
+import edu.utdallas.cs4485.sentencebuilder.dao.NGramDAO;
+import edu.utdallas.cs4485.sentencebuilder.dao.SecondaryIndexDAO;
+import edu.utdallas.cs4485.sentencebuilder.dao.UnitOfWork;
 import edu.utdallas.cs4485.sentencebuilder.dao.WordDAO;
+import edu.utdallas.cs4485.sentencebuilder.dao.WordIdCache;
 import edu.utdallas.cs4485.sentencebuilder.dao.WordPairDAO;
 import edu.utdallas.cs4485.sentencebuilder.model.ImportedFile;
 import edu.utdallas.cs4485.sentencebuilder.model.Word;
@@ -34,6 +47,9 @@ public class DatabaseService {
     private WordDAO wordDAO;
     private WordPairDAO wordPairDAO;
     private ImportedFileDAO importedFileDAO;
+    private NGramDAO ngramDAO;
+    private BulkLoadDAO bulkLoadDAO;
+    private SecondaryIndexDAO secondaryIndexDAO;
     private DatabaseConnection databaseConnection;
 
     /**
@@ -48,6 +64,21 @@ public class DatabaseService {
         this.wordDAO = new WordDAO();
         this.wordPairDAO = new WordPairDAO();
         this.importedFileDAO = new ImportedFileDAO();
+        this.ngramDAO = new NGramDAO();
+        this.bulkLoadDAO = new BulkLoadDAO();
+        this.secondaryIndexDAO = new SecondaryIndexDAO();
+    }
+
+    /**
+     * Opens a unit of work for a multi-statement operation such as a file
+     * import. The caller owns the returned unit of work and must commit and
+     * close it.
+     *
+     * @return a new unit of work on a pooled connection
+     * @throws SQLException if a connection cannot be obtained
+     */
+    public UnitOfWork beginUnitOfWork() throws SQLException {
+        return new UnitOfWork(databaseConnection);
     }
 
     /**
@@ -87,25 +118,128 @@ public class DatabaseService {
     }
 
     /**
-     * Gets all words from the database.
+     * Saves an imported file record as part of a unit of work.
+     *
+     * @param unitOfWork the active unit of work
+     * @param file the file record to save
+     * @return the saved file with updated ID
+     * @throws SQLException if database error occurs
+     */
+    public ImportedFile saveImportedFile(UnitOfWork unitOfWork, ImportedFile file) throws SQLException {
+        return importedFileDAO.insert(unitOfWork, file);
+    }
+
+    /**
+     * Gets the page of words after a given word in the chosen sort order.
+     *
+     * @param sort the column to sort by
+     * @param ascending sort direction
+     * @param prefix only words starting with this text, or null for all
+     * words
+     * @param after the last word of the previous page, or null for the
+     * first page
+     * @param limit maximum number of words to return
+     * @return the page of words
+     * @throws SQLException if database error occurs
+     */
+    public List<Word> getWordPage(WordDAO.SortColumn sort, boolean ascending, String prefix, Word after, int limit)
+            throws SQLException {
+        return wordDAO.findPage(sort, ascending, prefix, after, limit);
+    }
+
+    /**
+     * Gets the page of words at a row offset in the chosen sort order.
+     *
+     * @param sort the column to sort by
+     * @param ascending sort direction
+     * @param prefix only words starting with this text, or null for all
+     * words
+     * @param offset number of words to skip
+     * @param limit maximum number of words to return
+     * @return the page of words
+     * @throws SQLException if database error occurs
+     */
+    public List<Word> getWordPage(WordDAO.SortColumn sort, boolean ascending, String prefix, int offset, int limit)
+            throws SQLException {
+        return wordDAO.findPage(sort, ascending, prefix, offset, limit);
+    }
+
+    /**
+     * Counts the words in the database.
+     *
+     * @param prefix only words starting with this text, or null for all
+     * words
+     * @return number of words
+     * @throws SQLException if database error occurs
+     */
+    public int countWords(String prefix) throws SQLException {
+        return prefix == null ? wordDAO.count() : wordDAO.countByPrefix(prefix);
+    }
+
+    /**
+     * Gets the page of word pairs after a given pair in the chosen sort
+     * order.
+     *
+     * @param sort the column to sort by
+     * @param ascending sort direction
+     * @param word only pairs with this word on either side, or null for all
+     * pairs
+     * @param after the last pair of the previous page, or null for the
+     * first page
+     * @param limit maximum number of pairs to return
+     * @return the page of word pairs, empty if the word is unknown
+     * @throws SQLException if database error occurs
+     */
+    public List<WordPair> getWordPairPage(WordPairDAO.SortColumn sort, boolean ascending, String word,
+            WordPair after, int limit) throws SQLException {
+        Integer wordId = resolveSearchWord(word);
+        return wordId == null ? new ArrayList<>() : wordPairDAO.findPage(sort, ascending, wordId, after, limit);
+    }
+
+    /**
+     * Gets the page of word pairs at a row offset in the chosen sort order.
      *
-     * @return list of all words
+     * @param sort the column to sort by
+     * @param ascending sort direction
+     * @param word only pairs with this word on either side, or null for all
+     * pairs
+     * @param offset number of pairs to skip
+     * @param limit maximum number of pairs to return
+     * @return the page of word pairs, empty if the word is unknown
      * @throws SQLException if database error occurs
      */
-    public List<Word> getAllWords() throws SQLException {
-        // TODO: Implement word retrieval logic
-        return wordDAO.findAll();
+    public List<WordPair> getWordPairPage(WordPairDAO.SortColumn sort, boolean ascending, String word,
+            int offset, int limit) throws SQLException {
+        Integer wordId = resolveSearchWord(word);
+        return wordId == null ? new ArrayList<>() : wordPairDAO.findPage(sort, ascending, wordId, offset, limit);
+    }
+
+    /**
+     * Counts the word pairs in the database.
+     *
+     * @param word only pairs with this word on either side, or null for all
+     * pairs
+     * @return number of word pairs
+     * @throws SQLException if database error occurs
+     */
+    public int countWordPairs(String word) throws SQLException {
+        if (word == null) {
+            return wordPairDAO.count();
+        }
+        Integer wordId = resolveSearchWord(word);
+        return wordId == null ? 0 : wordPairDAO.countByWordId(wordId);
     }
 
     /**
-     * Gets all word pairs from the database.
+     * Resolves the word a pair search is for. The word ID cache answers
+     * repeated lookups while the pages of one search are read.
      *
-     * @return list of all word pairs
+     * @param word the word, or null for no search
+     * @return 0 for no search, the word ID, or null if the word is unknown
      * @throws SQLException if database error occurs
      */
-    public List<WordPair> getAllWordPairs() throws SQLException {
-        // TODO: Implement word pair retrieval logic
-        return wordPairDAO.findAll();
+    private Integer resolveSearchWord(String word) throws SQLException {
+        return word == null ? Integer.valueOf(0) : wordDAO.findIdByText(word);
     }
 
     /**
@@ -176,6 +310,53 @@ public class DatabaseService {
         importedFileDAO.update(file);
     }
 
+    /**
+     * Updates imported file status as part of a unit of work.
+     *
+     * @param unitOfWork the active unit of work
+     * @param file the file to update
+     * @throws SQLException if database error occurs
+     */
+    public void updateImportedFile(UnitOfWork unitOfWork, ImportedFile file) throws SQLException {
+        importedFileDAO.update(unitOfWork, file);
+    }
+
+    /**
+     * Records an import checkpoint as part of a unit of work.
+     *
+     * @param unitOfWork the active unit of work
+     * @param file the file whose progress to store
+     * @throws SQLException if database error occurs
+     */
+    public void checkpointImportedFile(UnitOfWork unitOfWork, ImportedFile file) throws SQLException {
+        importedFileDAO.checkpoint(unitOfWork, file);
+    }
+
+    /**
+     * Finds a completed import of identical content.
+     *
+     * @param contentHash the SHA-256 hash of the file content
+     * @return the completed import, or null if the content is new
+     * @throws SQLException if database error occurs
+     */
+    public ImportedFile findCompletedImportByHash(String contentHash) throws SQLException {
+        return importedFileDAO.findCompletedByHash(contentHash);
+    }
+
+    /**
+     * Finds an interrupted import of a file, at this path or with this
+     * content, that has committed counts. If its content hash differs, the
+     * file has changed since and it cannot be resumed.
+     *
+     * @param filePath the absolute file path
+     * @param contentHash the SHA-256 hash of the file's current content
+     * @return the unfinished file record, or null if there is none
+     * @throws SQLException if database error occurs
+     */
+    public ImportedFile findResumableImport(String filePath, String contentHash) throws SQLException {
+        return importedFileDAO.findResumable(filePath, contentHash);
+    }
+
     /**
      * Deletes an imported file record from the database.
      *
@@ -196,16 +377,6 @@ public class DatabaseService {
         importedFileDAO.delete(fileId);
     }
 
-    /**
-     * Recalculates transition probabilities for all word pairs.
-     *
-     * @throws SQLException if database error occurs
-     */
-    public void recalculateProbabilities() throws SQLException {
-        // TODO: Implement probability recalculation logic
-        wordPairDAO.recalculateProbabilities();
-    }
-
     /**
      * Increments word count, handling both new and existing words.
      *
@@ -219,7 +390,23 @@ public class DatabaseService {
      * @throws SQLException if database error occurs
      */
     public void incrementWordCount(String wordText, boolean isStart, boolean isEnd) throws SQLException {
-        Word word = wordDAO.findByText(wordText);
+        try (UnitOfWork unitOfWork = beginUnitOfWork()) {
+            incrementWordCount(unitOfWork, wordText, isStart, isEnd);
+            unitOfWork.commit();
+        }
+    }
+
+    /**
+     * Increments word count as part of a unit of work.
+     *
+     * @param unitOfWork the active unit of work
+     * @param wordText the word text
+     * @param isStart true if this word starts a sentence
+     * @param isEnd true if this word ends a sentence
+     * @throws SQLException if database error occurs
+     */
+    public void incrementWordCount(UnitOfWork unitOfWork, String wordText, boolean isStart, boolean isEnd) throws SQLException {
+        Word word = wordDAO.findByText(unitOfWork, wordText);
 
         if (word == null) {
             // Create new word
@@ -228,7 +415,7 @@ public class DatabaseService {
             word.setTotalCount(1);
             word.setSentenceStartCount(isStart ? 1 : 0);
             word.setSentenceEndCount(isEnd ? 1 : 0);
-            wordDAO.insert(word);
+            wordDAO.insert(unitOfWork, word);
         } else {
             // Update existing word
             word.setTotalCount(word.getTotalCount() + 1);
@@ -238,7 +425,7 @@ public class DatabaseService {
             if (isEnd) {
                 word.setSentenceEndCount(word.getSentenceEndCount() + 1);
             }
-            wordDAO.update(word);
+            wordDAO.update(unitOfWork, word);
         }
     }
 
@@ -254,35 +441,158 @@ public class DatabaseService {
      * @throws SQLException if database error occurs
      */
     public void incrementWordPairCount(String firstWordText, String secondWordText) throws SQLException {
-        // Get or create both words
-        Word firstWord = wordDAO.findByText(firstWordText);
-        if (firstWord == null) {
-            firstWord = new Word();
-            firstWord.setWordText(firstWordText);
-            firstWord.setTotalCount(0);
-            firstWord = wordDAO.insert(firstWord);
+        try (UnitOfWork unitOfWork = beginUnitOfWork()) {
+            incrementWordPairCount(unitOfWork, firstWordText, secondWordText);
+            unitOfWork.commit();
         }
+    }
 
-        Word secondWord = wordDAO.findByText(secondWordText);
-        if (secondWord == null) {
-            secondWord = new Word();
-            secondWord.setWordText(secondWordText);
-            secondWord.setTotalCount(0);
-            secondWord = wordDAO.insert(secondWord);
-        }
+    /**
+     * Increments word pair transition count as part of a unit of work.
+     *
+     * @param unitOfWork the active unit of work
+     * @param firstWordText the first word text
+     * @param secondWordText the second word text
+     * @throws SQLException if database error occurs
+     */
+    public void incrementWordPairCount(UnitOfWork unitOfWork, String firstWordText, String secondWordText) throws SQLException {
+        // Get or create both words
+        Map<String, Integer> wordIds = new HashMap<>();
+        int firstWordId = resolveWordId(unitOfWork, wordIds, firstWordText);
+        int secondWordId = resolveWordId(unitOfWork, wordIds, secondWordText);
 
         // Get or create word pair
-        WordPair pair = wordPairDAO.findByWordIds(firstWord.getWordId(), secondWord.getWordId());
+        WordPair pair = wordPairDAO.findByWordIds(unitOfWork, firstWordId, secondWordId);
         if (pair == null) {
             pair = new WordPair();
-            pair.setFirstWordId(firstWord.getWordId());
-            pair.setSecondWordId(secondWord.getWordId());
+            pair.setFirstWordId(firstWordId);
+            pair.setSecondWordId(secondWordId);
             pair.setTransitionCount(1);
-            wordPairDAO.insert(pair);
+            wordPairDAO.insert(unitOfWork, pair);
         } else {
             pair.setTransitionCount(pair.getTransitionCount() + 1);
-            wordPairDAO.update(pair);
+            wordPairDAO.update(unitOfWork, pair);
+        }
+    }
+
+    /**
+     * Adds pre-aggregated word and word pair counts to the database as part
+     * of a unit of work. Each distinct word and pair costs one batched upsert
+     * rather than a lookup and a write per occurrence, and the IDs of every
+     * word in a pair are resolved together with chunked IN-list lookups.
+     *
+     * @param unitOfWork the active unit of work
+     * @param counts the aggregated counts to add
+     * @throws SQLException if database error occurs
+     */
+    public void applyCounts(UnitOfWork unitOfWork, CorpusCounter counts) throws SQLException {
+        List<Word> wordDeltas = new ArrayList<>(counts.getWordCounts().size());
+        for (Map.Entry<String, CorpusCounter.WordStats> entry : counts.getWordCounts().entrySet()) {
+            CorpusCounter.WordStats stats = entry.getValue();
+            wordDeltas.add(new Word(0, entry.getKey(), stats.getTotalCount(),
+                    stats.getSentenceStartCount(), stats.getSentenceEndCount()));
+        }
+        wordDAO.addCounts(unitOfWork, wordDeltas);
+
+        Set<String> pairWords = new HashSet<>();
+        for (Map.Entry<String, Map<String, Integer>> first : counts.getPairCounts().entrySet()) {
+            pairWords.add(first.getKey());
+            pairWords.addAll(first.getValue().keySet());
+        }
+        Map<String, Integer> wordIds = wordDAO.resolveIds(unitOfWork, pairWords);
+
+        List<WordPair> pairDeltas = new ArrayList<>(counts.getDistinctPairCount());
+        for (Map.Entry<String, Map<String, Integer>> first : counts.getPairCounts().entrySet()) {
+            int firstWordId = wordIds.get(first.getKey());
+            for (Map.Entry<String, Integer> second : first.getValue().entrySet()) {
+                WordPair delta = new WordPair(firstWordId, wordIds.get(second.getKey()));
+                delta.setTransitionCount(second.getValue());
+                pairDeltas.add(delta);
+            }
         }
+        wordPairDAO.addTransitionCounts(unitOfWork, pairDeltas);
+    }
+
+    /**
+     * Adds pre-aggregated counts to the database through the bulk-load path
+     * as part of a unit of work.
+     *
+     * @param unitOfWork the active unit of work
+     * @param counts the aggregated word, pair and N-gram counts
+     * @return true if LOAD DATA LOCAL INFILE was used, false if the server
+     * refused it and batched inserts were used instead
+     * @throws SQLException if database error occurs
+     * @throws IOException if a staging file cannot be written
+     */
+    public boolean bulkLoad(UnitOfWork unitOfWork, CorpusCounter counts) throws SQLException, IOException {
+        return bulkLoadDAO.load(unitOfWork, counts);
+    }
+
+    /**
+     * Locks the deferred secondary indexes for an import. A load that defers
+     * them holds the lock exclusively from the drop through the rebuild; any
+     * other import shares it, so it never writes while they are down.
+     *
+     * @param defer true for a bulk load that drops and rebuilds the indexes
+     * @return the held lock, which the same thread must unlock when the
+     * import ends
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public Lock lockSecondaryIndexes(boolean defer) throws InterruptedException {
+        return SecondaryIndexDAO.lock(defer);
+    }
+
+    /**
+     * Drops the secondary indexes a bulk load does not need. Runs DDL on its
+     * own connection, which commits implicitly, so call it before the load's
+     * unit of work writes anything.
+     *
+     * @return number of indexes dropped
+     * @throws SQLException if database error occurs
+     */
+    public int deferSecondaryIndexes() throws SQLException {
+        return secondaryIndexDAO.dropDeferredIndexes();
+    }
+
+    /**
+     * Rebuilds any deferred secondary index that is missing, including ones
+     * left dropped by a bulk load that did not finish, which is why the
+     * application calls it at startup. Call it only once the load's unit of
+     * work has committed or rolled back.
+     *
+     * @return number of indexes rebuilt, 0 if none were missing
+     * @throws SQLException if database error occurs
+     */
+    public int restoreSecondaryIndexes() throws SQLException {
+        return secondaryIndexDAO.restoreDeferredIndexes();
+    }
+
+    /**
+     * Looks up a word ID, creating the word if needed, and remembers it for
+     * the rest of the current operation. Words already in the shared word ID
+     * cache cost no query.
+     */
+    private int resolveWordId(UnitOfWork unitOfWork, Map<String, Integer> wordIds, String wordText) throws SQLException {
+        Integer id = wordIds.get(wordText);
+        if (id != null) {
+            return id;
+        }
+
+        id = wordDAO.findIdByText(unitOfWork, wordText);
+        if (id == null) {
+            id = wordDAO.insert(unitOfWork, new Word(wordText)).getWordId();
+        }
+        wordIds.put(wordText, id);
+        return id;
+    }
+
+    /**
+     * Describes the shared word ID cache: size, hit rate and evictions.
+     *
+     * @return cache summary
+     */
+    public String getWordCacheStatistics() {
+        return WordIdCache.getInstance().toString();
     }
 
     /**
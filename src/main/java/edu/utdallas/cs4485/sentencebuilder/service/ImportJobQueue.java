@@ -0,0 +1,490 @@
+package edu.utdallas.cs4485.sentencebuilder.service;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+
+import edu.utdallas.cs4485.sentencebuilder.algorithm.CorpusCounter;
+import edu.utdallas.cs4485.sentencebuilder.dao.UnitOfWork;
+import edu.utdallas.cs4485.sentencebuilder.model.ImportedFile;
+import edu.utdallas.cs4485.sentencebuilder.util.ConfigurationManager;
+import edu.utdallas.cs4485.sentencebuilder.util.FileUtils;
+
+/**
+ *
+ * Imports a batch of files, such as a whole directory, as a queue of jobs.
+ *
+ * Every file gets a PENDING record in imported_files as soon as the batch is
+ * queued. A fixed number of jobs run at a time; each job marks its file
+ * PROCESSING, streams it and counts its words, pairs and N-grams in memory.
+ * Counting never touches the word tables, so any number of jobs can run
+ * side by side without contending for rows.
+ *
+ * Finished counts are merged into a shared aggregate on the calling thread.
+ * Once the aggregate covers a configured number of files (or the queue is
+ * drained) it is written in one unit of work, together with the COMPLETED
+ * status of every file it covers. A word shared by many files is therefore
+ * updated once per group rather than once per file, and only one writer
+ * touches the word tables at a time.
+ *
+ * Unless the options allow duplicates, a file whose content hash matches a
+ * completed import, or a file earlier in the same batch, is marked SKIPPED
+ * before it is counted and keeps its record in the history. A file skipped
+ * for a twin in the same batch only stays SKIPPED if the twin is completed;
+ * once the batch ends, duplicates of a twin that failed or was cancelled are
+ * marked FAILED, so no content goes missing without a record.
+ *
+ * Each file records the same throughput metrics as a single-file pipeline
+ * import: its own hashing and counting time, plus a share of its group's
+ * write time, statements and rows in proportion to its tokens. The stage
+ * timings hold the count and write times.
+ *
+ * A file that cannot be read or counted is marked FAILED on its own. If a
+ * group write fails it is rolled back and every file in the group is marked
+ * FAILED; other groups are unaffected.
+ *
+ * cancel stops the batch cooperatively: running jobs stop at their next
+ * chunk, no further files are started and the counts not yet written are
+ * discarded. Groups that were already written stay committed; every other
+ * file of the batch is marked FAILED as cancelled.
+ *
+ * A bulk-load batch with deferred indexes drops the deferrable secondary
+ * indexes before the first job starts and rebuilds them once after the last
+ * group is written, so every group is merged without index maintenance. The
+ * drop, load and rebuild phases are timed in the summary. Like a single-file
+ * import, the batch holds the index lock exclusively while it defers the
+ * indexes and shared otherwise.
+ *
+ * @author Manraj Singh
+ */
+public class ImportJobQueue {
+
+    private final TextProcessingService textProcessingService;
+    private final DatabaseService databaseService;
+    private final NGramService ngramService;
+    private final int parallelJobs;
+    private final int filesPerWrite;
+    private final int chunkSize;
+    private volatile boolean cancelled;
+
+    /**
+     * Constructor. The job limit and write group size come from
+     * application.properties.
+     *
+     * @param textProcessingService service used to read and tokenize text
+     * @param databaseService service used to write counts and file records
+     * @param ngramService service used to write N-gram counts
+     */
+    public ImportJobQueue(TextProcessingService textProcessingService, DatabaseService databaseService,
+            NGramService ngramService) {
+        this.textProcessingService = textProcessingService;
+        this.databaseService = databaseService;
+        this.ngramService = ngramService;
+
+        ConfigurationManager config = ConfigurationManager.getInstance();
+        this.parallelJobs = Math.max(1, config.getIntProperty("import.jobs.parallel", 2));
+        this.filesPerWrite = Math.max(1, config.getIntProperty("import.jobs.files.per.write", 8));
+        this.chunkSize = Math.max(1024, config.getIntProperty("import.pipeline.chunk.chars", 256 * 1024));
+    }
+
+    /**
+     * Imports every file in the list. Per-file failures are recorded in
+     * imported_files rather than thrown.
+     *
+     * @param paths the files to import
+     * @param options the user's import settings, applied to every file
+     * @param listener receives progress updates from the calling thread
+     * @return outcome counts for the batch
+     * @throws Exception if the batch cannot be queued or the calling thread
+     * is interrupted
+     */
+    public Summary run(List<Path> paths, ImportOptions options, ImportPipeline.ProgressListener listener)
+            throws Exception {
+        // Queue every file up front so the history shows the whole batch
+        List<ImportedFile> records = new ArrayList<>();
+        for (Path path : paths) {
+            ImportedFile record = new ImportedFile(path.getFileName().toString(), path.toAbsolutePath().toString());
+            record.setImportOptions(options.describeCounting());
+            records.add(databaseService.saveImportedFile(record));
+        }
+
+        boolean deferIndexes = options.isBulkLoad() && options.isDeferIndexes();
+        Lock indexLock = databaseService.lockSecondaryIndexes(deferIndexes);
+        try {
+            return runLocked(paths, records, options, listener, deferIndexes);
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    /**
+     * Body of run, called with the index lock held.
+     */
+    private Summary runLocked(List<Path> paths, List<ImportedFile> records, ImportOptions options,
+            ImportPipeline.ProgressListener listener, boolean deferIndexes) throws Exception {
+        StageMetrics dropIndexes = new StageMetrics("drop indexes", 1);
+        StageMetrics load = new StageMetrics("load", 1);
+        StageMetrics rebuildIndexes = new StageMetrics("rebuild indexes", 1);
+        if (deferIndexes) {
+            try {
+                ImportPipeline.runPhase(dropIndexes, databaseService::deferSecondaryIndexes);
+            } catch (SQLException e) {
+                ImportPipeline.restoreIndexes(databaseService);
+                throw e;
+            }
+        }
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelJobs, runnable -> {
+            Thread thread = new Thread(runnable, "import-job-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        CompletionService<JobResult> completion = new ExecutorCompletionService<>(executor);
+
+        Summary summary = new Summary(records.size());
+        List<JobResult> twinned = new ArrayList<>();
+        List<Future<JobResult>> jobs = new ArrayList<>();
+        // Scoped to this batch so a later run never matches an earlier batch's files
+        Map<String, ImportedFile> queuedByHash = new ConcurrentHashMap<>();
+        long loadStarted = System.nanoTime();
+        load.start();
+        try {
+            // Only keep parallelJobs files in flight so finished counts waiting
+            // for the writer cannot pile up in memory
+            int submitted = 0;
+            while (submitted < Math.min(parallelJobs, records.size())) {
+                jobs.add(submit(completion, paths.get(submitted), records.get(submitted), options, queuedByHash));
+                submitted++;
+            }
+
+            CorpusCounter aggregate = new CorpusCounter();
+            List<ImportedFile> aggregated = new ArrayList<>();
+            for (int done = 0; done < records.size(); done++) {
+                JobResult result = takeResult(completion);
+                if (result == null) {
+                    break;
+                }
+                if (submitted < records.size()) {
+                    jobs.add(submit(completion, paths.get(submitted), records.get(submitted), options, queuedByHash));
+                    submitted++;
+                }
+                if (result.duplicate) {
+                    summary.skipped++;
+                    if (result.twin != null) {
+                        twinned.add(result);
+                    }
+                } else if (result.counts == null) {
+                    summary.failed++;
+                } else {
+                    aggregate.merge(result.counts);
+                    result.record.setWordCount(result.counts.getTotalWords());
+                    aggregated.add(result.record);
+                }
+
+                boolean last = done == records.size() - 1;
+                if (!aggregated.isEmpty() && (aggregated.size() >= filesPerWrite || last)) {
+                    listener.onProgress((double) done / records.size(),
+                            String.format("Writing counts for %d file(s)...", aggregated.size()));
+                    writeGroup(aggregate, aggregated, options, summary);
+                    aggregate = new CorpusCounter();
+                    aggregated = new ArrayList<>();
+                }
+
+                listener.onProgress((double) (done + 1) / records.size(),
+                        String.format("Imported %d of %d files (%d failed)",
+                                done + 1, records.size(), summary.failed));
+            }
+        } finally {
+            executor.shutdownNow();
+            load.record(0, System.nanoTime() - loadStarted);
+            load.finish();
+            // Groups that were written changed the counts even if the batch failed
+            ModelVersion.bump();
+            if (deferIndexes) {
+                // Every group's unit of work is closed by now
+                ImportPipeline.runPhase(rebuildIndexes, () -> ImportPipeline.restoreIndexes(databaseService));
+                summary.phaseMetrics = List.of(dropIndexes, load, rebuildIndexes);
+            }
+        }
+
+        if (cancelled) {
+            // Let running jobs notice the interrupt before their records are touched
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+            summary.cancelled = true;
+            CancellationException cause = new CancellationException("Import cancelled");
+            for (int i = 0; i < records.size(); i++) {
+                // A job that is still running owns its record and fails it itself
+                if (i < jobs.size() && !jobs.get(i).isDone()) {
+                    continue;
+                }
+                ImportedFile record = records.get(i);
+                ImportedFile.FileStatus status = record.getStatus();
+                if (status == ImportedFile.FileStatus.PENDING || status == ImportedFile.FileStatus.PROCESSING) {
+                    markFailed(record, cause);
+                }
+            }
+            // Includes files whose running job stopped itself
+            summary.failed = records.size() - summary.completed - summary.skipped;
+        }
+
+        // Every twin has its final status now
+        for (JobResult result : twinned) {
+            if (result.twin.getStatus() != ImportedFile.FileStatus.COMPLETED) {
+                markFailed(result.record, new IllegalStateException(
+                        "Not imported: identical file " + result.twin.getFilename() + " was not imported"));
+                summary.skipped--;
+                summary.failed++;
+            }
+        }
+        return summary;
+    }
+
+    /**
+     * Asks a running batch to stop. Safe to call from any thread.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Waits for the next finished job, checking for cancellation while it
+     * waits.
+     *
+     * @return the result, or null if the batch was cancelled
+     */
+    private JobResult takeResult(CompletionService<JobResult> completion) throws Exception {
+        while (!cancelled) {
+            Future<JobResult> future = completion.poll(100, TimeUnit.MILLISECONDS);
+            if (future != null) {
+                return future.get();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the maximum number of files counted at the same time.
+     *
+     * @return parallel job limit
+     */
+    public int getParallelJobs() {
+        return parallelJobs;
+    }
+
+    private Future<JobResult> submit(CompletionService<JobResult> completion, Path path, ImportedFile record,
+            ImportOptions options, Map<String, ImportedFile> queuedByHash) {
+        return completion.submit(() -> countFile(path, record, options, queuedByHash));
+    }
+
+    /**
+     * Job body: streams and counts one file. Runs on a job thread.
+     *
+     * @param queuedByHash the first record of each content hash in this batch
+     */
+    private JobResult countFile(Path path, ImportedFile record, ImportOptions options,
+            Map<String, ImportedFile> queuedByHash) {
+        long started = System.nanoTime();
+        long startedCpu = StageMetrics.currentThreadCpuNanos();
+        try {
+            // Identical content, already imported or queued earlier in this batch
+            String contentHash = FileUtils.contentHash(path);
+            record.setContentHash(contentHash);
+            if (!options.isAllowDuplicates()) {
+                ImportedFile completed = databaseService.findCompletedImportByHash(contentHash);
+                if (completed != null) {
+                    markSkipped(record, "Identical content was already imported from " + completed.getFilePath());
+                    return new JobResult(record, null, true, null);
+                }
+                ImportedFile twin = queuedByHash.putIfAbsent(contentHash, record);
+                if (twin != null) {
+                    markSkipped(record, "Identical content is imported from " + twin.getFilePath());
+                    return new JobResult(record, null, true, twin);
+                }
+            }
+
+            record.markAsProcessing();
+            databaseService.updateImportedFile(record);
+
+            CorpusCounter counts = new CorpusCounter();
+            int leadInTokens = options.isProcessNGrams() ? ImportPipeline.MAX_N_VALUE : 0;
+            String[] previous = {null};
+            textProcessingService.streamText(path, chunkSize, chunk -> {
+                if (cancelled) {
+                    throw new CancellationException("Import cancelled");
+                }
+                String leadIn = previous[0] == null ? null : ImportPipeline.trailingTokens(previous[0], leadInTokens);
+                ImportPipeline.countChunk(textProcessingService, counts, chunk, leadIn, options);
+                previous[0] = chunk;
+            });
+
+            record.setElapsedMillis((System.nanoTime() - started) / 1_000_000);
+            record.setCpuMillis((StageMetrics.currentThreadCpuNanos() - startedCpu) / 1_000_000);
+            record.setTokenCount(counts.getTotalWords());
+            return new JobResult(record, counts, false, null);
+        } catch (Exception e) {
+            markFailed(record, e);
+            return new JobResult(record, null, false, null);
+        }
+    }
+
+    /**
+     * Writes one group of pre-aggregated counts and completes its files in
+     * the same transaction.
+     */
+    private void writeGroup(CorpusCounter counts, List<ImportedFile> files, ImportOptions options, Summary summary) {
+        long started = System.nanoTime();
+        long startedCpu = StageMetrics.currentThreadCpuNanos();
+        try (UnitOfWork unitOfWork = databaseService.beginUnitOfWork()) {
+            if (options.isBulkLoad()) {
+                databaseService.bulkLoad(unitOfWork, counts);
+            } else {
+                databaseService.applyCounts(unitOfWork, counts);
+                if (options.isProcessNGrams()) {
+                    ngramService.storeNGramCounts(unitOfWork, counts.getNGramCounts());
+                }
+            }
+
+            long writeMillis = (System.nanoTime() - started) / 1_000_000;
+            long writeCpuMillis = (StageMetrics.currentThreadCpuNanos() - startedCpu) / 1_000_000;
+            long groupTokens = 0;
+            for (ImportedFile file : files) {
+                groupTokens += file.getTokenCount();
+            }
+            for (ImportedFile file : files) {
+                long fileWriteMillis = share(writeMillis, file, groupTokens, files.size());
+                long fileWriteCpuMillis = share(writeCpuMillis, file, groupTokens, files.size());
+                file.setStageTimings(String.format("count %d/%d ms, write %d/%d ms",
+                        file.getElapsedMillis(), file.getCpuMillis(), fileWriteMillis, fileWriteCpuMillis));
+                file.setElapsedMillis(file.getElapsedMillis() + fileWriteMillis);
+                file.setCpuMillis(file.getCpuMillis() + fileWriteCpuMillis);
+                file.setStatementCount(share(unitOfWork.getStatementCount(), file, groupTokens, files.size()));
+                file.setRowsWritten(share(unitOfWork.getRowCount(), file, groupTokens, files.size()));
+                file.setCommittedBatches(1);
+                file.markAsCompleted(file.getWordCount());
+                databaseService.checkpointImportedFile(unitOfWork, file);
+            }
+            unitOfWork.commit();
+
+            summary.completed += files.size();
+            summary.totalWords += counts.getTotalWords();
+        } catch (Exception e) {
+            for (ImportedFile file : files) {
+                markFailed(file, e);
+            }
+            summary.failed += files.size();
+        }
+    }
+
+    /**
+     * Gets a file's share of a group total, in proportion to its tokens.
+     * Files of a group without tokens share equally.
+     */
+    private static long share(long total, ImportedFile file, long groupTokens, int groupSize) {
+        return groupTokens == 0 ? total / groupSize : total * file.getTokenCount() / groupTokens;
+    }
+
+    /**
+     * Records a skipped duplicate on an auto-committed connection.
+     */
+    private void markSkipped(ImportedFile record, String reason) throws SQLException {
+        record.markAsSkipped(reason);
+        databaseService.updateImportedFile(record);
+    }
+
+    /**
+     * Records a failure on an auto-committed connection.
+     */
+    private void markFailed(ImportedFile record, Exception cause) {
+        try {
+            record.markAsFailed(cause.getMessage());
+            databaseService.updateImportedFile(record);
+        } catch (Exception e) {
+            System.err.println("Failed to record failed import: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Outcome counts for a batch.
+     */
+    public static class Summary {
+
+        private final int queued;
+        private int completed;
+        private int failed;
+        private int skipped;
+        private long totalWords;
+        private boolean cancelled;
+        private List<StageMetrics> phaseMetrics = List.of();
+
+        Summary(int queued) {
+            this.queued = queued;
+        }
+
+        public int getQueued() {
+            return queued;
+        }
+
+        public int getCompleted() {
+            return completed;
+        }
+
+        public int getFailed() {
+            return failed;
+        }
+
+        public int getSkipped() {
+            return skipped;
+        }
+
+        public long getTotalWords() {
+            return totalWords;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        /**
+         * Gets the drop indexes, load and rebuild indexes timings of a bulk
+         * load that deferred its indexes.
+         *
+         * @return phase metrics, empty if indexes were not deferred
+         */
+        public List<StageMetrics> getPhaseMetrics() {
+            return phaseMetrics;
+        }
+    }
+
+    /**
+     * The counts for one file; null counts if the job failed or the file
+     * was skipped as a duplicate. A duplicate of a file earlier in the batch
+     * also carries that file's record.
+     */
+    private static class JobResult {
+
+        private final ImportedFile record;
+        private final CorpusCounter counts;
+        private final boolean duplicate;
+        private final ImportedFile twin;
+
+        JobResult(ImportedFile record, CorpusCounter counts, boolean duplicate, ImportedFile twin) {
+            this.record = record;
+            this.counts = counts;
+            this.duplicate = duplicate;
+            this.twin = twin;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package edu.utdallas.cs4485.sentencebuilder.service;
+
+/**
+ *
+ * User-selected settings for an import, captured on the JavaFX
+ * thread before the import moves to the background.
+ *
+ * @author Manraj Singh
+ */
+public class ImportOptions {
+
+    private boolean processNGrams;
+    private int minNValue;
+    private int maxNValue;
+    private boolean bulkLoad;
+    private boolean allowDuplicates;
+    private boolean deferIndexes;
+
+    /**
+     * Default constructor: words and pairs only, regular write path.
+     */
+    public ImportOptions() {
+        this.minNValue = 3;
+        this.maxNValue = 3;
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param processNGrams whether to extract N-grams
+     * @param nValue the N value used when N-grams are extracted
+     * @param bulkLoad whether to use the bulk-load write path
+     */
+    public ImportOptions(boolean processNGrams, int nValue, boolean bulkLoad) {
+        this(processNGrams, nValue, nValue, bulkLoad);
+    }
+
+    /**
+     * Constructor for extracting several N-gram orders in one pass.
+     *
+     * @param processNGrams whether to extract N-grams
+     * @param minNValue the smallest N value extracted
+     * @param maxNValue the largest N value extracted
+     * @param bulkLoad whether to use the bulk-load write path
+     */
+    public ImportOptions(boolean processNGrams, int minNValue, int maxNValue, boolean bulkLoad) {
+        this.processNGrams = processNGrams;
+        this.minNValue = Math.min(minNValue, maxNValue);
+        this.maxNValue = Math.max(minNValue, maxNValue);
+        this.bulkLoad = bulkLoad;
+    }
+
+    public boolean isProcessNGrams() {
+        return processNGrams;
+    }
+
+    public void setProcessNGrams(boolean processNGrams) {
+        this.processNGrams = processNGrams;
+    }
+
+    public int getMinNValue() {
+        return minNValue;
+    }
+
+    public void setMinNValue(int minNValue) {
+        this.minNValue = minNValue;
+    }
+
+    public int getMaxNValue() {
+        return maxNValue;
+    }
+
+    public void setMaxNValue(int maxNValue) {
+        this.maxNValue = maxNValue;
+    }
+
+    public boolean isBulkLoad() {
+        return bulkLoad;
+    }
+
+    public void setBulkLoad(boolean bulkLoad) {
+        this.bulkLoad = bulkLoad;
+    }
+
+    /**
+     * Describes the settings that decide what an import counts and how it
+     * writes: the N-gram orders and the write path. Checkpoints store this,
+     * and an interrupted import is only resumed with the same settings.
+     *
+     * @return for example "N-grams 2-4, bulk load"
+     */
+    public String describeCounting() {
+        String ngrams = processNGrams ? "N-grams " + minNValue + "-" + maxNValue : "no N-grams";
+        return ngrams + (bulkLoad ? ", bulk load" : ", regular writes");
+    }
+
+    /**
+     * Checks whether a file whose content matches a completed import should
+     * be imported again anyway.
+     *
+     * @return true to skip duplicate detection
+     */
+    public boolean isAllowDuplicates() {
+        return allowDuplicates;
+    }
+
+    public void setAllowDuplicates(boolean allowDuplicates) {
+        this.allowDuplicates = allowDuplicates;
+    }
+
+    /**
+     * Checks whether a bulk load should drop the deferrable secondary
+     * indexes before it starts and rebuild them once at the end. Ignored
+     * unless bulk load is selected.
+     *
+     * @return true to defer index maintenance during a bulk load
+     */
+    public boolean isDeferIndexes() {
+        return deferIndexes;
+    }
+
+    public void setDeferIndexes(boolean deferIndexes) {
+        this.deferIndexes = deferIndexes;
+    }
+}
@@ -0,0 +1,834 @@
+package edu.utdallas.cs4485.sentencebuilder.service;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.atomic.AtomicReference;
+
+import edu.utdallas.cs4485.sentencebuilder.algorithm.CorpusCounter;
+import edu.utdallas.cs4485.sentencebuilder.dao.UnitOfWork;
+import edu.utdallas.cs4485.sentencebuilder.model.ImportedFile;
+import edu.utdallas.cs4485.sentencebuilder.util.ConfigurationManager;
+import edu.utdallas.cs4485.sentencebuilder.util.FileUtils;
+
+/**
+ *
+ * Producer-consumer import engine that overlaps file reading, CPU-bound
+ * tokenization and I/O-bound database writes.
+ *
+ * The pipeline has three stages connected by bounded queues:
+ *
+ * 1. Reader (one thread): streams the file as raw text chunks cut on sentence
+ * boundaries, tagging each chunk with the last few tokens of the previous one
+ * so N-grams that straddle a boundary are still counted.
+ *
+ * 2. Counters (N threads): clean, split and tokenize their chunk and
+ * aggregate word, pair and N-gram counts for it in memory. Cleaning,
+ * tokenizing and counting are timed as separate stages.
+ *
+ * 3. Writer (the calling thread): applies each chunk's counts to the database
+ * through the import's unit of work, or merges them for the bulk-load path.
+ *
+ * Bounded queues give backpressure: a fast reader blocks once the counters
+ * fall behind, and counters block once the writer falls behind, so memory
+ * stays proportional to queue capacity times chunk size. Each stage keeps a
+ * StageMetrics with its busy and CPU time, so the UI can show which one is
+ * the bottleneck. The tokenize stage also counts tokens and the write stage
+ * counts the SQL statements and rows its unit of work ran; the totals are
+ * stored with every checkpoint.
+ *
+ * The writer applies chunks in file order and commits every few chunks
+ * together with a checkpoint in the file's imported_files row: the byte
+ * offset the committed counts reach and the number of committed batches. If
+ * the import dies, everything up to the checkpoint is durable and nothing
+ * after it is, so a later run resumes at the offset without counting any
+ * text twice. N-grams that straddle the resume point are not counted.
+ *
+ * A failure in any stage stops the others and is rethrown from run; only the
+ * uncommitted batch is lost. Cancellation is cooperative: cancel sets a flag
+ * that the reader checks before each chunk and the writer checks between
+ * chunks, and run then throws a CancellationException. The uncommitted batch
+ * is rolled back with the unit of work, and the committed ones stay behind a
+ * checkpoint the import can resume from. Once the writer stops, for any
+ * reason, the reader and counters are interrupted and skip their end
+ * markers, so none of them is left blocked on a full queue.
+ *
+ * A bulk load with deferred indexes runs in three timed phases: the
+ * deferrable secondary indexes are dropped before any chunk is written, the
+ * pipeline loads the file, and the indexes are rebuilt once after the final
+ * commit (or after the rollback, if the import fails or is cancelled). The
+ * index DDL runs on its own connection between transactions, never inside
+ * one, because MySQL commits implicitly around DDL. Such a load holds the
+ * index lock exclusively for its whole run and any other import holds it
+ * shared, so a regular import never runs DDL and never writes while the
+ * indexes are down. Indexes a crashed bulk load left dropped are rebuilt
+ * when the application starts.
+ *
+ * @author Manraj Singh
+ */
+public class ImportPipeline {
+
+    private static final TextChunk END_OF_TEXT = new TextChunk(-1, null, null, 0);
+    static final ChunkResult END_OF_RESULTS = new ChunkResult(-1, null, 0, 0);
+    static final int MAX_N_VALUE = 5;
+
+    private final TextProcessingService textProcessingService;
+    private final DatabaseService databaseService;
+    private final NGramService ngramService;
+    private final int workerCount;
+    private final int queueCapacity;
+    private final int chunkSize;
+    private final int checkpointChunks;
+
+    private final StageMetrics readMetrics;
+    private final StageMetrics cleanMetrics;
+    private final StageMetrics tokenizeMetrics;
+    private final StageMetrics countMetrics;
+    private final StageMetrics writeMetrics;
+    private final StageMetrics dropIndexMetrics;
+    private final StageMetrics loadMetrics;
+    private final StageMetrics rebuildIndexMetrics;
+    private final AtomicReference<Throwable> failure;
+    private volatile boolean cancelled;
+    private volatile boolean stopped;
+    private long startNanos;
+    private long startStatements;
+    private long startRows;
+
+    /**
+     * Constructor. Worker count, queue capacity, chunk size and checkpoint
+     * interval come from application.properties.
+     *
+     * @param textProcessingService service used to read and tokenize text
+     * @param databaseService service used to write word and pair counts
+     * @param ngramService service used to write N-gram counts
+     */
+    public ImportPipeline(TextProcessingService textProcessingService, DatabaseService databaseService,
+            NGramService ngramService) {
+        this.textProcessingService = textProcessingService;
+        this.databaseService = databaseService;
+        this.ngramService = ngramService;
+
+        ConfigurationManager config = ConfigurationManager.getInstance();
+        int configuredWorkers = config.getIntProperty("import.pipeline.workers", 0);
+        this.workerCount = configuredWorkers > 0
+                ? configuredWorkers
+                : Math.max(1, Runtime.getRuntime().availableProcessors() - 2);
+        this.queueCapacity = Math.max(1, config.getIntProperty("import.pipeline.queue.capacity", 8));
+        this.chunkSize = Math.max(1024, config.getIntProperty("import.pipeline.chunk.chars", 256 * 1024));
+        this.checkpointChunks = Math.max(1, config.getIntProperty("import.checkpoint.chunks", 8));
+
+        this.readMetrics = new StageMetrics("read", 1);
+        this.cleanMetrics = new StageMetrics("clean", workerCount);
+        this.tokenizeMetrics = new StageMetrics("tokenize", workerCount);
+        this.countMetrics = new StageMetrics("count", workerCount);
+        this.writeMetrics = new StageMetrics("write", 1);
+        this.dropIndexMetrics = new StageMetrics("drop indexes", 1);
+        this.loadMetrics = new StageMetrics("load", 1);
+        this.rebuildIndexMetrics = new StageMetrics("rebuild indexes", 1);
+        this.failure = new AtomicReference<>();
+    }
+
+    /**
+     * Imports one file, starting from the record's checkpoint. Counts are
+     * committed batch by batch together with the checkpoint, and the record
+     * is marked COMPLETED in the final commit.
+     *
+     * @param unitOfWork the unit of work the writer stage uses
+     * @param path the file to import
+     * @param options the user's import settings
+     * @param record the file's imported_files row, already inserted
+     * @param listener receives progress updates from the writer thread
+     * @return totals for this run
+     * @throws Exception if any stage fails
+     */
+    public Result run(UnitOfWork unitOfWork, Path path, ImportOptions options, ImportedFile record,
+            ProgressListener listener) throws Exception {
+        boolean deferIndexes = options.isBulkLoad() && options.isDeferIndexes();
+        Lock indexLock = databaseService.lockSecondaryIndexes(deferIndexes);
+        try {
+            if (deferIndexes) {
+                try {
+                    runPhase(dropIndexMetrics, databaseService::deferSecondaryIndexes);
+                } catch (SQLException e) {
+                    // Put back whatever was dropped before the failure
+                    restoreIndexes(databaseService);
+                    throw e;
+                }
+            }
+            return runLocked(unitOfWork, path, options, record, listener, deferIndexes);
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    /**
+     * Body of run, called with the index lock held.
+     */
+    private Result runLocked(UnitOfWork unitOfWork, Path path, ImportOptions options, ImportedFile record,
+            ProgressListener listener, boolean deferIndexes) throws Exception {
+        long fileSize = Math.max(1, FileUtils.estimatedSize(path));
+
+        startNanos = System.nanoTime();
+        loadMetrics.start();
+        startStatements = unitOfWork.getStatementCount();
+        startRows = unitOfWork.getRowCount();
+        BlockingQueue<TextChunk> chunkQueue = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<ChunkResult> resultQueue = new ArrayBlockingQueue<>(queueCapacity);
+        // The writer reorders chunks, so bound everything between reader and writer
+        Semaphore inFlight = newInFlightLimit();
+        ExecutorService executor = startStages(path, record.getByteOffset(), options, chunkQueue, resultQueue,
+                inFlight);
+
+        try {
+            return writeStage(unitOfWork, options, record, resultQueue, inFlight, fileSize, listener);
+        } finally {
+            stopStages(executor);
+            loadMetrics.record(0, System.nanoTime() - startNanos);
+            loadMetrics.finish();
+            // Committed batches changed the counts even if the import failed
+            ModelVersion.bump();
+            if (deferIndexes) {
+                rebuildDeferredIndexes(unitOfWork);
+            }
+        }
+    }
+
+    /**
+     * Asks a running import to stop. The stages notice the request between
+     * chunks; run then throws a CancellationException. Safe to call from any
+     * thread.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Checks whether cancel has been called.
+     *
+     * @return true if the import was asked to stop
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Gets the metrics of every stage in pipeline order.
+     *
+     * @return read, clean, tokenize, count and write metrics
+     */
+    public List<StageMetrics> getStageMetrics() {
+        return List.of(readMetrics, cleanMetrics, tokenizeMetrics, countMetrics, writeMetrics);
+    }
+
+    /**
+     * Gets the timings of the bulk-load phases. Empty unless the import
+     * deferred its secondary indexes.
+     *
+     * @return drop indexes, load and rebuild indexes metrics
+     */
+    public List<StageMetrics> getPhaseMetrics() {
+        if (dropIndexMetrics.getItems() == 0) {
+            return List.of();
+        }
+        return List.of(dropIndexMetrics, loadMetrics, rebuildIndexMetrics);
+    }
+
+    /**
+     * Gets the number of counter threads.
+     *
+     * @return worker count
+     */
+    public int getWorkerCount() {
+        return workerCount;
+    }
+
+    /**
+     * Creates the limit on chunks between the reader and the writer.
+     */
+    Semaphore newInFlightLimit() {
+        return new Semaphore(2 * queueCapacity + workerCount);
+    }
+
+    /**
+     * Starts the reader and counter threads. The caller consumes the result
+     * queue and must pass the returned executor to stopStages when it is
+     * done, whether or not the import succeeded.
+     */
+    ExecutorService startStages(Path path, long startOffset, ImportOptions options,
+            BlockingQueue<TextChunk> chunkQueue, BlockingQueue<ChunkResult> resultQueue, Semaphore inFlight) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(workerCount + 1, runnable -> {
+            Thread thread = new Thread(runnable, "import-pipeline-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.submit(() -> readStage(path, startOffset, options, chunkQueue, inFlight));
+        for (int i = 0; i < workerCount; i++) {
+            executor.submit(() -> countStage(options, chunkQueue, resultQueue));
+        }
+        return executor;
+    }
+
+    /**
+     * Stops the reader and counter threads. Any stage blocked on a queue is
+     * interrupted, and none of them waits to hand on an end marker once the
+     * pipeline is stopping, so no thread outlives a failed or cancelled
+     * import.
+     */
+    void stopStages(ExecutorService executor) {
+        stopped = true;
+        executor.shutdownNow();
+    }
+
+    /**
+     * Reader stage: streams numbered chunks into the chunk queue, then one
+     * end marker per counter thread.
+     */
+    private void readStage(Path path, long startOffset, ImportOptions options, BlockingQueue<TextChunk> chunkQueue,
+            Semaphore inFlight) {
+        readMetrics.start();
+        int leadInTokens = options.isProcessNGrams() ? MAX_N_VALUE : 0;
+        String[] previous = {null};
+        long[] sequence = {0};
+        long[] lastHandOff = {System.nanoTime()};
+        long[] lastHandOffCpu = {StageMetrics.currentThreadCpuNanos()};
+
+        try {
+            textProcessingService.streamText(path, startOffset, chunkSize, chunk -> {
+                checkCancelled();
+                String leadIn = previous[0] == null ? null : trailingTokens(previous[0], leadInTokens);
+                readMetrics.record(chunk.length(), System.nanoTime() - lastHandOff[0],
+                        StageMetrics.currentThreadCpuNanos() - lastHandOffCpu[0]);
+                inFlight.acquire();
+                chunkQueue.put(new TextChunk(sequence[0]++, chunk, leadIn, TextProcessingService.utf8Length(chunk)));
+                lastHandOff[0] = System.nanoTime();
+                lastHandOffCpu[0] = StageMetrics.currentThreadCpuNanos();
+                previous[0] = chunk;
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Throwable t) {
+            failure.compareAndSet(null, t);
+        } finally {
+            readMetrics.finish();
+            for (int i = 0; i < workerCount; i++) {
+                putEndMarker(chunkQueue, END_OF_TEXT);
+            }
+        }
+    }
+
+    /**
+     * Counter stage: turns chunks into in-memory counts.
+     */
+    private void countStage(ImportOptions options, BlockingQueue<TextChunk> chunkQueue,
+            BlockingQueue<ChunkResult> resultQueue) {
+        cleanMetrics.start();
+        tokenizeMetrics.start();
+        countMetrics.start();
+        try {
+            while (true) {
+                TextChunk chunk = chunkQueue.take();
+                if (chunk == END_OF_TEXT || cancelled) {
+                    break;
+                }
+
+                CorpusCounter counts = new CorpusCounter();
+                countChunk(textProcessingService, counts, chunk.text, chunk.leadIn, options,
+                        cleanMetrics, tokenizeMetrics, countMetrics);
+
+                resultQueue.put(new ChunkResult(chunk.sequence, counts, chunk.text.length(), chunk.bytes));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Throwable t) {
+            failure.compareAndSet(null, t);
+        } finally {
+            cleanMetrics.finish();
+            tokenizeMetrics.finish();
+            countMetrics.finish();
+            putEndMarker(resultQueue, END_OF_RESULTS);
+        }
+    }
+
+    /**
+     * Hands an end marker to the next stage. Gives up as soon as the
+     * pipeline is stopping: the stage that would take the marker may be gone
+     * and the queue full, so a blocking put could wait forever.
+     */
+    private <T> void putEndMarker(BlockingQueue<T> queue, T marker) {
+        try {
+            while (!isStopping()) {
+                if (queue.offer(marker, 100, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Checks whether the stages should stop handing on work: the import was
+     * cancelled, a stage failed, the writer has stopped, or the calling
+     * thread was interrupted.
+     */
+    private boolean isStopping() {
+        return cancelled || stopped || failure.get() != null || Thread.currentThread().isInterrupted();
+    }
+
+    /**
+     * Writer stage: runs on the calling thread, which owns the unit of work.
+     * Results are applied strictly in sequence so a checkpoint offset always
+     * covers exactly the chunks that were committed.
+     */
+    private Result writeStage(UnitOfWork unitOfWork, ImportOptions options, ImportedFile record,
+            BlockingQueue<ChunkResult> resultQueue, Semaphore inFlight, long fileSize,
+            ProgressListener listener) throws Exception {
+        writeMetrics.start();
+        Map<Long, ChunkResult> waiting = new TreeMap<>();
+        Batch batch = new Batch(record, options.isBulkLoad());
+        Boolean usedLoadData = null;
+        int finishedWorkers = 0;
+        long nextSequence = 0;
+        int totalWords = 0;
+
+        while (finishedWorkers < workerCount) {
+            checkCancelled();
+            rethrowFailure();
+            ChunkResult result = resultQueue.poll(100, TimeUnit.MILLISECONDS);
+            if (result == null) {
+                continue;
+            }
+            if (result == END_OF_RESULTS) {
+                finishedWorkers++;
+                continue;
+            }
+            waiting.put(result.sequence, result);
+
+            ChunkResult next;
+            while ((next = waiting.remove(nextSequence)) != null) {
+                checkCancelled();
+                long started = System.nanoTime();
+                long startedCpu = StageMetrics.currentThreadCpuNanos();
+                long statements = unitOfWork.getStatementCount();
+                long rows = unitOfWork.getRowCount();
+                if (batch.bulkCounts != null) {
+                    batch.bulkCounts.merge(next.counts);
+                } else {
+                    databaseService.applyCounts(unitOfWork, next.counts);
+                    if (options.isProcessNGrams()) {
+                        ngramService.storeNGramCounts(unitOfWork, next.counts.getNGramCounts());
+                    }
+                }
+                batch.add(next);
+                if (batch.chunks >= checkpointChunks) {
+                    usedLoadData = commitBatch(unitOfWork, batch, usedLoadData);
+                }
+                writeMetrics.record(next.characters, System.nanoTime() - started,
+                        StageMetrics.currentThreadCpuNanos() - startedCpu);
+                writeMetrics.addStatements(unitOfWork.getStatementCount() - statements,
+                        unitOfWork.getRowCount() - rows);
+                inFlight.release();
+
+                totalWords += next.counts.getTotalWords();
+                nextSequence++;
+                listener.onProgress(Math.min(1.0, (double) batch.offset / fileSize),
+                        String.format("Processed %d of %d KB (%d batches committed)",
+                                batch.offset / 1024, fileSize / 1024, record.getCommittedBatches()));
+            }
+        }
+        checkCancelled();
+        rethrowFailure();
+
+        long started = System.nanoTime();
+        long startedCpu = StageMetrics.currentThreadCpuNanos();
+        long statements = unitOfWork.getStatementCount();
+        long rows = unitOfWork.getRowCount();
+        batch.status = ImportedFile.FileStatus.COMPLETED;
+        usedLoadData = commitBatch(unitOfWork, batch, usedLoadData);
+        writeMetrics.record(0, System.nanoTime() - started, StageMetrics.currentThreadCpuNanos() - startedCpu);
+        writeMetrics.addStatements(unitOfWork.getStatementCount() - statements, unitOfWork.getRowCount() - rows);
+        writeMetrics.finish();
+
+        return new Result(totalWords, usedLoadData, getStageMetrics(), getPhaseMetrics());
+    }
+
+    /**
+     * Writes any pending bulk counts, stores the checkpoint and the metrics
+     * so far, and commits. The record is only updated once the commit has
+     * succeeded, so it never claims progress the database does not have.
+     */
+    private Boolean commitBatch(UnitOfWork unitOfWork, Batch batch, Boolean usedLoadData) throws Exception {
+        if (batch.bulkCounts != null && !batch.bulkCounts.isEmpty()) {
+            usedLoadData = databaseService.bulkLoad(unitOfWork, batch.bulkCounts);
+        }
+
+        ImportedFile record = batch.record;
+        ImportedFile checkpoint = new ImportedFile(record.getFilename(), record.getFilePath());
+        checkpoint.setFileId(record.getFileId());
+        checkpoint.setWordCount(record.getWordCount() + batch.words);
+        checkpoint.setStatus(batch.status);
+        checkpoint.setByteOffset(batch.offset);
+        checkpoint.setCommittedBatches(record.getCommittedBatches() + 1);
+        checkpoint.setElapsedMillis(batch.baseElapsedMillis + (System.nanoTime() - startNanos) / 1_000_000);
+        checkpoint.setTokenCount(batch.baseTokenCount + tokenizeMetrics.getTokens());
+        checkpoint.setStatementCount(batch.baseStatementCount + unitOfWork.getStatementCount() - startStatements);
+        checkpoint.setRowsWritten(batch.baseRowsWritten + unitOfWork.getRowCount() - startRows);
+        long cpuMillis = 0;
+        StringBuilder stageTimings = new StringBuilder();
+        for (StageMetrics stage : getStageMetrics()) {
+            cpuMillis += stage.getCpuMillis();
+            stageTimings.append(stageTimings.length() == 0 ? "" : ", ").append(stage.describeTimes());
+        }
+        checkpoint.setCpuMillis(batch.baseCpuMillis + cpuMillis);
+        checkpoint.setStageTimings(stageTimings.toString());
+        databaseService.checkpointImportedFile(unitOfWork, checkpoint);
+        unitOfWork.commit();
+
+        record.setWordCount(checkpoint.getWordCount());
+        record.setStatus(checkpoint.getStatus());
+        record.setByteOffset(checkpoint.getByteOffset());
+        record.setCommittedBatches(checkpoint.getCommittedBatches());
+        record.setElapsedMillis(checkpoint.getElapsedMillis());
+        record.setCpuMillis(checkpoint.getCpuMillis());
+        record.setTokenCount(checkpoint.getTokenCount());
+        record.setStatementCount(checkpoint.getStatementCount());
+        record.setRowsWritten(checkpoint.getRowsWritten());
+        record.setStageTimings(checkpoint.getStageTimings());
+        batch.reset();
+        return usedLoadData;
+    }
+
+    /**
+     * Runs one index phase on the calling thread and records its time.
+     */
+    static void runPhase(StageMetrics phase, IndexPhase body) throws SQLException {
+        phase.start();
+        long started = System.nanoTime();
+        long startedCpu = StageMetrics.currentThreadCpuNanos();
+        try {
+            body.run();
+        } finally {
+            phase.record(0, System.nanoTime() - started, StageMetrics.currentThreadCpuNanos() - startedCpu);
+            phase.finish();
+        }
+    }
+
+    /**
+     * Rebuild phase of a bulk load with deferred indexes. The unit of work
+     * is rolled back first so an uncommitted batch does not hold locks the
+     * ALTER TABLE would wait on; after the final commit that is a no-op.
+     */
+    private void rebuildDeferredIndexes(UnitOfWork unitOfWork) throws SQLException {
+        try {
+            unitOfWork.rollback();
+        } catch (SQLException e) {
+            System.err.println("Failed to roll back before rebuilding indexes: " + e.getMessage());
+        }
+        runPhase(rebuildIndexMetrics, () -> restoreIndexes(databaseService));
+    }
+
+    /**
+     * Rebuilds any missing deferred index. A failure is only logged: the
+     * counts are already committed, and the repair at the next application
+     * start tries again.
+     */
+    static int restoreIndexes(DatabaseService databaseService) {
+        try {
+            return databaseService.restoreSecondaryIndexes();
+        } catch (SQLException e) {
+            System.err.println("Failed to rebuild secondary indexes: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Stops the calling stage if the import has been cancelled.
+     *
+     * @throws CancellationException if cancel has been called
+     */
+    private void checkCancelled() {
+        if (cancelled) {
+            throw new CancellationException("Import cancelled");
+        }
+    }
+
+    private void rethrowFailure() throws Exception {
+        Throwable t = failure.get();
+        if (t instanceof Exception) {
+            throw (Exception) t;
+        }
+        if (t instanceof Error) {
+            throw (Error) t;
+        }
+    }
+
+    /**
+     * Cleans, tokenizes and counts one raw chunk of text.
+     *
+     * @param textProcessingService service used to clean and tokenize
+     * @param counts the counter to add to
+     * @param text the raw chunk
+     * @param leadIn trailing raw text of the previous chunk, or null
+     * @param options the user's import settings
+     */
+    static void countChunk(TextProcessingService textProcessingService, CorpusCounter counts, String text,
+            String leadIn, ImportOptions options) {
+        countChunk(textProcessingService, counts, text, leadIn, options, null, null, null);
+    }
+
+    /**
+     * Cleans, tokenizes and counts one raw chunk of text, timing each step.
+     *
+     * @param textProcessingService service used to clean and tokenize
+     * @param counts the counter to add to
+     * @param text the raw chunk
+     * @param leadIn trailing raw text of the previous chunk, or null
+     * @param options the user's import settings
+     * @param clean metrics for cleaning, or null
+     * @param tokenize metrics for sentence and word splitting, or null
+     * @param count metrics for counting, or null
+     */
+    static void countChunk(TextProcessingService textProcessingService, CorpusCounter counts, String text,
+            String leadIn, ImportOptions options, StageMetrics clean, StageMetrics tokenize, StageMetrics count) {
+        long[] lap = {System.nanoTime(), StageMetrics.currentThreadCpuNanos()};
+        String cleaned = textProcessingService.cleanText(text);
+        String cleanedLeadIn = options.isProcessNGrams() && leadIn != null ? textProcessingService.cleanText(leadIn) : null;
+        lap(clean, text.length(), lap);
+
+        List<List<String>> sentences = new ArrayList<>();
+        long tokens = 0;
+        for (String sentence : textProcessingService.tokenizeSentences(cleaned)) {
+            List<String> words = textProcessingService.tokenizeWords(sentence);
+            sentences.add(words);
+            tokens += words.size();
+        }
+        if (tokenize != null) {
+            tokenize.addTokens(tokens);
+        }
+        lap(tokenize, text.length(), lap);
+
+        for (List<String> words : sentences) {
+            counts.addSentence(words);
+        }
+        if (options.isProcessNGrams()) {
+            counts.addNGrams(cleanedLeadIn, cleaned, options.getMinNValue(), options.getMaxNValue());
+        }
+        lap(count, text.length(), lap);
+    }
+
+    /**
+     * Records the time since the previous lap against a stage and starts the
+     * next lap.
+     *
+     * @param stage the stage to record against, or null to skip recording
+     * @param characters characters of source text the step covered
+     * @param lap wall and CPU nanoseconds at the start of the step, updated
+     * to now
+     */
+    private static void lap(StageMetrics stage, long characters, long[] lap) {
+        if (stage == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        long cpu = StageMetrics.currentThreadCpuNanos();
+        stage.record(characters, now - lap[0], cpu - lap[1]);
+        lap[0] = now;
+        lap[1] = cpu;
+    }
+
+    /**
+     * Returns the last count whitespace-separated tokens of a chunk.
+     */
+    static String trailingTokens(String text, int count) {
+        if (count == 0) {
+            return null;
+        }
+        int end = text.length();
+        int found = 0;
+        int i = end - 1;
+        while (i >= 0 && found < count) {
+            while (i >= 0 && Character.isWhitespace(text.charAt(i))) {
+                i--;
+            }
+            if (i < 0) {
+                break;
+            }
+            while (i >= 0 && !Character.isWhitespace(text.charAt(i))) {
+                i--;
+            }
+            found++;
+        }
+        return text.substring(i + 1, end);
+    }
+
+    /**
+     * Receives progress from the writer stage.
+     */
+    public interface ProgressListener {
+
+        /**
+         * Called after each chunk is written.
+         *
+         * @param fraction estimated completion between 0 and 1
+         * @param message human-readable status including stage throughput
+         */
+        void onProgress(double fraction, String message);
+    }
+
+    /**
+     * Body of a timed index phase.
+     */
+    interface IndexPhase {
+
+        int run() throws SQLException;
+    }
+
+    /**
+     * Totals for a completed import.
+     */
+    public static class Result {
+
+        private final int totalWords;
+        private final Boolean usedLoadData;
+        private final List<StageMetrics> stageMetrics;
+        private final List<StageMetrics> phaseMetrics;
+
+        Result(int totalWords, Boolean usedLoadData, List<StageMetrics> stageMetrics,
+                List<StageMetrics> phaseMetrics) {
+            this.totalWords = totalWords;
+            this.usedLoadData = usedLoadData;
+            this.stageMetrics = stageMetrics;
+            this.phaseMetrics = phaseMetrics;
+        }
+
+        /**
+         * Gets the words counted by this run. A resumed import's record also
+         * includes the words committed by earlier runs.
+         *
+         * @return words counted by this run
+         */
+        public int getTotalWords() {
+            return totalWords;
+        }
+
+        /**
+         * Reports how the bulk-load path wrote its counts.
+         *
+         * @return true for LOAD DATA, false for the batched insert fallback,
+         * null if the regular write path was used
+         */
+        public Boolean getUsedLoadData() {
+            return usedLoadData;
+        }
+
+        public List<StageMetrics> getStageMetrics() {
+            return stageMetrics;
+        }
+
+        /**
+         * Gets the drop indexes, load and rebuild indexes timings of a bulk
+         * load that deferred its indexes. The rebuild runs after the result
+         * is created, so read this once run has returned.
+         *
+         * @return phase metrics, empty if indexes were not deferred
+         */
+        public List<StageMetrics> getPhaseMetrics() {
+            return phaseMetrics;
+        }
+    }
+
+    /**
+     * Progress of the batch the writer has not committed yet.
+     */
+    private static class Batch {
+
+        private final ImportedFile record;
+        private final CorpusCounter bulkCounts;
+        private final long baseElapsedMillis;
+        private final long baseCpuMillis;
+        private final long baseTokenCount;
+        private final long baseStatementCount;
+        private final long baseRowsWritten;
+        private ImportedFile.FileStatus status;
+        private long offset;
+        private int chunks;
+        private int words;
+
+        Batch(ImportedFile record, boolean bulkLoad) {
+            this.record = record;
+            this.bulkCounts = bulkLoad ? new CorpusCounter() : null;
+            this.status = ImportedFile.FileStatus.PROCESSING;
+            this.offset = record.getByteOffset();
+            // Metrics of earlier runs of a resumed import
+            this.baseElapsedMillis = record.getElapsedMillis();
+            this.baseCpuMillis = record.getCpuMillis();
+            this.baseTokenCount = record.getTokenCount();
+            this.baseStatementCount = record.getStatementCount();
+            this.baseRowsWritten = record.getRowsWritten();
+        }
+
+        void add(ChunkResult result) {
+            offset += result.bytes;
+            chunks++;
+            words += result.counts.getTotalWords();
+        }
+
+        void reset() {
+            chunks = 0;
+            words = 0;
+            if (bulkCounts != null) {
+                bulkCounts.clear();
+            }
+        }
+    }
+
+    /**
+     * A raw text chunk handed from the reader to the counters.
+     */
+    static class TextChunk {
+
+        private final long sequence;
+        private final String text;
+        private final String leadIn;
+        private final long bytes;
+
+        TextChunk(long sequence, String text, String leadIn, long bytes) {
+            this.sequence = sequence;
+            this.text = text;
+            this.leadIn = leadIn;
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * The counts for one chunk handed from a counter to the writer.
+     */
+    static class ChunkResult {
+
+        private final long sequence;
+        private final CorpusCounter counts;
+        private final long characters;
+        private final long bytes;
+
+        ChunkResult(long sequence, CorpusCounter counts, long characters, long bytes) {
+            this.sequence = sequence;
+            this.counts = counts;
+            this.characters = characters;
+            this.bytes = bytes;
+        }
+    }
+}
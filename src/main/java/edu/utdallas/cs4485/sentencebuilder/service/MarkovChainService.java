@@ -98,8 +98,7 @@ public class MarkovChainService {
         if (startWord != null && !startWord.trim().isEmpty()) {
             String normalizedWord = startWord.trim().toLowerCase();
             try {
-                Word wordInDb = wordDAO.findByText(normalizedWord);
-                if (wordInDb == null) {
+                if (wordDAO.findIdByText(normalizedWord) == null) {
                     throw new IllegalArgumentException("Start word '" + startWord + "' not found in database. Please choose a word from your imported text.");
                 }
             } catch (SQLException e) {
@@ -173,11 +172,11 @@ public class MarkovChainService {
 
         for (int i = 0; i < maxWords; i++) {
             // Get word object
-            Word wordObj = wordDAO.findByText(currentWord);
-            if (wordObj == null) break;
+            Integer wordId = wordDAO.findIdByText(currentWord);
+            if (wordId == null) break;
 
             // Get possible next words
-            List<WordPair> nextPairs = wordPairDAO.findByFirstWordId(wordObj.getWordId());
+            List<WordPair> nextPairs = wordPairDAO.findByFirstWordId(wordId);
             if (nextPairs.isEmpty()) break;
 
             // Select next word randomly based on transition counts (weighted random)
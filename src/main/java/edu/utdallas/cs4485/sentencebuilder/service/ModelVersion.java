@@ -0,0 +1,41 @@
+package edu.utdallas.cs4485.sentencebuilder.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ *
+ * Process-wide version number of the learned model: the word, word pair and
+ * N-gram counts in the database.
+ *
+ * Anything that caches results derived from those counts remembers the
+ * version it read them at and discards them once the version has moved on.
+ * Imports call bump when they finish, whether they completed, failed or
+ * were cancelled, because any committed batch changes the counts.
+ *
+ * @author Bhaskar Atmakuri
+ */
+public final class ModelVersion {
+
+    private static final AtomicLong VERSION = new AtomicLong();
+
+    private ModelVersion() {
+    }
+
+    /**
+     * Gets the current model version.
+     *
+     * @return the version, starting at 0 when the application starts
+     */
+    public static long current() {
+        return VERSION.get();
+    }
+
+    /**
+     * Marks the model as changed.
+     *
+     * @return the new version
+     */
+    public static long bump() {
+        return VERSION.incrementAndGet();
+    }
+}
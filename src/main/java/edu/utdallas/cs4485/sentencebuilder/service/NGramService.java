@@ -1,15 +1,19 @@
 package edu.utdallas.cs4485.sentencebuilder.service;
 
+import edu.utdallas.cs4485.sentencebuilder.algorithm.CorpusCounter;
 import edu.utdallas.cs4485.sentencebuilder.algorithm.NGramGenerator;
-import edu.utdallas.cs4485.sentencebuilder.algorithm.TextTokenizer;
 import edu.utdallas.cs4485.sentencebuilder.dao.NGramDAO;
+import edu.utdallas.cs4485.sentencebuilder.dao.UnitOfWork;
 import edu.utdallas.cs4485.sentencebuilder.dao.WordDAO;
 import edu.utdallas.cs4485.sentencebuilder.model.GenerationResult;
 import edu.utdallas.cs4485.sentencebuilder.model.NGram;
-import edu.utdallas.cs4485.sentencebuilder.model.Word;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  *
@@ -52,52 +56,99 @@ public class NGramService {
      * @throws SQLException if database error occurs
      */
     public void processAndStoreNGrams(String text, int n) throws SQLException {
-        if (text == null || text.trim().isEmpty() || n < 1) {
-            return;
+        processAndStoreNGrams(text, n, n);
+    }
+
+    /**
+     * Processes text and stores the N-grams of every order from minN to maxN
+     * in the database, in one transaction.
+     *
+     * @param text the text to process
+     * @param minN the smallest N value
+     * @param maxN the largest N value
+     * @throws SQLException if database error occurs
+     */
+    public void processAndStoreNGrams(String text, int minN, int maxN) throws SQLException {
+        try (UnitOfWork unitOfWork = new UnitOfWork()) {
+            processAndStoreNGrams(unitOfWork, text, minN, maxN);
+            unitOfWork.commit();
         }
+    }
 
-        // Tokenize text into words
-        String normalizedText = TextTokenizer.normalizeText(text);
-        String[] words = normalizedText.split("\\s+");
+    /**
+     * Processes text and stores N-grams as part of a unit of work. Nothing is
+     * committed here; the caller decides when the work becomes visible.
+     *
+     * @param unitOfWork the active unit of work
+     * @param text the text to process
+     * @param n the N value
+     * @throws SQLException if database error occurs
+     */
+    public void processAndStoreNGrams(UnitOfWork unitOfWork, String text, int n) throws SQLException {
+        processAndStoreNGrams(unitOfWork, text, n, n);
+    }
 
-        if (words.length < n + 1) {
+    /**
+     * Processes text and stores the N-grams of every order from minN to maxN
+     * as part of a unit of work.
+     *
+     * All orders are counted in memory in a single sweep over the tokens,
+     * then written together with one batched word lookup and one batched
+     * upsert.
+     *
+     * @param unitOfWork the active unit of work
+     * @param text the text to process
+     * @param minN the smallest N value
+     * @param maxN the largest N value
+     * @throws SQLException if database error occurs
+     */
+    public void processAndStoreNGrams(UnitOfWork unitOfWork, String text, int minN, int maxN) throws SQLException {
+        CorpusCounter counts = new CorpusCounter();
+        counts.addNGrams(null, text, minN, maxN);
+        if (counts.getNGramCounts().isEmpty()) {
             return;
         }
 
-        // Process each N-gram
-        for (int i = 0; i <= words.length - n - 1; i++) {
-            // Build N-gram sequence
-            StringBuilder ngramBuilder = new StringBuilder();
-            for (int j = 0; j < n; j++) {
-                if (j > 0) {
-                    ngramBuilder.append(" ");
-                }
-                ngramBuilder.append(words[i + j].toLowerCase().trim());
-            }
-            String ngramText = ngramBuilder.toString();
-            String nextWord = words[i + n].toLowerCase().trim();
-
-            // Get or create word in database
-            Word wordObj = wordDAO.findByText(nextWord);
-            if (wordObj == null) {
-                wordObj = new Word(nextWord);
-                wordObj.setTotalCount(1);
-                wordObj = wordDAO.insert(wordObj);
-            }
+        storeNGramCounts(unitOfWork, counts.getNGramCounts());
+    }
 
-            // Get or create N-gram in database
-            NGram ngram = ngramDAO.findByTextAndNextWord(n, ngramText, wordObj.getWordId());
-            if (ngram == null) {
-                ngram = new NGram(n, ngramText, wordObj.getWordId());
-                ngramDAO.insert(ngram);
-            } else {
-                ngram.incrementTransitionCount();
-                ngramDAO.update(ngram);
+    /**
+     * Adds pre-aggregated N-gram counts to the database as part of a unit of
+     * work. Next words are resolved to IDs in one batched lookup and the
+     * counts are written as one batched upsert, which also keeps the context
+     * totals the probabilities are derived from up to date.
+     *
+     * @param unitOfWork the active unit of work
+     * @param counts map of N to (context to (next word to transition count))
+     * @throws SQLException if database error occurs
+     */
+    public void storeNGramCounts(UnitOfWork unitOfWork, Map<Integer, Map<String, Map<String, Integer>>> counts) throws SQLException {
+        // Resolve every next word in one batched lookup
+        Set<String> nextWords = new HashSet<>();
+        int deltaCount = 0;
+        for (Map<String, Map<String, Integer>> order : counts.values()) {
+            for (Map<String, Integer> next : order.values()) {
+                nextWords.addAll(next.keySet());
+                deltaCount += next.size();
             }
         }
+        if (nextWords.isEmpty()) {
+            return;
+        }
+        Map<String, Integer> wordIds = wordDAO.resolveIds(unitOfWork, nextWords);
 
-        // Recalculate probabilities
-        ngramDAO.recalculateProbabilities();
+        List<NGram> deltas = new ArrayList<>(deltaCount);
+        for (Map.Entry<Integer, Map<String, Map<String, Integer>>> order : counts.entrySet()) {
+            int n = order.getKey();
+            for (Map.Entry<String, Map<String, Integer>> context : order.getValue().entrySet()) {
+                for (Map.Entry<String, Integer> next : context.getValue().entrySet()) {
+                    NGram delta = new NGram(n, context.getKey(), wordIds.get(next.getKey()));
+                    delta.setTransitionCount(next.getValue());
+                    deltas.add(delta);
+                }
+            }
+        }
+        ngramDAO.addTransitionCounts(unitOfWork, deltas);
     }
 
     /**
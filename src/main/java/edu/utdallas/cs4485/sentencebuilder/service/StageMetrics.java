@@ -0,0 +1,245 @@
+package edu.utdallas.cs4485.sentencebuilder.service;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ *
+ * Thread-safe throughput counters for one stage of the import pipeline.
+ *
+ * Each stage records how many items it handled, how many characters of source
+ * text those items covered and how long its threads were actually busy (time
+ * spent blocked on a queue is excluded). Comparing busy time against the
+ * stage's wall-clock lifetime shows which stage is saturated: the bottleneck
+ * is the stage whose threads are busy nearly all of the time while the others
+ * sit waiting on their queues.
+ *
+ * Busy time is also measured as CPU time of the working thread where the JVM
+ * supports it. A stage whose CPU time is far below its busy time is waiting
+ * on I/O or the database rather than computing. Stages that produce tokens or
+ * issue SQL statements count those too, so rates such as tokens per second
+ * and statements per second can be compared between releases.
+ *
+ * @author Manraj Singh
+ */
+public class StageMetrics {
+
+    private final String name;
+    private final int threads;
+    private final AtomicLong items;
+    private final AtomicLong characters;
+    private final AtomicLong busyNanos;
+    private final AtomicLong cpuNanos;
+    private final AtomicLong tokens;
+    private final AtomicLong statements;
+    private final AtomicLong rows;
+    private volatile long startNanos;
+    private volatile long endNanos;
+
+    /**
+     * Constructor.
+     *
+     * @param name the stage name shown to users
+     * @param threads number of threads running the stage
+     */
+    public StageMetrics(String name, int threads) {
+        this.name = name;
+        this.threads = Math.max(1, threads);
+        this.items = new AtomicLong();
+        this.characters = new AtomicLong();
+        this.busyNanos = new AtomicLong();
+        this.cpuNanos = new AtomicLong();
+        this.tokens = new AtomicLong();
+        this.statements = new AtomicLong();
+        this.rows = new AtomicLong();
+    }
+
+    /**
+     * Gets the CPU time used so far by the calling thread.
+     *
+     * @return CPU nanoseconds, or 0 if the JVM does not measure thread CPU time
+     */
+    public static long currentThreadCpuNanos() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!threads.isCurrentThreadCpuTimeSupported()) {
+            return 0;
+        }
+        long nanos = threads.getCurrentThreadCpuTime();
+        return nanos < 0 ? 0 : nanos;
+    }
+
+    /**
+     * Marks the start of the stage's lifetime. Only the first call counts.
+     */
+    public void start() {
+        if (startNanos == 0) {
+            startNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * Marks the end of the stage's lifetime. The last call wins.
+     */
+    public void finish() {
+        endNanos = System.nanoTime();
+    }
+
+    /**
+     * Records one processed item.
+     *
+     * @param itemCharacters characters of source text the item covered
+     * @param itemBusyNanos time spent working on the item
+     */
+    public void record(long itemCharacters, long itemBusyNanos) {
+        record(itemCharacters, itemBusyNanos, 0);
+    }
+
+    /**
+     * Records one processed item together with the CPU time it used.
+     *
+     * @param itemCharacters characters of source text the item covered
+     * @param itemBusyNanos time spent working on the item
+     * @param itemCpuNanos CPU time the working thread used on the item
+     */
+    public void record(long itemCharacters, long itemBusyNanos, long itemCpuNanos) {
+        items.incrementAndGet();
+        characters.addAndGet(itemCharacters);
+        busyNanos.addAndGet(itemBusyNanos);
+        cpuNanos.addAndGet(Math.max(0, itemCpuNanos));
+    }
+
+    /**
+     * Records tokens produced by the stage.
+     *
+     * @param count number of tokens
+     */
+    public void addTokens(long count) {
+        tokens.addAndGet(count);
+    }
+
+    /**
+     * Records SQL statements issued by the stage and the rows they wrote.
+     *
+     * @param statementCount number of statements
+     * @param rowCount number of rows written
+     */
+    public void addStatements(long statementCount, long rowCount) {
+        statements.addAndGet(statementCount);
+        rows.addAndGet(rowCount);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public long getItems() {
+        return items.get();
+    }
+
+    public long getCharacters() {
+        return characters.get();
+    }
+
+    public long getBusyMillis() {
+        return busyNanos.get() / 1_000_000;
+    }
+
+    public long getCpuMillis() {
+        return cpuNanos.get() / 1_000_000;
+    }
+
+    public long getTokens() {
+        return tokens.get();
+    }
+
+    public long getStatements() {
+        return statements.get();
+    }
+
+    public long getRows() {
+        return rows.get();
+    }
+
+    /**
+     * Gets the stage's wall-clock lifetime so far.
+     *
+     * @return elapsed milliseconds since start, 0 if not started
+     */
+    public long getWallMillis() {
+        if (startNanos == 0) {
+            return 0;
+        }
+        long end = endNanos != 0 ? endNanos : System.nanoTime();
+        return (end - startNanos) / 1_000_000;
+    }
+
+    /**
+     * Gets the fraction of available thread time the stage spent busy.
+     *
+     * @return utilization between 0 and 1
+     */
+    public double getUtilization() {
+        long wall = getWallMillis();
+        if (wall == 0) {
+            return 0.0;
+        }
+        return Math.min(1.0, (double) getBusyMillis() / (wall * threads));
+    }
+
+    /**
+     * Gets the stage's effective throughput over its lifetime.
+     *
+     * @return characters of source text per second
+     */
+    public double getCharactersPerSecond() {
+        long wall = getWallMillis();
+        return wall == 0 ? 0.0 : getCharacters() * 1000.0 / wall;
+    }
+
+    /**
+     * Gets the stage's token throughput over its lifetime.
+     *
+     * @return tokens per second
+     */
+    public double getTokensPerSecond() {
+        long wall = getWallMillis();
+        return wall == 0 ? 0.0 : getTokens() * 1000.0 / wall;
+    }
+
+    /**
+     * Gets the stage's SQL statement rate over its lifetime.
+     *
+     * @return statements per second
+     */
+    public double getStatementsPerSecond() {
+        long wall = getWallMillis();
+        return wall == 0 ? 0.0 : getStatements() * 1000.0 / wall;
+    }
+
+    /**
+     * Describes the stage's busy and CPU time, such as "read 1200/800 ms".
+     *
+     * @return compact timing summary
+     */
+    public String describeTimes() {
+        return String.format("%s %d/%d ms", name, getBusyMillis(), getCpuMillis());
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(String.format("%s: %.1f KB/s, %d%% busy, %d ms cpu", name,
+                getCharactersPerSecond() / 1024.0, Math.round(getUtilization() * 100), getCpuMillis()));
+        if (getTokens() > 0) {
+            builder.append(String.format(", %.0f tokens/s", getTokensPerSecond()));
+        }
+        if (getStatements() > 0) {
+            builder.append(String.format(", %.0f stmts/s, %d rows", getStatementsPerSecond(), getRows()));
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,156 @@
+package edu.utdallas.cs4485.sentencebuilder.service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.utdallas.cs4485.sentencebuilder.util.ConfigurationManager;
+
+/**
+ *
+ * Bounded cache of autocomplete suggestions keyed by order and context,
+ * shared by every AutoCompleteService.
+ *
+ * Users type the same contexts over and over, and each keystroke would
+ * otherwise cost a query. Entries belong to one model version: when
+ * ModelVersion moves on, the next lookup drops every entry. A lookup that
+ * started before an import finished cannot store its stale result, because
+ * put is ignored unless the version it read at is still the cache's version.
+ *
+ * When the cache is full the least recently used context is evicted. Hits,
+ * misses, evictions and invalidations are counted for the hit-rate metrics.
+ * All methods are synchronized.
+ *
+ * @author Bhaskar Atmakuri
+ */
+class SuggestionCache {
+
+    private static SuggestionCache instance;
+
+    private final int capacity;
+    private final LinkedHashMap<String, List<String>> suggestions;
+    private long version;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    /**
+     * Constructor.
+     *
+     * @param capacity maximum number of contexts kept
+     */
+    SuggestionCache(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        this.version = ModelVersion.current();
+        this.suggestions = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<String>> eldest) {
+                if (size() <= SuggestionCache.this.capacity) {
+                    return false;
+                }
+                evictions++;
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Gets the shared instance. The capacity comes from
+     * application.properties.
+     *
+     * @return the suggestion cache
+     */
+    static synchronized SuggestionCache getInstance() {
+        if (instance == null) {
+            instance = new SuggestionCache(
+                    ConfigurationManager.getInstance().getIntProperty("cache.suggestions.max", 2000));
+        }
+        return instance;
+    }
+
+    /**
+     * Looks up the suggestions for a context.
+     *
+     * @param key the order and context, see AutoCompleteService
+     * @return the cached suggestions, or null if not cached for the current
+     * model version
+     */
+    synchronized List<String> get(String key) {
+        invalidateIfStale();
+        List<String> cached = suggestions.get(key);
+        if (cached == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return cached;
+    }
+
+    /**
+     * Stores the suggestions for a context, unless the model has changed
+     * since they were read.
+     *
+     * @param key the order and context
+     * @param value the suggestions
+     * @param readVersion the model version before the suggestions were read
+     */
+    synchronized void put(String key, List<String> value, long readVersion) {
+        invalidateIfStale();
+        if (readVersion == version) {
+            suggestions.put(key, List.copyOf(value));
+        }
+    }
+
+    /**
+     * Removes every entry. The metrics are kept.
+     */
+    synchronized void clear() {
+        suggestions.clear();
+    }
+
+    synchronized int size() {
+        return suggestions.size();
+    }
+
+    synchronized long getHits() {
+        return hits;
+    }
+
+    synchronized long getMisses() {
+        return misses;
+    }
+
+    synchronized long getEvictions() {
+        return evictions;
+    }
+
+    synchronized long getInvalidations() {
+        return invalidations;
+    }
+
+    /**
+     * Gets the share of lookups answered from the cache.
+     *
+     * @return hit rate between 0 and 1, 0 before the first lookup
+     */
+    synchronized double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("suggestion cache: %d/%d contexts, %.0f%% hits, %d evictions, %d invalidations",
+                suggestions.size(), capacity, getHitRate() * 100, evictions, invalidations);
+    }
+
+    private void invalidateIfStale() {
+        long current = ModelVersion.current();
+        if (current != version) {
+            suggestions.clear();
+            version = current;
+            invalidations++;
+        }
+    }
+}
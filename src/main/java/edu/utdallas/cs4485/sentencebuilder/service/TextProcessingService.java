@@ -1,11 +1,37 @@
 package edu.utdallas.cs4485.sentencebuilder.service;
 
+import edu.utdallas.cs4485.sentencebuilder.algorithm.SentenceChunker;
 import edu.utdallas.cs4485.sentencebuilder.algorithm.TextTokenizer;
+import edu.utdallas.cs4485.sentencebuilder.util.ConfigurationManager;
+import edu.utdallas.cs4485.sentencebuilder.util.FileUtils;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
 
 /**
  *
@@ -14,9 +40,10 @@ import java.util.List;
  *
  * This service supports all frontend file import workflows, handling file I/O
  * operations with proper error handling and delegating tokenization to the
- * TextTokenizer algorithm. Reads text files of various formats (TXT, with
- * graceful fallback for unsupported formats) and breaks content into words
- * and sentences for analysis.
+ * TextTokenizer algorithm. Reads text files of various formats (TXT, PDF and
+ * DOCX, streamed so large files never sit in memory whole, plus TXT inside
+ * .gz, .bz2 and .zip files, decompressed on the fly) and breaks content
+ * into words and sentences for analysis.
  *
  * Ensures tokenizer methods return consistent results suitable for both UI
  * display and downstream N-gram/Markov processing, maintaining data quality
@@ -27,6 +54,29 @@ import java.util.List;
  */
 public class TextProcessingService {
 
+    private static final int MIN_READ_WINDOW_BYTES = 64 * 1024;
+    private static final int EXTRACT_CHUNK_SIZE = 64 * 1024;
+    private static final String WORD_NAMESPACE = "http://schemas.openxmlformats.org/wordprocessingml/2006/main";
+
+    private final int readWindowBytes;
+
+    /**
+     * Constructor. The memory-mapped read window size comes from
+     * application.properties.
+     */
+    public TextProcessingService() {
+        this(ConfigurationManager.getInstance().getIntProperty("file.read.window.kb", 4096) * 1024);
+    }
+
+    /**
+     * Constructor with an explicit read window size.
+     *
+     * @param readWindowBytes bytes mapped per read window, at least 64 KB
+     */
+    TextProcessingService(int readWindowBytes) {
+        this.readWindowBytes = Math.max(MIN_READ_WINDOW_BYTES, readWindowBytes);
+    }
+
     /**
      * Reads text from a file.
      *
@@ -43,6 +93,238 @@ public class TextProcessingService {
         return Files.readString(filePath);
     }
 
+    /**
+     * Reads a file and hands its raw text to the handler in chunks of about
+     * chunkSize characters, each ending on a sentence boundary. Chunks are
+     * delivered in file order.
+     *
+     * @param filePath path to the file
+     * @param chunkSize preferred chunk size in characters
+     * @param handler receives each chunk
+     * @throws IOException if file cannot be read
+     * @throws InterruptedException if the handler is interrupted
+     */
+    public void streamText(Path filePath, int chunkSize, ChunkHandler handler) throws IOException, InterruptedException {
+        streamText(filePath, 0, chunkSize, handler);
+    }
+
+    /**
+     * Streams a file starting part way through, for resuming an import. The
+     * offset counts UTF-8 bytes of the extracted text, which for a plain text
+     * file is the byte offset into the file. Offsets previously reached by
+     * summing the UTF-8 length of whole chunks always fall on a chunk
+     * boundary.
+     *
+     * No format is ever held in memory whole: plain text is read through
+     * memory-mapped windows, PDFs page by page and Word documents paragraph
+     * by paragraph, and each piece is handed on as soon as it completes a
+     * chunk. Compressed text (.gz, .bz2 or a zip archive entry) is
+     * decompressed straight into the chunker; for it the offset counts
+     * uncompressed bytes, which have to be decompressed again to be skipped.
+     *
+     * @param filePath path to the file
+     * @param startOffset UTF-8 bytes of text to skip
+     * @param chunkSize preferred chunk size in characters
+     * @param handler receives each chunk
+     * @throws IOException if file cannot be read
+     * @throws InterruptedException if the handler is interrupted
+     */
+    public void streamText(Path filePath, long startOffset, int chunkSize, ChunkHandler handler)
+            throws IOException, InterruptedException {
+        String filename = filePath.getFileName().toString().toLowerCase();
+
+        if (FileUtils.isCompressedSource(filePath)) {
+            if (!FileUtils.decompressedName(filename).endsWith(".txt")) {
+                throw new IOException("Only plain text can be imported from a compressed file: " + filename);
+            }
+            ChunkFeeder feeder = new ChunkFeeder(chunkSize, startOffset, handler);
+            streamDecompressed(filePath, feeder);
+            feeder.finish();
+        } else if (filename.endsWith(".txt")) {
+            // Mapping starts at the offset, so nothing needs to be skipped
+            ChunkFeeder feeder = new ChunkFeeder(chunkSize, 0, handler);
+            streamMapped(filePath, startOffset, feeder);
+            feeder.finish();
+        } else if (filename.endsWith(".pdf")) {
+            ChunkFeeder feeder = new ChunkFeeder(chunkSize, startOffset, handler);
+            streamPdf(filePath, feeder);
+            feeder.finish();
+        } else if (filename.endsWith(".docx")) {
+            ChunkFeeder feeder = new ChunkFeeder(chunkSize, startOffset, handler);
+            streamDocx(filePath, feeder);
+            feeder.finish();
+        } else if (filename.endsWith(".doc")) {
+            throw new IOException("Legacy Word .doc files are not supported; save the document as .docx and import that");
+        } else {
+            throw new IOException("Unsupported file format: " + filename);
+        }
+    }
+
+    /**
+     * Streams a UTF-8 text file through memory-mapped windows of
+     * readWindowBytes. A multi-byte character cut by a window edge is decoded
+     * at the start of the next window, and a word or sentence cut by an edge
+     * simply stays in the chunker until the rest of it arrives, so memory use
+     * depends on the window and chunk sizes but never on the file size.
+     * Malformed UTF-8 is rejected, as Files.readString would.
+     */
+    private void streamMapped(Path filePath, long startOffset, ChunkFeeder feeder)
+            throws IOException, InterruptedException {
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+        // UTF-8 never decodes to more chars than bytes
+        CharBuffer chars = CharBuffer.allocate(readWindowBytes);
+
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = Math.min(startOffset, size);
+
+            while (position < size) {
+                long length = Math.min(readWindowBytes, size - position);
+                boolean lastWindow = position + length == size;
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+
+                CoderResult result = decoder.decode(window, chars, lastWindow);
+                if (result.isError()) {
+                    result.throwException();
+                }
+                if (lastWindow) {
+                    decoder.flush(chars);
+                }
+                // Bytes of a character cut by the window edge are remapped next time
+                position += window.position();
+
+                chars.flip();
+                feeder.accept(chars);
+                chars.clear();
+            }
+        }
+    }
+
+    /**
+     * Streams UTF-8 text out of a decompressing stream. Malformed UTF-8 is
+     * rejected as for uncompressed files, and reading fails once the
+     * uncompressed size limit enforced by FileUtils.openStream is passed.
+     */
+    private void streamDecompressed(Path filePath, ChunkFeeder feeder) throws IOException, InterruptedException {
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+        char[] buffer = new char[EXTRACT_CHUNK_SIZE];
+
+        try (Reader reader = new InputStreamReader(FileUtils.openStream(filePath), decoder)) {
+            int read;
+            while ((read = reader.read(buffer)) != -1) {
+                feeder.accept(CharBuffer.wrap(buffer, 0, read));
+            }
+        }
+    }
+
+    /**
+     * Streams a PDF one page at a time. The document is parsed lazily from
+     * disk with a temp-file cache, so only the page being extracted is held
+     * in memory. Scanned pages without a text layer yield no text.
+     */
+    private void streamPdf(Path filePath, ChunkFeeder feeder) throws IOException, InterruptedException {
+        try (PDDocument document = Loader.loadPDF(filePath.toFile(), IOUtils.createTempFileOnlyStreamCache())) {
+            PDFTextStripper stripper = new PDFTextStripper();
+            int pageCount = document.getNumberOfPages();
+
+            for (int page = 1; page <= pageCount; page++) {
+                stripper.setStartPage(page);
+                stripper.setEndPage(page);
+                feeder.accept(stripper.getText(document));
+            }
+        }
+    }
+
+    /**
+     * Streams the body of a .docx file one paragraph at a time with a StAX
+     * reader over word/document.xml, which is decompressed on the fly and
+     * limited like any other compressed input.
+     * Tabs and line breaks inside a paragraph become whitespace, and each
+     * paragraph ends with a line break.
+     */
+    private void streamDocx(Path filePath, ChunkFeeder feeder) throws IOException, InterruptedException {
+        try (ZipFile zip = new ZipFile(filePath.toFile())) {
+            ZipEntry body = zip.getEntry("word/document.xml");
+            if (body == null) {
+                throw new IOException("Not a Word document: " + filePath.getFileName());
+            }
+
+            XMLInputFactory factory = XMLInputFactory.newFactory();
+            factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+            factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+
+            try (InputStream in = FileUtils.limitUncompressed(zip.getInputStream(body))) {
+                XMLStreamReader reader = factory.createXMLStreamReader(in);
+                try {
+                    StringBuilder paragraph = new StringBuilder();
+                    boolean inText = false;
+
+                    while (reader.hasNext()) {
+                        int event = reader.next();
+                        if (event == XMLStreamConstants.START_ELEMENT && WORD_NAMESPACE.equals(reader.getNamespaceURI())) {
+                            String name = reader.getLocalName();
+                            if (name.equals("t")) {
+                                inText = true;
+                            } else if (name.equals("tab")) {
+                                paragraph.append('\t');
+                            } else if (name.equals("br") || name.equals("cr")) {
+                                paragraph.append('\n');
+                            }
+                        } else if (event == XMLStreamConstants.END_ELEMENT && WORD_NAMESPACE.equals(reader.getNamespaceURI())) {
+                            String name = reader.getLocalName();
+                            if (name.equals("t")) {
+                                inText = false;
+                            } else if (name.equals("p")) {
+                                paragraph.append('\n');
+                                feeder.accept(paragraph);
+                                paragraph.setLength(0);
+                            }
+                        } else if (inText && (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA)) {
+                            paragraph.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                        }
+                    }
+                    feeder.accept(paragraph);
+                } finally {
+                    reader.close();
+                }
+            } catch (XMLStreamException e) {
+                throw new IOException("Cannot read Word document: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Counts the UTF-8 encoded length of text without encoding it.
+     *
+     * @param text the text to measure
+     * @return length in bytes
+     */
+    public static long utf8Length(CharSequence text) {
+        long bytes = 0;
+        for (int i = 0; i < text.length(); i++) {
+            bytes += utf8Length(text.charAt(i));
+        }
+        return bytes;
+    }
+
+    /**
+     * UTF-8 length of one UTF-16 unit; each half of a surrogate pair counts
+     * for two of the pair's four bytes.
+     */
+    private static int utf8Length(char c) {
+        if (c < 0x80) {
+            return 1;
+        }
+        if (c < 0x800 || Character.isSurrogate(c)) {
+            return 2;
+        }
+        return 3;
+    }
+
     /**
      * Tokenizes text into words.
      *
@@ -109,15 +391,19 @@ public class TextProcessingService {
             return false;
         }
 
-        String lowerName = filename.toLowerCase();
+        String lowerName = FileUtils.decompressedName(filename.toLowerCase());
+        if (FileUtils.isCompressed(filename)) {
+            return lowerName.endsWith(".txt");
+        }
         return lowerName.endsWith(".txt") ||
-               lowerName.endsWith(".doc") ||
                lowerName.endsWith(".docx") ||
                lowerName.endsWith(".pdf");
     }
 
     /**
-     * Extracts plain text from various file formats.
+     * Extracts plain text from various file formats. Imports use streamText
+     * instead; this collects the same text into one string for callers that
+     * need it whole.
      *
      * Rizvy – Testing Notes:
      * - UI currently supports plain TXT extraction, with placeholders for DOC/PDF.
@@ -128,21 +414,19 @@ public class TextProcessingService {
      * @throws IOException if file cannot be processed
      */
     public String extractText(Path filePath) throws IOException {
-        // TODO: Implement text extraction for different formats
-        // For now, just handle plain text
         String filename = filePath.getFileName().toString().toLowerCase();
-
-        if (filename.endsWith(".txt")) {
+        if (filename.endsWith(".txt") && !FileUtils.isCompressedSource(filePath)) {
             return readTextFromFile(filePath);
-        } else if (filename.endsWith(".pdf")) {
-            // TODO: Implement PDF text extraction
-            throw new UnsupportedOperationException("PDF extraction not yet implemented");
-        } else if (filename.endsWith(".doc") || filename.endsWith(".docx")) {
-            // TODO: Implement Word document text extraction
-            throw new UnsupportedOperationException("Word document extraction not yet implemented");
-        } else {
-            throw new IOException("Unsupported file format: " + filename);
         }
+
+        StringBuilder text = new StringBuilder();
+        try {
+            streamText(filePath, EXTRACT_CHUNK_SIZE, text::append);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while extracting " + filePath.getFileName(), e);
+        }
+        return text.toString();
     }
 
     /**
@@ -169,4 +453,62 @@ public class TextProcessingService {
 
         return text.trim();
     }
+
+    /**
+     * Collects extracted text into sentence-aligned chunks for a
+     * ChunkHandler, first discarding startOffset UTF-8 bytes when resuming.
+     * Text is fed to the chunker in slices so its buffer stays a few chunks
+     * long however large a single piece of extracted text is.
+     */
+    private static class ChunkFeeder {
+
+        private final SentenceChunker chunker;
+        private final int chunkSize;
+        private final ChunkHandler handler;
+        private long bytesToSkip;
+
+        ChunkFeeder(int chunkSize, long startOffset, ChunkHandler handler) {
+            this.chunker = new SentenceChunker(chunkSize);
+            this.chunkSize = chunkSize;
+            this.handler = handler;
+            this.bytesToSkip = startOffset;
+        }
+
+        void accept(CharSequence text) throws IOException, InterruptedException {
+            int from = 0;
+            while (bytesToSkip > 0 && from < text.length()) {
+                bytesToSkip -= utf8Length(text.charAt(from));
+                from++;
+            }
+
+            for (int start = from; start < text.length(); start += chunkSize) {
+                int end = Math.min(text.length(), start + chunkSize);
+                for (String chunk : chunker.append(text.subSequence(start, end))) {
+                    handler.handle(chunk);
+                }
+            }
+        }
+
+        void finish() throws IOException, InterruptedException {
+            String rest = chunker.finish();
+            if (!rest.isEmpty()) {
+                handler.handle(rest);
+            }
+        }
+    }
+
+    /**
+     * Receives consecutive chunks of raw text from streamText.
+     */
+    public interface ChunkHandler {
+
+        /**
+         * Handles one chunk.
+         *
+         * @param chunk raw text ending on a sentence boundary
+         * @throws IOException if the chunk cannot be handled
+         * @throws InterruptedException if interrupted while handing off
+         */
+        void handle(String chunk) throws IOException, InterruptedException;
+    }
 }
@@ -0,0 +1,57 @@
+package edu.utdallas.cs4485.sentencebuilder.service;
+
+import edu.utdallas.cs4485.sentencebuilder.util.ConfigurationManager;
+
+/**
+ *
+ * Progress listener that forwards updates to another listener at a fixed
+ * maximum rate.
+ *
+ * Imports report progress after every chunk or file, and each report turns
+ * into work on the JavaFX application thread. On large imports that is far
+ * more often than a person can read, and the queued UI updates slow the
+ * import down. This listener passes an update on only when the configured
+ * interval has passed since the last one it forwarded, and always passes on
+ * the final (complete) update. Intermediate updates in between are dropped,
+ * which is safe because every update carries the full current state.
+ *
+ * @author Manraj Singh
+ */
+public class ThrottledProgressListener implements ImportPipeline.ProgressListener {
+
+    private final ImportPipeline.ProgressListener delegate;
+    private final long intervalNanos;
+    private volatile long lastForwarded;
+
+    /**
+     * Constructor. The interval comes from application.properties and
+     * defaults to 100 ms (10 updates per second).
+     *
+     * @param delegate the listener that receives the forwarded updates
+     */
+    public ThrottledProgressListener(ImportPipeline.ProgressListener delegate) {
+        this(delegate, ConfigurationManager.getInstance().getIntProperty("import.progress.interval.ms", 100));
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param delegate the listener that receives the forwarded updates
+     * @param intervalMillis minimum time between forwarded updates
+     */
+    public ThrottledProgressListener(ImportPipeline.ProgressListener delegate, long intervalMillis) {
+        this.delegate = delegate;
+        this.intervalNanos = Math.max(0, intervalMillis) * 1_000_000;
+        this.lastForwarded = System.nanoTime() - this.intervalNanos;
+    }
+
+    @Override
+    public void onProgress(double fraction, String message) {
+        long now = System.nanoTime();
+        if (fraction < 1.0 && now - lastForwarded < intervalNanos) {
+            return;
+        }
+        lastForwarded = now;
+        delegate.onProgress(fraction, message);
+    }
+}
@@ -1,8 +1,25 @@
 package edu.utdallas.cs4485.sentencebuilder.util;
 
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
 
 /**
  *
@@ -10,10 +27,18 @@ import java.nio.file.Path;
  * import functionality throughout the application.
  *
  * Offers three main categories of functionality: file validation (existence, readability,
- * regular file checks, and size limits with 50 MB maximum to prevent memory issues),
+ * regular file and empty file checks),
  * format detection (extension extraction and supported format verification for txt, pdf,
- * doc, docx files), and filename sanitization (removing dangerous characters and
- * preventing path traversal attacks).
+ * doc, docx files), filename sanitization (removing dangerous characters and
+ * preventing path traversal attacks), and content hashing used to recognize a
+ * file that has already been imported under any name.
+ *
+ * Compressed corpora are read transparently. A .gz or .bz2 file is
+ * decompressed on the fly, and each text entry of a .zip archive is imported
+ * as a file of its own, addressed as archive.zip!/entry.txt. Because the
+ * on-disk size of a compressed file says little about how much text it
+ * holds, those inputs are limited by the uncompressed bytes actually read
+ * (file.max.uncompressed.mb) rather than by their size on disk.
  *
  * All methods are stateless and static, designed as pure utility functions with no
  * instance state. Primarily used by FileImportController during the file selection
@@ -27,7 +52,14 @@ import java.nio.file.Path;
  */
 public class FileUtils {
 
-    private static final long MAX_FILE_SIZE = 50 * 1024 * 1024; // 50 MB
+    private static final int DEFAULT_MAX_UNCOMPRESSED_MB = 4096;
+    private static final int HASH_BUFFER_SIZE = 64 * 1024;
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Separates an archive path from the name of an entry inside it.
+     */
+    public static final String ARCHIVE_ENTRY_SEPARATOR = "!/";
 
     /**
      * Validates if a file exists and is readable.
@@ -37,6 +69,17 @@ public class FileUtils {
      */
     public static boolean isValidFile(Path filePath) {
         // TODO: Implement file validation
+        if (filePath != null && isArchiveEntry(filePath)) {
+            String[] parts = splitArchiveEntry(filePath);
+            if (!isValidFile(Path.of(parts[0]))) {
+                return false;
+            }
+            try (ZipFile zip = new ZipFile(parts[0])) {
+                return zip.getEntry(parts[1]) != null;
+            } catch (IOException e) {
+                return false;
+            }
+        }
         return filePath != null &&
                Files.exists(filePath) &&
                Files.isRegularFile(filePath) &&
@@ -44,16 +87,20 @@ public class FileUtils {
     }
 
     /**
-     * Checks if a file size is within acceptable limits.
+     * Checks if a file size is acceptable. Every format is streamed (text
+     * through memory-mapped windows, PDFs a page at a time and Word
+     * documents a paragraph at a time), so memory use does not depend on the
+     * file size and only empty files are rejected. Compressed files, archive
+     * entries and the body of a Word document are instead limited by the
+     * uncompressed bytes read, see openStream and limitUncompressed.
      *
      * @param filePath path to the file
      * @return true if file size is acceptable
      * @throws IOException if file size cannot be determined
      */
     public static boolean isAcceptableSize(Path filePath) throws IOException {
-        // TODO: Implement size check
-        long size = Files.size(filePath);
-        return size > 0 && size <= MAX_FILE_SIZE;
+        long size = isArchiveEntry(filePath) ? Files.size(Path.of(splitArchiveEntry(filePath)[0])) : Files.size(filePath);
+        return size > 0;
     }
 
     /**
@@ -85,10 +132,197 @@ public class FileUtils {
     public static boolean isSupportedFormat(String filename) {
         // TODO: Implement format check
         String extension = getFileExtension(filename);
+        if (isCompressed(filename)) {
+            // Only plain text can be decoded straight from a stream
+            return getFileExtension(decompressedName(filename)).equals("txt");
+        }
         return extension.equals("txt") ||
                extension.equals("pdf") ||
-               extension.equals("doc") ||
-               extension.equals("docx");
+               extension.equals("docx") ||
+               extension.equals("zip");
+    }
+
+    /**
+     * Checks if a file is compressed with gzip or bzip2.
+     *
+     * @param filename the filename
+     * @return true for .gz and .bz2 files
+     */
+    public static boolean isCompressed(String filename) {
+        String extension = getFileExtension(filename);
+        return extension.equals("gz") || extension.equals("bz2");
+    }
+
+    /**
+     * Checks if a file is a zip archive whose entries are imported as
+     * separate files.
+     *
+     * @param filename the filename
+     * @return true for .zip files
+     */
+    public static boolean isArchive(String filename) {
+        return getFileExtension(filename).equals("zip");
+    }
+
+    /**
+     * Gets the name a compressed file has once decompressed, for example
+     * corpus.txt for corpus.txt.gz.
+     *
+     * @param filename the filename
+     * @return the filename without its .gz or .bz2 extension
+     */
+    public static String decompressedName(String filename) {
+        if (!isCompressed(filename)) {
+            return filename;
+        }
+        return filename.substring(0, filename.lastIndexOf('.'));
+    }
+
+    /**
+     * Checks if a path names an entry inside a zip archive.
+     *
+     * @param filePath the path to check
+     * @return true if the path has the form archive.zip!/entry
+     */
+    public static boolean isArchiveEntry(Path filePath) {
+        return splitArchiveEntry(filePath) != null;
+    }
+
+    /**
+     * Checks if a path is read through a decompressing stream: a .gz or
+     * .bz2 file, or an entry of a zip archive.
+     *
+     * @param filePath the path to check
+     * @return true if the path's content must be decompressed
+     */
+    public static boolean isCompressedSource(Path filePath) {
+        return isArchiveEntry(filePath) || isCompressed(filePath.getFileName().toString());
+    }
+
+    /**
+     * Lists the importable entries of a zip archive as paths of the form
+     * archive.zip!/entry, in archive order. Directories, nested archives and
+     * unsupported formats are left out.
+     *
+     * @param archive path to the zip archive
+     * @return one path per importable entry
+     * @throws IOException if the archive cannot be read
+     */
+    public static List<Path> listArchiveEntries(Path archive) throws IOException {
+        List<Path> entries = new ArrayList<>();
+        try (ZipFile zip = new ZipFile(archive.toFile())) {
+            Enumeration<? extends ZipEntry> all = zip.entries();
+            while (all.hasMoreElements()) {
+                ZipEntry entry = all.nextElement();
+                String name = entry.getName();
+                String baseName = name.substring(name.lastIndexOf('/') + 1);
+                if (!entry.isDirectory() && getFileExtension(baseName).equals("txt")) {
+                    entries.add(Path.of(archive.toAbsolutePath() + ARCHIVE_ENTRY_SEPARATOR + name));
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Opens a file for reading, decompressing it on the fly if it is a .gz
+     * or .bz2 file or a zip archive entry. Decompressed streams fail with an
+     * IOException once more than file.max.uncompressed.mb (4096 MB by
+     * default) has been read, so a small archive cannot expand without
+     * bound.
+     *
+     * @param filePath path to the file or archive entry
+     * @return a stream of the file's uncompressed bytes
+     * @throws IOException if the file cannot be opened
+     */
+    public static InputStream openStream(Path filePath) throws IOException {
+        String[] entry = splitArchiveEntry(filePath);
+        if (entry == null && !isCompressed(filePath.getFileName().toString())) {
+            return Files.newInputStream(filePath);
+        }
+
+        long maxBytes = maxUncompressedBytes();
+        if (entry != null) {
+            ZipFile zip = new ZipFile(entry[0]);
+            try {
+                ZipEntry zipEntry = zip.getEntry(entry[1]);
+                if (zipEntry == null) {
+                    throw new IOException("No entry " + entry[1] + " in " + entry[0]);
+                }
+                return new LimitedInputStream(zip.getInputStream(zipEntry), maxBytes, zip);
+            } catch (IOException | RuntimeException e) {
+                zip.close();
+                throw e;
+            }
+        }
+
+        InputStream raw = new BufferedInputStream(Files.newInputStream(filePath), STREAM_BUFFER_SIZE);
+        try {
+            InputStream decompressed = getFileExtension(filePath.getFileName().toString()).equals("gz")
+                    ? new GZIPInputStream(raw, STREAM_BUFFER_SIZE)
+                    : new BZip2CompressorInputStream(raw, true);
+            return new LimitedInputStream(decompressed, maxBytes, null);
+        } catch (IOException | RuntimeException e) {
+            raw.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Estimates how many bytes a file holds once decompressed, for progress
+     * reporting. Zip entries record their size; gzip files record it modulo
+     * 4 GB in their trailer; for bzip2 only the on-disk size is known.
+     *
+     * @param filePath path to the file or archive entry
+     * @return estimated uncompressed size in bytes
+     * @throws IOException if the size cannot be determined
+     */
+    public static long estimatedSize(Path filePath) throws IOException {
+        String[] entry = splitArchiveEntry(filePath);
+        if (entry != null) {
+            try (ZipFile zip = new ZipFile(entry[0])) {
+                ZipEntry zipEntry = zip.getEntry(entry[1]);
+                if (zipEntry == null) {
+                    throw new IOException("No entry " + entry[1] + " in " + entry[0]);
+                }
+                return zipEntry.getSize() >= 0 ? zipEntry.getSize() : zipEntry.getCompressedSize();
+            }
+        }
+
+        long size = Files.size(filePath);
+        if (getFileExtension(filePath.getFileName().toString()).equals("gz") && size >= 18) {
+            try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+                ByteBuffer trailer = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+                channel.read(trailer, size - 4);
+                trailer.flip();
+                return Math.max(size, Integer.toUnsignedLong(trailer.getInt()));
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Splits archive.zip!/entry into the archive path and the entry name,
+     * accepting either separator after the "!" so paths normalized on
+     * Windows still parse.
+     *
+     * @return the archive path and entry name, or null if the path does not
+     * name an archive entry
+     */
+    private static String[] splitArchiveEntry(Path filePath) {
+        String path = filePath.toString();
+        String lower = path.toLowerCase();
+        int index = lower.indexOf(".zip!");
+        while (index >= 0) {
+            int separator = index + ".zip!".length();
+            if (separator < path.length() - 1
+                    && (path.charAt(separator) == '/' || path.charAt(separator) == '\\')) {
+                String entry = path.substring(separator + 1).replace('\\', '/');
+                return new String[] {path.substring(0, index + ".zip".length()), entry};
+            }
+            index = lower.indexOf(".zip!", index + 1);
+        }
+        return null;
     }
 
     /**
@@ -106,4 +340,118 @@ public class FileUtils {
         // Remove invalid characters
         return filename.replaceAll("[^a-zA-Z0-9._-]", "_");
     }
-}
\ No newline at end of file
+
+    /**
+     * Computes the SHA-256 hash of a file's bytes. The file is streamed
+     * through a fixed-size buffer, so memory use does not depend on the file
+     * size. Compressed files and archive entries are hashed after
+     * decompression, so a compressed copy of a file hashes the same as the
+     * original.
+     *
+     * @param filePath path to the file
+     * @return lowercase hexadecimal SHA-256 digest (64 characters)
+     * @throws IOException if the file cannot be read
+     */
+    public static String contentHash(Path filePath) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to provide SHA-256
+            throw new IllegalStateException(e);
+        }
+
+        byte[] buffer = new byte[HASH_BUFFER_SIZE];
+        try (InputStream in = openStream(filePath)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+
+        StringBuilder hex = new StringBuilder(64);
+        for (byte b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * Limits a decompressing stream opened elsewhere, such as the body of a
+     * Word document, to file.max.uncompressed.mb like openStream does.
+     *
+     * @param in the decompressing stream
+     * @return a stream that fails with an IOException past the limit
+     */
+    public static InputStream limitUncompressed(InputStream in) {
+        return new LimitedInputStream(in, maxUncompressedBytes(), null);
+    }
+
+    private static long maxUncompressedBytes() {
+        return ConfigurationManager.getInstance()
+                .getIntProperty("file.max.uncompressed.mb", DEFAULT_MAX_UNCOMPRESSED_MB) * 1024L * 1024L;
+    }
+
+    /**
+     * Counts the bytes read from a decompressing stream and fails once they
+     * pass the limit. Closing it also closes the zip archive the stream was
+     * opened from, if any.
+     */
+    private static class LimitedInputStream extends FilterInputStream {
+
+        private final long maxBytes;
+        private final ZipFile archive;
+        private long bytesRead;
+
+        LimitedInputStream(InputStream in, long maxBytes, ZipFile archive) {
+            super(in);
+            this.maxBytes = maxBytes;
+            this.archive = archive;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count(read);
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count(skipped);
+            return skipped;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                if (archive != null) {
+                    archive.close();
+                }
+            }
+        }
+
+        private void count(long bytes) throws IOException {
+            bytesRead += bytes;
+            if (bytesRead > maxBytes) {
+                throw new IOException(String.format(
+                        "Decompressed content exceeds the %d MB limit (file.max.uncompressed.mb)",
+                        maxBytes / (1024 * 1024)));
+            }
+        }
+    }
+}
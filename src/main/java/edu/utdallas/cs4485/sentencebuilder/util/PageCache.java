@@ -0,0 +1,310 @@
+package edu.utdallas.cs4485.sentencebuilder.util;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ *
+ * Cache of database rows read one page at a time, for views over tables too
+ * large to load whole. PagedItems adapts it to a JavaFX list; the cache
+ * itself has no JavaFX dependency.
+ *
+ * The cache reports the full row count but only holds the pages that were
+ * recently looked at. A row whose page is not loaded reads as null and
+ * queues that page on the background executor; when it arrives the change
+ * listener is told which rows were replaced. The next page is requested
+ * early once a lookup is three quarters of the way through the current one,
+ * so scrolling down rarely shows empty rows.
+ *
+ * Pages are read with a keyset seek from the last row of the page before
+ * whenever that row is known, which is always the case when scrolling. A
+ * jump further ahead falls back to a row offset. The last row of every page
+ * is kept after the page itself is evicted, so revisiting a region is cheap.
+ *
+ * All methods, and the callbacks, run on the UI executor. refresh drops
+ * everything and re-counts the rows; pages still in flight from before a
+ * refresh are discarded. A page that fails to load is reported to the error
+ * handler and is not retried until the next refresh.
+ *
+ * @param <T> row type
+ * @author Caedon Ewing
+ */
+public class PageCache<T> {
+
+    /**
+     * Database reads behind a page cache. Called on the background executor.
+     *
+     * @param <T> row type
+     */
+    public interface PageSource<T> {
+
+        /**
+         * Counts the rows.
+         *
+         * @return number of rows
+         * @throws SQLException if database error occurs
+         */
+        int count() throws SQLException;
+
+        /**
+         * Reads the rows that follow a given row.
+         *
+         * @param last the last row of the previous page, or null for the
+         * first page
+         * @param limit maximum number of rows to return
+         * @return the rows
+         * @throws SQLException if database error occurs
+         */
+        List<T> loadAfter(T last, int limit) throws SQLException;
+
+        /**
+         * Reads the rows at a row offset.
+         *
+         * @param offset number of rows to skip
+         * @param limit maximum number of rows to return
+         * @return the rows
+         * @throws SQLException if database error occurs
+         */
+        List<T> loadAt(int offset, int limit) throws SQLException;
+    }
+
+    /**
+     * Told when rows change, on the UI executor.
+     */
+    public interface ChangeListener {
+
+        /**
+         * Reports that a range of rows was replaced.
+         *
+         * @param from first replaced index
+         * @param to index after the last new row
+         * @param removed number of rows the range held before
+         */
+        void replaced(int from, int to, int removed);
+    }
+
+    private final int pageSize;
+    private final Executor background;
+    private final Executor ui;
+    private final ChangeListener listener;
+    private final LinkedHashMap<Integer, List<T>> pages;
+    private final Map<Integer, T> pageEnds;
+    private final Set<Integer> loading;
+    private final Set<Integer> failed;
+    private PageSource<T> source;
+    private int size;
+    private long generation;
+    private Consumer<Exception> onError;
+    private Runnable onCounted;
+
+    /**
+     * Constructor.
+     *
+     * @param pageSize rows per page
+     * @param maxCachedPages pages kept before the least recently used is
+     * dropped
+     * @param background executor for the database reads
+     * @param ui executor for the UI thread, normally Platform::runLater
+     * @param listener told about replaced rows
+     */
+    public PageCache(int pageSize, int maxCachedPages, Executor background, Executor ui,
+            ChangeListener listener) {
+        this.pageSize = Math.max(1, pageSize);
+        this.background = background;
+        this.ui = ui;
+        this.listener = listener;
+        this.pageEnds = new HashMap<>();
+        this.loading = new HashSet<>();
+        this.failed = new HashSet<>();
+        int capacity = Math.max(2, maxCachedPages);
+        this.pages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Switches to a new source and loads its row count.
+     *
+     * @param source the new source, or null for no rows
+     */
+    public void setSource(PageSource<T> source) {
+        this.source = source;
+        refresh();
+    }
+
+    /**
+     * Drops every loaded page and re-counts the rows, for example after an
+     * import or a change of sort order.
+     */
+    public void refresh() {
+        long refreshed = ++generation;
+        pages.clear();
+        pageEnds.clear();
+        loading.clear();
+        failed.clear();
+
+        PageSource<T> current = source;
+        if (current == null) {
+            resize(0);
+            return;
+        }
+        background.execute(() -> {
+            try {
+                int count = current.count();
+                ui.execute(() -> {
+                    if (refreshed == generation) {
+                        resize(count);
+                        if (onCounted != null) {
+                            onCounted.run();
+                        }
+                    }
+                });
+            } catch (SQLException | RuntimeException e) {
+                ui.execute(() -> {
+                    if (refreshed == generation) {
+                        resize(0);
+                        reportError(e);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Sets the handler told about failed reads.
+     *
+     * @param onError the handler, or null
+     */
+    public void setOnError(Consumer<Exception> onError) {
+        this.onError = onError;
+    }
+
+    /**
+     * Sets the callback run each time the row count has been loaded.
+     *
+     * @param onCounted the callback, or null
+     */
+    public void setOnCounted(Runnable onCounted) {
+        this.onCounted = onCounted;
+    }
+
+    /**
+     * Gets a row, requesting its page if it is not loaded.
+     *
+     * @param index the row index
+     * @return the row, or null while its page is loading
+     */
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+        int page = index / pageSize;
+        int offset = index % pageSize;
+        List<T> rows = pages.get(page);
+        if (rows == null) {
+            request(page);
+            rows = pages.get(page);
+        }
+        if (offset >= pageSize * 3 / 4 && (page + 1) * pageSize < size && !pages.containsKey(page + 1)) {
+            request(page + 1);
+        }
+        return rows != null && offset < rows.size() ? rows.get(offset) : null;
+    }
+
+    /**
+     * Gets the row count of the source, as of the last refresh.
+     *
+     * @return number of rows
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the number of rows read per page.
+     *
+     * @return rows per page
+     */
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Gets the number of pages currently held in the cache.
+     *
+     * @return loaded pages
+     */
+    public int getCachedPageCount() {
+        return pages.size();
+    }
+
+    private void request(int page) {
+        if (source == null || loading.contains(page) || failed.contains(page)) {
+            return;
+        }
+        loading.add(page);
+
+        long requested = generation;
+        PageSource<T> current = source;
+        T previousEnd = page == 0 ? null : pageEnds.get(page - 1);
+        boolean seek = page == 0 || previousEnd != null;
+        background.execute(() -> {
+            try {
+                List<T> rows = seek
+                        ? current.loadAfter(previousEnd, pageSize)
+                        : current.loadAt(page * pageSize, pageSize);
+                ui.execute(() -> loaded(requested, page, rows));
+            } catch (SQLException | RuntimeException e) {
+                ui.execute(() -> {
+                    if (requested == generation) {
+                        loading.remove(page);
+                        failed.add(page);
+                        reportError(e);
+                    }
+                });
+            }
+        });
+    }
+
+    private void loaded(long requested, int page, List<T> rows) {
+        if (requested != generation) {
+            return;
+        }
+        loading.remove(page);
+        pages.put(page, rows);
+        if (!rows.isEmpty()) {
+            pageEnds.put(page, rows.get(rows.size() - 1));
+        }
+
+        int from = page * pageSize;
+        int to = Math.min(size, from + pageSize);
+        if (from < to) {
+            listener.replaced(from, to, to - from);
+        }
+    }
+
+    private void resize(int newSize) {
+        int oldSize = size;
+        size = newSize;
+        if (oldSize == 0 && newSize == 0) {
+            return;
+        }
+        listener.replaced(0, newSize, oldSize);
+    }
+
+    private void reportError(Exception e) {
+        if (onError != null) {
+            onError.accept(e);
+        }
+    }
+}
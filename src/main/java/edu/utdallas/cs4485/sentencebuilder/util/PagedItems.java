@@ -0,0 +1,112 @@
+package edu.utdallas.cs4485.sentencebuilder.util;
+
+import java.util.Collections;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+import javafx.collections.ObservableListBase;
+
+/**
+ *
+ * Read-only observable list over a PageCache, for TableViews over tables too
+ * large to load whole.
+ *
+ * The list reports the full row count, so the table's scroll bar covers every
+ * row. A row whose page is not loaded reads as null; when the page arrives
+ * the list fires a replace event for it and the table redraws those rows.
+ * Paging, prefetching and refreshing are the cache's; this class only turns
+ * its changes into list events.
+ *
+ * @param <T> row type
+ * @author Caedon Ewing
+ */
+public final class PagedItems<T> extends ObservableListBase<T> {
+
+    private final PageCache<T> cache;
+
+    /**
+     * Constructor.
+     *
+     * @param pageSize rows per page
+     * @param maxCachedPages pages kept before the least recently used is
+     * dropped
+     * @param background executor for the database reads
+     * @param ui executor for the UI thread, normally Platform::runLater
+     */
+    public PagedItems(int pageSize, int maxCachedPages, Executor background, Executor ui) {
+        this.cache = new PageCache<>(pageSize, maxCachedPages, background, ui, (from, to, removed) -> {
+            beginChange();
+            nextReplace(from, to, Collections.nCopies(removed, null));
+            endChange();
+        });
+    }
+
+    /**
+     * Switches to a new source and loads its row count.
+     *
+     * @param source the new source, or null for an empty list
+     */
+    public void setSource(PageCache.PageSource<T> source) {
+        cache.setSource(source);
+    }
+
+    /**
+     * Drops every loaded page and re-counts the rows, for example after an
+     * import or a change of sort order.
+     */
+    public void refresh() {
+        cache.refresh();
+    }
+
+    /**
+     * Sets the handler told about failed reads.
+     *
+     * @param onError the handler, or null
+     */
+    public void setOnError(Consumer<Exception> onError) {
+        cache.setOnError(onError);
+    }
+
+    /**
+     * Sets the callback run each time the row count has been loaded.
+     *
+     * @param onCounted the callback, or null
+     */
+    public void setOnCounted(Runnable onCounted) {
+        cache.setOnCounted(onCounted);
+    }
+
+    /**
+     * Gets a row, requesting its page if it is not loaded.
+     *
+     * @param index the row index
+     * @return the row, or null while its page is loading
+     */
+    @Override
+    public T get(int index) {
+        return cache.get(index);
+    }
+
+    @Override
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * Gets the number of rows read per page.
+     *
+     * @return rows per page
+     */
+    public int getPageSize() {
+        return cache.getPageSize();
+    }
+
+    /**
+     * Gets the number of pages currently held in the cache.
+     *
+     * @return loaded pages
+     */
+    public int getCachedPageCount() {
+        return cache.getCachedPageCount();
+    }
+}
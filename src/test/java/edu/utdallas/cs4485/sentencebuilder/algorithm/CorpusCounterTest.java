@@ -0,0 +1,125 @@
+package edu.utdallas.cs4485.sentencebuilder.algorithm;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/******************************************************************************
+ * Corpus Counter Unit Tests.
+ *
+ * This JUnit 5 test class verifies the CorpusCounter, which aggregates word,
+ * word pair and N-gram counts in memory for the bulk-load import path.
+ *
+ * The bulk path must produce exactly the statistics the statement-by-statement
+ * import would have written, so the tests pin down those counting rules:
+ *
+ * 1. Sentences:
+ *    - The first word is a sentence starter, the last word a sentence ender.
+ *    - Every word with a successor is counted and paired with it.
+ *    - The returned count matches the import's reported word count.
+ *
+ * 2. N-grams:
+ *    - Contexts of N words and their following word are counted.
+ *    - Text too short for the requested N produces nothing.
+ *    - A range of N values in one sweep matches counting each N separately,
+ *      with and without a lead-in.
+ *
+ * 3. Housekeeping:
+ *    - Distinct row counts, isEmpty and clear.
+ ******************************************************************************/
+class CorpusCounterTest {
+
+    private CorpusCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        counter = new CorpusCounter();
+    }
+
+    @Test
+    void testAddSentenceCountsWordsAndPairs() {
+        int counted = counter.addSentence(List.of("The", "cat", "sat"));
+
+        // starter + two words with successors + ender
+        assertEquals(4, counted);
+        assertEquals(4, counter.getTotalWords());
+
+        Map<String, CorpusCounter.WordStats> words = counter.getWordCounts();
+        assertEquals(1, words.get("the").getSentenceStartCount());
+        assertEquals(2, words.get("the").getTotalCount());
+        assertEquals(1, words.get("cat").getTotalCount());
+        assertEquals(1, words.get("sat").getSentenceEndCount());
+
+        assertEquals(1, counter.getPairCounts().get("the").get("cat"));
+        assertEquals(1, counter.getPairCounts().get("cat").get("sat"));
+        assertEquals(2, counter.getDistinctPairCount());
+    }
+
+    @Test
+    void testRepeatedPairsAccumulate() {
+        counter.addSentence(List.of("to", "be"));
+        counter.addSentence(List.of("to", "be"));
+
+        assertEquals(2, counter.getPairCounts().get("to").get("be"));
+        assertEquals(1, counter.getDistinctPairCount());
+        assertEquals(2, counter.getWordCounts().get("be").getSentenceEndCount());
+    }
+
+    @Test
+    void testSingleWordSentence() {
+        int counted = counter.addSentence(List.of("Hello"));
+
+        assertEquals(1, counted);
+        assertEquals(1, counter.getWordCounts().get("hello").getSentenceStartCount());
+        assertEquals(0, counter.getWordCounts().get("hello").getSentenceEndCount());
+        assertTrue(counter.getPairCounts().isEmpty());
+    }
+
+    @Test
+    void testAddNGrams() {
+        counter.addNGrams("The cat sat on the cat sat", 2);
+
+        Map<String, Map<String, Integer>> bigrams = counter.getNGramCounts().get(2);
+        assertNotNull(bigrams);
+        assertEquals(2, bigrams.get("the cat").get("sat"));
+        assertEquals(1, bigrams.get("cat sat").get("on"));
+        assertEquals(4, counter.getDistinctNGramCount());
+    }
+
+    @Test
+    void testAddNGramsTooShort() {
+        counter.addNGrams("only two", 2);
+
+        assertTrue(counter.getNGramCounts().isEmpty());
+    }
+
+    @Test
+    void testAddNGramRangeMatchesSingleOrders() {
+        String leadIn = "once upon a time";
+        String text = "there was a cat and a dog and a cat again";
+
+        counter.addNGrams(leadIn, text, 2, 5);
+
+        for (int n = 2; n <= 5; n++) {
+            CorpusCounter single = new CorpusCounter();
+            single.addNGrams(leadIn, text, n);
+            assertEquals(single.getNGramCounts().get(n), counter.getNGramCounts().get(n), "N=" + n);
+        }
+        assertNull(counter.getNGramCounts().get(1));
+    }
+
+    @Test
+    void testClear() {
+        counter.addSentence(List.of("a", "b"));
+        assertFalse(counter.isEmpty());
+
+        counter.clear();
+
+        assertTrue(counter.isEmpty());
+        assertEquals(0, counter.getTotalWords());
+    }
+}
@@ -0,0 +1,79 @@
+package edu.utdallas.cs4485.sentencebuilder.algorithm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/******************************************************************************
+ * Sentence Chunker Unit Tests.
+ *
+ * This JUnit 5 test class verifies the SentenceChunker, which splits streamed
+ * text into chunks for the pipelined import.
+ *
+ * Chunks are tokenized independently, so the tests check that:
+ *
+ * 1. Boundaries:
+ *    - Chunks are only cut after sentence-ending punctuation and whitespace.
+ *    - Tokenizing the chunks yields the same sentences as the whole text.
+ *
+ * 2. Limits:
+ *    - Text without punctuation is still cut once it reaches the hard limit.
+ *    - Nothing is lost or duplicated across chunks.
+ ******************************************************************************/
+class SentenceChunkerTest {
+
+    @Test
+    void testChunksEndOnSentenceBoundaries() {
+        SentenceChunker chunker = new SentenceChunker(20);
+        List<String> chunks = new ArrayList<>(chunker.append(
+                "The cat sat on the mat. The dog ran far away! Did it come back? Nobody knows."));
+        chunks.add(chunker.finish());
+
+        for (int i = 0; i < chunks.size() - 1; i++) {
+            assertTrue(chunks.get(i).matches("(?s).*[.!?]\\s+"), "Bad cut: " + chunks.get(i));
+        }
+    }
+
+    @Test
+    void testChunkedSentencesMatchWholeText() {
+        String text = "One two three. Four five six! Seven eight? Nine ten eleven twelve. Thirteen.";
+        List<String> expected = TextTokenizer.tokenizeSentences(text);
+
+        SentenceChunker chunker = new SentenceChunker(10);
+        List<String> actual = new ArrayList<>();
+        // Feed a few characters at a time, as a reader would
+        for (int i = 0; i < text.length(); i += 7) {
+            for (String chunk : chunker.append(text.substring(i, Math.min(text.length(), i + 7)))) {
+                actual.addAll(TextTokenizer.tokenizeSentences(chunk));
+            }
+        }
+        actual.addAll(TextTokenizer.tokenizeSentences(chunker.finish()));
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void testHardLimitWithoutPunctuation() {
+        SentenceChunker chunker = new SentenceChunker(8);
+        String text = "alpha beta gamma delta epsilon zeta eta theta iota kappa";
+        List<String> chunks = new ArrayList<>(chunker.append(text));
+        chunks.add(chunker.finish());
+
+        assertTrue(chunks.size() > 1);
+        for (String chunk : chunks) {
+            assertTrue(chunk.length() <= 32);
+        }
+        assertEquals(text, String.join("", chunks));
+    }
+
+    @Test
+    void testEmptyInput() {
+        SentenceChunker chunker = new SentenceChunker(8);
+
+        assertTrue(chunker.append("").isEmpty());
+        assertEquals("", chunker.finish());
+    }
+}
@@ -0,0 +1,46 @@
+package edu.utdallas.cs4485.sentencebuilder.dao;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/******************************************************************************
+ * N-gram DAO Unit Tests.
+ *
+ * This JUnit 5 test class verifies how NGramDAO keys the rows of
+ * ngram_contexts:
+ *
+ * 1. Layout:
+ *    - A key is n followed by the context's word IDs in order.
+ *    - Positions past the context length are padded with 0.
+ *
+ * 2. Identity:
+ *    - The same words in a different order or at a different n give a
+ *      different key.
+ ******************************************************************************/
+class NGramDAOTest {
+
+    private static final Map<String, Integer> IDS = Map.of("the", 1, "united", 2, "states", 3);
+
+    @Test
+    void testContextKeyLayout() {
+        assertEquals(List.of(3, 1, 2, 3, 0, 0),
+                NGramDAO.contextKey(3, new String[]{"the", "united", "states"}, IDS));
+        assertEquals(List.of(1, 2, 0, 0, 0, 0),
+                NGramDAO.contextKey(1, new String[]{"united"}, IDS));
+        assertEquals(NGramDAO.MAX_CONTEXT_LENGTH + 1,
+                NGramDAO.contextKey(2, new String[]{"the", "states"}, IDS).size());
+    }
+
+    @Test
+    void testContextKeyIdentity() {
+        List<Integer> key = NGramDAO.contextKey(2, new String[]{"the", "united"}, IDS);
+
+        assertEquals(key, NGramDAO.contextKey(2, new String[]{"the", "united"}, IDS));
+        assertNotEquals(key, NGramDAO.contextKey(2, new String[]{"united", "the"}, IDS));
+        assertNotEquals(key, NGramDAO.contextKey(3, new String[]{"the", "united"}, IDS));
+    }
+}
@@ -0,0 +1,31 @@
+package edu.utdallas.cs4485.sentencebuilder.dao;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/******************************************************************************
+ * Word DAO Unit Tests.
+ *
+ * This JUnit 5 test class verifies the parts of WordDAO that do not need a
+ * database:
+ *
+ * 1. Prefix search patterns:
+ *    - A prefix becomes a LIKE pattern ending in a wildcard.
+ *    - Wildcards and escapes typed by the user match literally.
+ ******************************************************************************/
+class WordDAOTest {
+
+    @Test
+    void testPrefixPattern() {
+        assertEquals("th%", WordDAO.likePrefix("th"));
+        assertEquals("%", WordDAO.likePrefix(""));
+    }
+
+    @Test
+    void testPrefixWildcardsAreEscaped() {
+        assertEquals("50\\%%", WordDAO.likePrefix("50%"));
+        assertEquals("a\\_b%", WordDAO.likePrefix("a_b"));
+        assertEquals("c:\\\\%", WordDAO.likePrefix("c:\\"));
+    }
+}
@@ -0,0 +1,75 @@
+package edu.utdallas.cs4485.sentencebuilder.dao;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/******************************************************************************
+ * Word ID Cache Unit Tests.
+ *
+ * This JUnit 5 test class verifies the WordIdCache that sits in front of
+ * WordDAO:
+ *
+ * 1. Two-way lookups:
+ *    - A word can be found by text and by ID once cached.
+ *    - Removing a word clears both directions.
+ *
+ * 2. Bounded size:
+ *    - The least recently used word is evicted from both directions.
+ *
+ * 3. Metrics:
+ *    - Hits, misses and evictions feed the hit rate.
+ ******************************************************************************/
+class WordIdCacheTest {
+
+    @Test
+    void testLookupInBothDirections() {
+        WordIdCache cache = new WordIdCache(10);
+        cache.putAll(Map.of("the", 1, "cat", 2));
+
+        assertEquals(1, cache.getId("the"));
+        assertEquals("cat", cache.getText(2));
+        assertNull(cache.getId("dog"));
+        assertNull(cache.getText(3));
+
+        cache.remove(1);
+        assertNull(cache.getId("the"));
+        assertNull(cache.getText(1));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testLeastRecentlyUsedWordIsEvicted() {
+        WordIdCache cache = new WordIdCache(2);
+        cache.put("the", 1);
+        cache.put("cat", 2);
+
+        // Touch "the" by ID so "cat" becomes the eldest
+        assertEquals("the", cache.getText(1));
+        cache.put("sat", 3);
+
+        assertEquals(2, cache.size());
+        assertNull(cache.getId("cat"));
+        assertNull(cache.getText(2));
+        assertEquals(1, cache.getId("the"));
+        assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    void testHitRate() {
+        WordIdCache cache = new WordIdCache(10);
+        assertEquals(0.0, cache.getHitRate());
+
+        cache.put("the", 1);
+        cache.getId("the");
+        cache.getText(1);
+        cache.getId("dog");
+        cache.getText(7);
+
+        assertEquals(2, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        assertEquals(0.5, cache.getHitRate(), 1e-9);
+    }
+}
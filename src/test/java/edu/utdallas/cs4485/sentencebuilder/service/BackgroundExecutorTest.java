@@ -0,0 +1,63 @@
+package edu.utdallas.cs4485.sentencebuilder.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/******************************************************************************
+ * Background Executor Unit Tests.
+ *
+ * This JUnit 5 test class verifies the shared BackgroundExecutor used for
+ * database-bound work:
+ *
+ * 1. Results:
+ *    - A submitted task's value is returned through its future.
+ *
+ * 2. Concurrency limit:
+ *    - No more than the configured number of tasks run at the same time,
+ *      whether tasks run on virtual or platform threads.
+ ******************************************************************************/
+class BackgroundExecutorTest {
+
+    @AfterEach
+    void tearDown() {
+        BackgroundExecutor.shutdown();
+    }
+
+    @Test
+    void testSubmitReturnsResult() throws Exception {
+        Future<String> future = BackgroundExecutor.getInstance().submit(() -> "done");
+        assertEquals("done", future.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testConcurrencyLimitIsRespected() throws Exception {
+        BackgroundExecutor executor = BackgroundExecutor.getInstance();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < executor.getMaxConcurrent() * 3; i++) {
+            futures.add(executor.submit(() -> {
+                int now = running.incrementAndGet();
+                peak.accumulateAndGet(now, Math::max);
+                Thread.sleep(20);
+                running.decrementAndGet();
+                return now;
+            }));
+        }
+        for (Future<Integer> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+
+        assertTrue(peak.get() <= executor.getMaxConcurrent());
+        assertEquals(0, running.get());
+    }
+}
@@ -0,0 +1,119 @@
+package edu.utdallas.cs4485.sentencebuilder.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/******************************************************************************
+ * Import Pipeline Unit Tests.
+ *
+ * This JUnit 5 test class verifies that the reader and counter threads of an
+ * ImportPipeline always exit, without a database: the test takes the writer's
+ * place and consumes, stalls on or abandons the result queue.
+ *
+ * 1. Normal end:
+ *    - Every counter hands on its end marker once the file is read.
+ *
+ * 2. Writer failure and cancellation:
+ *    - With the queues full, stopping the stages ends every pipeline thread.
+ *    - Cancelling mid-stream ends every pipeline thread.
+ ******************************************************************************/
+class ImportPipelineTest {
+
+    private static final String SENTENCE = "The quick brown fox jumps over the lazy dog. ";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testCountersSendEndMarkers() throws Exception {
+        ImportPipeline pipeline = new ImportPipeline(new TextProcessingService(), null, null);
+        Path file = writeText(1000);
+        BlockingQueue<ImportPipeline.TextChunk> chunkQueue = new ArrayBlockingQueue<>(8);
+        BlockingQueue<ImportPipeline.ChunkResult> resultQueue = new ArrayBlockingQueue<>(8);
+        ExecutorService executor = pipeline.startStages(file, 0, new ImportOptions(), chunkQueue, resultQueue,
+                pipeline.newInFlightLimit());
+
+        int ended = 0;
+        while (ended < pipeline.getWorkerCount()) {
+            ImportPipeline.ChunkResult result = resultQueue.poll(5, TimeUnit.SECONDS);
+            assertNotNull(result, "counters stopped before sending their end markers");
+            if (result == ImportPipeline.END_OF_RESULTS) {
+                ended++;
+            }
+        }
+        pipeline.stopStages(executor);
+        assertStagesEnded(executor);
+    }
+
+    @Test
+    void testWriterFailureWithFullQueues() throws Exception {
+        ImportPipeline pipeline = new ImportPipeline(new TextProcessingService(), null, null);
+        BlockingQueue<ImportPipeline.TextChunk> chunkQueue = new ArrayBlockingQueue<>(8);
+        BlockingQueue<ImportPipeline.ChunkResult> resultQueue = new ArrayBlockingQueue<>(8);
+        ExecutorService executor = pipeline.startStages(writeLargeText(pipeline), 0, new ImportOptions(),
+                chunkQueue, resultQueue, pipeline.newInFlightLimit());
+
+        // The writer never takes a result, so every stage ends up blocked
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (resultQueue.remainingCapacity() > 0 || chunkQueue.remainingCapacity() > 0) {
+            assertTrue(System.nanoTime() < deadline, "queues did not fill up");
+            Thread.sleep(10);
+        }
+
+        pipeline.stopStages(executor);
+        assertStagesEnded(executor);
+    }
+
+    @Test
+    void testCancelMidStream() throws Exception {
+        ImportPipeline pipeline = new ImportPipeline(new TextProcessingService(), null, null);
+        BlockingQueue<ImportPipeline.TextChunk> chunkQueue = new ArrayBlockingQueue<>(8);
+        BlockingQueue<ImportPipeline.ChunkResult> resultQueue = new ArrayBlockingQueue<>(8);
+        Semaphore inFlight = pipeline.newInFlightLimit();
+        ExecutorService executor = pipeline.startStages(writeLargeText(pipeline), 0, new ImportOptions(),
+                chunkQueue, resultQueue, inFlight);
+
+        for (int i = 0; i < 2; i++) {
+            assertNotNull(resultQueue.poll(10, TimeUnit.SECONDS));
+            inFlight.release();
+        }
+        pipeline.cancel();
+        pipeline.stopStages(executor);
+        assertStagesEnded(executor);
+    }
+
+    /**
+     * Writes enough text to fill every queue and the in-flight limit.
+     */
+    private Path writeLargeText(ImportPipeline pipeline) throws Exception {
+        int chunks = 2 * 8 + pipeline.getWorkerCount() + 16;
+        return writeText(chunks * 262_144 / SENTENCE.length());
+    }
+
+    private Path writeText(int sentences) throws Exception {
+        Path file = tempDir.resolve("corpus.txt");
+        Files.writeString(file, SENTENCE.repeat(sentences), StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private static void assertStagesEnded(ExecutorService executor) throws InterruptedException {
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS), "pipeline stages did not stop");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (Thread.getAllStackTraces().keySet().stream()
+                .anyMatch(thread -> thread.getName().startsWith("import-pipeline-") && thread.isAlive())) {
+            assertTrue(System.nanoTime() < deadline, "an import-pipeline thread is still alive");
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package edu.utdallas.cs4485.sentencebuilder.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/******************************************************************************
+ * Suggestion Cache Unit Tests.
+ *
+ * This JUnit 5 test class verifies the SuggestionCache behind
+ * AutoCompleteService:
+ *
+ * 1. Bounded size:
+ *    - The least recently used context is evicted.
+ *
+ * 2. Model versions:
+ *    - Bumping the model version drops every entry.
+ *    - Suggestions read before an import finished are not stored.
+ *
+ * 3. Cache keys:
+ *    - Contexts that end in the same words share an entry.
+ ******************************************************************************/
+class SuggestionCacheTest {
+
+    @Test
+    void testLeastRecentlyUsedContextIsEvicted() {
+        SuggestionCache cache = new SuggestionCache(2);
+        long version = ModelVersion.current();
+        cache.put("1:10:the", List.of("cat"), version);
+        cache.put("1:10:cat", List.of("sat"), version);
+
+        // Touch "the" so "cat" becomes the eldest
+        assertEquals(List.of("cat"), cache.get("1:10:the"));
+        cache.put("1:10:sat", List.of("on"), version);
+
+        assertEquals(2, cache.size());
+        assertNull(cache.get("1:10:cat"));
+        assertEquals(1, cache.getEvictions());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void testImportInvalidatesEntries() {
+        SuggestionCache cache = new SuggestionCache(10);
+        long before = ModelVersion.current();
+        cache.put("1:10:the", List.of("cat"), before);
+        assertNotNull(cache.get("1:10:the"));
+
+        ModelVersion.bump();
+        assertNull(cache.get("1:10:the"));
+        assertEquals(1, cache.getInvalidations());
+
+        // A lookup that started before the import must not repopulate the cache
+        cache.put("1:10:the", List.of("cat"), before);
+        assertEquals(0, cache.size());
+
+        cache.put("1:10:the", List.of("dog"), ModelVersion.current());
+        assertEquals(List.of("dog"), cache.get("1:10:the"));
+    }
+
+    @Test
+    void testCacheKeyUsesOnlyTheWordsAnOrderReads() {
+        String[] shortContext = {"sat"};
+        String[] longContext = {"the", "cat", "sat"};
+
+        assertEquals(AutoCompleteService.cacheKey(shortContext, 1, 10),
+                AutoCompleteService.cacheKey(longContext, 1, 10));
+        assertEquals(AutoCompleteService.cacheKey(shortContext, 2, 10),
+                AutoCompleteService.cacheKey(longContext, 2, 10));
+        assertNotEquals(AutoCompleteService.cacheKey(shortContext, 3, 10),
+                AutoCompleteService.cacheKey(longContext, 3, 10));
+        assertNotEquals(AutoCompleteService.cacheKey(longContext, 1, 5),
+                AutoCompleteService.cacheKey(longContext, 1, 10));
+    }
+}
@@ -2,8 +2,25 @@ package edu.utdallas.cs4485.sentencebuilder.service;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import edu.utdallas.cs4485.sentencebuilder.util.FileUtils;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -38,6 +55,17 @@ import static org.junit.jupiter.api.Assertions.*;
  *    - isSupportedFileFormat enforces the set of allowed import formats
  *      (txt, pdf, doc, docx) and rejects unsupported extensions.
  *
+ * 5. Streaming:
+ *    - streamText delivers the whole text as sentence-aligned chunks.
+ *    - Resuming at the UTF-8 offset of delivered chunks yields exactly the
+ *      remaining chunks, including for multi-byte characters.
+ *    - Multi-byte characters split across memory-mapped read windows are
+ *      decoded intact.
+ *    - PDF pages and DOCX paragraphs are extracted in document order.
+ *    - Gzip files decompress straight into the chunker, resume by
+ *      uncompressed offset and hash the same as the uncompressed file.
+ *    - Each text entry of a zip archive streams as a file of its own.
+ *
  * These tests ensure that the text-processing layer behaves predictably and
  * defensively, which is critical when transforming user-uploaded files into
  * the normalized text that feeds our database and generation algorithms.
@@ -105,7 +133,7 @@ class TextProcessingServiceTest {
         // TODO: Implement test
         assertTrue(service.isSupportedFileFormat("test.txt"));
         assertTrue(service.isSupportedFileFormat("test.pdf"));
-        assertTrue(service.isSupportedFileFormat("test.doc"));
+        assertFalse(service.isSupportedFileFormat("test.doc"));
         assertTrue(service.isSupportedFileFormat("test.docx"));
         assertFalse(service.isSupportedFileFormat("test.jpg"));
     }
@@ -120,4 +148,139 @@ class TextProcessingServiceTest {
         assertFalse(cleaned.contains("\t"));
         assertFalse(cleaned.contains("\n\n"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testStreamTextResumesFromOffset(@TempDir Path dir) throws Exception {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            text.append("Sentence número ").append(i).append(" ends here. ");
+        }
+        Path file = dir.resolve("sample.txt");
+        Files.writeString(file, text, StandardCharsets.UTF_8);
+
+        List<String> chunks = new ArrayList<>();
+        service.streamText(file, 1024, chunks::add);
+        assertTrue(chunks.size() > 2);
+        assertEquals(text.toString(), String.join("", chunks));
+
+        long offset = TextProcessingService.utf8Length(chunks.get(0)) + TextProcessingService.utf8Length(chunks.get(1));
+        assertEquals(chunks.get(0).getBytes(StandardCharsets.UTF_8).length
+                + chunks.get(1).getBytes(StandardCharsets.UTF_8).length, offset);
+
+        List<String> resumed = new ArrayList<>();
+        service.streamText(file, offset, 1024, resumed::add);
+        assertEquals(chunks.subList(2, chunks.size()), resumed);
+    }
+
+    @Test
+    void testStreamTextAcrossReadWindows(@TempDir Path dir) throws Exception {
+        // Three-byte characters guarantee some fall across a 64 KB window edge
+        StringBuilder text = new StringBuilder();
+        while (text.length() < 150_000) {
+            text.append("Über café ✓ naïve résumé. ");
+        }
+        Path file = dir.resolve("large.txt");
+        Files.writeString(file, text, StandardCharsets.UTF_8);
+
+        TextProcessingService windowed = new TextProcessingService(64 * 1024);
+        List<String> chunks = new ArrayList<>();
+        windowed.streamText(file, 4096, chunks::add);
+
+        assertTrue(Files.size(file) > 2 * 64 * 1024);
+        assertEquals(text.toString(), String.join("", chunks));
+    }
+
+    @Test
+    void testExtractTextFromDocx(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("sample.docx");
+        try (OutputStream out = Files.newOutputStream(file); ZipOutputStream zip = new ZipOutputStream(out)) {
+            zip.putNextEntry(new ZipEntry("word/document.xml"));
+            zip.write(("<w:document xmlns:w=\"http://schemas.openxmlformats.org/wordprocessingml/2006/main\"><w:body>"
+                    + "<w:p><w:r><w:t>The cat</w:t></w:r><w:r><w:t xml:space=\"preserve\"> sat.</w:t></w:r></w:p>"
+                    + "<w:p><w:r><w:t>The dog ran.</w:t></w:r></w:p>"
+                    + "</w:body></w:document>").getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+
+        String text = service.extractText(file);
+
+        assertEquals("The cat sat. The dog ran.", service.cleanText(text));
+    }
+
+    @Test
+    void testExtractTextFromPdf(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("sample.pdf");
+        try (PDDocument document = new PDDocument()) {
+            for (String line : List.of("First page text.", "Second page text.")) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 12);
+                    content.newLineAtOffset(72, 700);
+                    content.showText(line);
+                    content.endText();
+                }
+            }
+            document.save(file.toFile());
+        }
+
+        List<String> chunks = new ArrayList<>();
+        service.streamText(file, 1024, chunks::add);
+        String text = service.cleanText(String.join("", chunks));
+
+        assertEquals("First page text. Second page text.", text);
+    }
+
+    @Test
+    void testStreamTextFromGzip(@TempDir Path dir) throws Exception {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            text.append("Compressed sentence número ").append(i).append(". ");
+        }
+        Path plain = dir.resolve("corpus.txt");
+        Files.writeString(plain, text, StandardCharsets.UTF_8);
+        Path file = dir.resolve("corpus.txt.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+            out.write(text.toString().getBytes(StandardCharsets.UTF_8));
+        }
+
+        List<String> chunks = new ArrayList<>();
+        service.streamText(file, 1024, chunks::add);
+        assertEquals(text.toString(), String.join("", chunks));
+
+        long offset = TextProcessingService.utf8Length(chunks.get(0));
+        List<String> resumed = new ArrayList<>();
+        service.streamText(file, offset, 1024, resumed::add);
+        assertEquals(chunks.subList(1, chunks.size()), resumed);
+
+        assertTrue(FileUtils.isSupportedFormat(file.getFileName().toString()));
+        assertEquals(FileUtils.contentHash(plain), FileUtils.contentHash(file));
+    }
+
+    @Test
+    void testStreamTextFromZipEntries(@TempDir Path dir) throws Exception {
+        Path archive = dir.resolve("corpus.zip");
+        try (OutputStream out = Files.newOutputStream(archive); ZipOutputStream zip = new ZipOutputStream(out)) {
+            zip.putNextEntry(new ZipEntry("books/first.txt"));
+            zip.write("The first book.".getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+            zip.putNextEntry(new ZipEntry("notes.pdf"));
+            zip.write(new byte[] {1, 2, 3});
+            zip.closeEntry();
+            zip.putNextEntry(new ZipEntry("second.txt"));
+            zip.write("The second book.".getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+
+        List<Path> entries = FileUtils.listArchiveEntries(archive);
+        assertEquals(2, entries.size());
+        assertEquals("first.txt", entries.get(0).getFileName().toString());
+        assertTrue(FileUtils.isValidFile(entries.get(1)));
+
+        List<String> chunks = new ArrayList<>();
+        service.streamText(entries.get(1), 1024, chunks::add);
+        assertEquals("The second book.", String.join("", chunks));
+        assertEquals("The first book.", service.extractText(entries.get(0)));
+    }
+}
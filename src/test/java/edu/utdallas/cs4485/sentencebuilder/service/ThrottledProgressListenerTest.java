@@ -0,0 +1,51 @@
+package edu.utdallas.cs4485.sentencebuilder.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/******************************************************************************
+ * Throttled Progress Listener Unit Tests.
+ *
+ * This JUnit 5 test class verifies the ThrottledProgressListener, which keeps
+ * import progress from flooding the JavaFX application thread:
+ *
+ * 1. Rate limiting:
+ *    - The first update is forwarded, updates inside the interval are not.
+ *    - The final (complete) update is always forwarded.
+ *
+ * 2. No interval:
+ *    - With a zero interval every update is forwarded.
+ ******************************************************************************/
+class ThrottledProgressListenerTest {
+
+    @Test
+    void testUpdatesInsideIntervalAreDropped() {
+        List<String> forwarded = new ArrayList<>();
+        ThrottledProgressListener listener = new ThrottledProgressListener(
+                (fraction, message) -> forwarded.add(message), 60_000);
+
+        listener.onProgress(0.1, "first");
+        listener.onProgress(0.2, "second");
+        listener.onProgress(0.3, "third");
+        listener.onProgress(1.0, "done");
+
+        assertEquals(List.of("first", "done"), forwarded);
+    }
+
+    @Test
+    void testZeroIntervalForwardsEverything() {
+        List<String> forwarded = new ArrayList<>();
+        ThrottledProgressListener listener = new ThrottledProgressListener(
+                (fraction, message) -> forwarded.add(message), 0);
+
+        listener.onProgress(0.1, "first");
+        listener.onProgress(0.2, "second");
+        listener.onProgress(1.0, "done");
+
+        assertEquals(List.of("first", "second", "done"), forwarded);
+    }
+}
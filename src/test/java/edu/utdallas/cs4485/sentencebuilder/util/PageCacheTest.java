@@ -0,0 +1,147 @@
+package edu.utdallas.cs4485.sentencebuilder.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/******************************************************************************
+ * Page Cache Unit Tests.
+ *
+ * This JUnit 5 test class verifies the PageCache behind the database
+ * browser's lists, using executors that run everything immediately:
+ *
+ * 1. Paging:
+ *    - The list reports the full row count but reads one page at a time.
+ *    - Scrolling forward seeks from the last row of the previous page.
+ *    - Jumping ahead falls back to a row offset.
+ *    - Each count and page load reports the rows it replaced.
+ *
+ * 2. Refresh and errors:
+ *    - A refresh drops loaded pages and re-counts.
+ *    - A failed page is reported once and not retried until refresh.
+ ******************************************************************************/
+class PageCacheTest {
+
+    private static final Executor NOW = Runnable::run;
+    private static final PageCache.ChangeListener IGNORE = (from, to, removed) -> { };
+
+    /**
+     * Source over the numbers 0 to size - 1 that records its reads.
+     */
+    private static class NumberSource implements PageCache.PageSource<Integer> {
+
+        private int size;
+        private final List<String> reads = new ArrayList<>();
+        private boolean failing;
+
+        NumberSource(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public int count() {
+            return size;
+        }
+
+        @Override
+        public List<Integer> loadAfter(Integer last, int limit) throws SQLException {
+            reads.add("after " + last);
+            return range(last == null ? 0 : last + 1, limit);
+        }
+
+        @Override
+        public List<Integer> loadAt(int offset, int limit) throws SQLException {
+            reads.add("at " + offset);
+            return range(offset, limit);
+        }
+
+        private List<Integer> range(int from, int limit) throws SQLException {
+            if (failing) {
+                throw new SQLException("down");
+            }
+            List<Integer> rows = new ArrayList<>();
+            for (int i = from; i < Math.min(size, from + limit); i++) {
+                rows.add(i);
+            }
+            return rows;
+        }
+    }
+
+    @Test
+    void testScrollingSeeksFromPreviousPage() {
+        NumberSource source = new NumberSource(25);
+        PageCache<Integer> items = new PageCache<>(10, 5, NOW, NOW, IGNORE);
+        items.setSource(source);
+
+        assertEquals(25, items.size());
+        assertTrue(source.reads.isEmpty());
+
+        assertEquals(3, items.get(3));
+        // Row 8 is past three quarters of the page, so page 1 is prefetched
+        assertEquals(8, items.get(8));
+        assertEquals(15, items.get(15));
+        assertEquals(24, items.get(24));
+
+        assertEquals(List.of("after null", "after 9", "after 19"), source.reads);
+        assertEquals(3, items.getCachedPageCount());
+    }
+
+    @Test
+    void testJumpAheadUsesOffset() {
+        NumberSource source = new NumberSource(100);
+        PageCache<Integer> items = new PageCache<>(10, 2, NOW, NOW, IGNORE);
+        items.setSource(source);
+
+        assertEquals(52, items.get(52));
+        assertEquals(List.of("at 50"), source.reads);
+
+        // Reading pages 0 to 2 evicts page 5, whose predecessor is unknown
+        items.get(0);
+        items.get(19);
+        assertEquals(2, items.getCachedPageCount());
+        assertEquals(52, items.get(52));
+        assertEquals("at 50", source.reads.get(source.reads.size() - 1));
+    }
+
+    @Test
+    void testReportsReplacedRows() {
+        NumberSource source = new NumberSource(25);
+        List<String> changes = new ArrayList<>();
+        PageCache<Integer> items = new PageCache<>(10, 5, NOW, NOW,
+                (from, to, removed) -> changes.add(from + "-" + to + " was " + removed));
+        items.setSource(source);
+        items.get(21);
+
+        source.size = 5;
+        items.refresh();
+        assertEquals(List.of("0-25 was 0", "20-25 was 5", "0-5 was 25"), changes);
+    }
+
+    @Test
+    void testRefreshAndErrors() {
+        NumberSource source = new NumberSource(30);
+        PageCache<Integer> items = new PageCache<>(10, 5, NOW, NOW, IGNORE);
+        List<Exception> errors = new ArrayList<>();
+        items.setOnError(errors::add);
+        items.setSource(source);
+
+        source.failing = true;
+        assertNull(items.get(0));
+        assertNull(items.get(1));
+        assertEquals(1, errors.size());
+        assertEquals(1, source.reads.size());
+
+        source.failing = false;
+        source.size = 12;
+        items.refresh();
+        assertEquals(12, items.size());
+        assertEquals(0, items.get(0));
+        assertEquals(11, items.get(11));
+        assertThrows(IndexOutOfBoundsException.class, () -> items.get(12));
+    }
+}